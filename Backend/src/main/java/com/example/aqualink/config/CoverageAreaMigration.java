@@ -0,0 +1,101 @@
+package com.example.aqualink.config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.aqualink.entity.DeliveryPersonCoverage;
+import com.example.aqualink.entity.DeliveryPersonCoverageArea;
+import com.example.aqualink.entity.User;
+import com.example.aqualink.repository.DeliveryPersonCoverageAreaRepository;
+import com.example.aqualink.repository.DeliveryPersonCoverageRepository;
+
+/**
+ * Moves coverage stored in the legacy comma-joined "District:Town" column (delivery_person_coverage.towns)
+ * into one delivery_person_coverage_areas row per town. Migrated legacy rows are deleted, so running it
+ * again on every startup is a no-op once the old table is empty.
+ *
+ * The migration runs in its own transaction: if it fails, nothing is moved, the error is logged and the
+ * legacy rows are left for the next startup.
+ */
+@Component
+public class CoverageAreaMigration {
+
+    @Autowired
+    private DeliveryPersonCoverageRepository legacyCoverageRepository;
+
+    @Autowired
+    private DeliveryPersonCoverageAreaRepository coverageAreaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void migrateLegacyCoverage() {
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> migrate());
+        } catch (Exception e) {
+            System.err.println("Error during coverage migration, legacy coverage left in place: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private void migrate() {
+        List<DeliveryPersonCoverage> legacyRows = legacyCoverageRepository.findAll();
+        if (legacyRows.isEmpty()) {
+            return;
+        }
+
+        // Existing normalized keys per delivery person, so re-running never creates duplicates
+        Map<Long, Set<String>> existingKeys = new HashMap<>();
+        List<DeliveryPersonCoverageArea> toInsert = new ArrayList<>();
+
+        for (DeliveryPersonCoverage legacy : legacyRows) {
+            User deliveryPerson = legacy.getDeliveryPersonUser();
+            Set<String> keys = existingKeys.computeIfAbsent(deliveryPerson.getId(), id -> {
+                Set<String> loaded = new HashSet<>();
+                for (DeliveryPersonCoverageArea area :
+                        coverageAreaRepository.findByDeliveryPersonUserIdOrderByDistrictAscTownAsc(id)) {
+                    loaded.add(area.getDistrict() + ":" + area.getTown());
+                }
+                return loaded;
+            });
+
+            for (String entry : legacy.getTowns()) {
+                String value = entry.trim();
+                if (value.isEmpty()) {
+                    continue;
+                }
+                // Very old rows hold a bare town name without its district
+                String district = "";
+                String town = value;
+                if (value.contains(":")) {
+                    String[] parts = value.split(":", 2);
+                    district = parts[0].trim();
+                    town = parts[1].trim();
+                }
+                if (keys.add(district + ":" + town)) {
+                    toInsert.add(new DeliveryPersonCoverageArea(deliveryPerson, district, town));
+                }
+            }
+        }
+
+        coverageAreaRepository.saveAll(toInsert);
+        legacyCoverageRepository.deleteAll(legacyRows);
+
+        System.out.println("Coverage migration: moved " + legacyRows.size() + " legacy coverage row(s) into "
+                + toInsert.size() + " coverage area row(s)");
+    }
+}
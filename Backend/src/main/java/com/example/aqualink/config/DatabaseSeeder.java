@@ -27,7 +27,7 @@ public class DatabaseSeeder {
     private final ServiceRepository serviceRepository;
     private final BlogPostRepository blogPostRepository;
     private final BlogCommentRepository blogCommentRepository;
-    private final DeliveryPersonCoverageRepository deliveryPersonCoverageRepository;
+    private final DeliveryPersonCoverageAreaRepository deliveryPersonCoverageAreaRepository;
     private final BannerRepository bannerRepository;
     private final PasswordEncoder passwordEncoder;
 
@@ -583,10 +583,7 @@ public class DatabaseSeeder {
     }
 
     private void createCoverage(User user, String district, String city, double chargePerKm) {
-        DeliveryPersonCoverage coverage = new DeliveryPersonCoverage();
-        coverage.setDeliveryPersonUser(user);
-        coverage.setTowns(List.of(city)); // Using helper method to set towns
-        deliveryPersonCoverageRepository.save(coverage);
+        deliveryPersonCoverageAreaRepository.save(new DeliveryPersonCoverageArea(user, district, city));
     }
 
     @Transactional
@@ -1,15 +1,24 @@
 package com.example.aqualink.config;
 
 import java.io.File;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import com.example.aqualink.service.ContentAddressedStore;
+
 @Configuration
 public class FileUploadConfig implements WebMvcConfigurer {
 
+    // Uploaded files get unique names and are never rewritten, so browsers may keep them for a while
+    private static final CacheControl UPLOAD_CACHE_CONTROL = CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic();
+    // Content-addressed uploads are named by their SHA-256, so their bytes can never change under a URL
+    private static final CacheControl BLOB_CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
     @Value("${file.upload-dir}")
     private String uploadDir;
     @Value("${industrialimages.upload.dir}")
@@ -25,7 +34,17 @@ public class FileUploadConfig implements WebMvcConfigurer {
 
         // Handle main upload directory
         registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:" + uploadDir);
+                .addResourceLocations("file:" + uploadDir)
+                .setCacheControl(UPLOAD_CACHE_CONTROL);
+
+        // Handle content-addressed uploads (blobs/ab/cd/<hash>.ext and their renditions)
+        File blobDirectory = new File(uploadDir + ContentAddressedStore.BLOB_DIR + "/");
+        if (!blobDirectory.exists()) {
+            blobDirectory.mkdirs();
+        }
+        registry.addResourceHandler("/uploads/" + ContentAddressedStore.BLOB_DIR + "/**")
+                .addResourceLocations("file:" + uploadDir + ContentAddressedStore.BLOB_DIR + "/")
+                .setCacheControl(BLOB_CACHE_CONTROL);
 
         // Create and handle banner uploads directory
         File bannerDirectory = new File(uploadDir + "banners/");
@@ -33,7 +52,8 @@ public class FileUploadConfig implements WebMvcConfigurer {
             bannerDirectory.mkdirs();
         }
         registry.addResourceHandler("/uploads/banners/**")
-                .addResourceLocations("file:" + uploadDir + "banners/");
+                .addResourceLocations("file:" + uploadDir + "banners/")
+                .setCacheControl(UPLOAD_CACHE_CONTROL);
 
         // Create and handle industrial images directory
         File industrialImagesDirectory = new File(industrialImagesUploadDir);
@@ -41,7 +61,8 @@ public class FileUploadConfig implements WebMvcConfigurer {
             industrialImagesDirectory.mkdirs();
         }
         registry.addResourceHandler("/uploads/industrial_images/**")
-                .addResourceLocations("file:" + industrialImagesUploadDir);
+                .addResourceLocations("file:" + industrialImagesUploadDir)
+                .setCacheControl(UPLOAD_CACHE_CONTROL);
 
         // Handle fish images (if needed)
         File fishImagesDirectory = new File(uploadDir + "fish_images/");
@@ -49,7 +70,8 @@ public class FileUploadConfig implements WebMvcConfigurer {
             fishImagesDirectory.mkdirs();
         }
         registry.addResourceHandler("/uploads/fish_images/**")
-                .addResourceLocations("file:" + uploadDir + "fish_images/");
+                .addResourceLocations("file:" + uploadDir + "fish_images/")
+                .setCacheControl(UPLOAD_CACHE_CONTROL);
 
         // Handle service images (if needed)
         File serviceImagesDirectory = new File(uploadDir + "service_images/");
@@ -57,7 +79,8 @@ public class FileUploadConfig implements WebMvcConfigurer {
             serviceImagesDirectory.mkdirs();
         }
         registry.addResourceHandler("/uploads/service_images/**")
-                .addResourceLocations("file:" + uploadDir + "service_images/");
+                .addResourceLocations("file:" + uploadDir + "service_images/")
+                .setCacheControl(UPLOAD_CACHE_CONTROL);
 
         // Handle blog images
         File blogImagesDirectory = new File(uploadDir + "blog/");
@@ -65,7 +88,8 @@ public class FileUploadConfig implements WebMvcConfigurer {
             blogImagesDirectory.mkdirs();
         }
         registry.addResourceHandler("/uploads/blog/**")
-                .addResourceLocations("file:" + uploadDir + "blog/");
+                .addResourceLocations("file:" + uploadDir + "blog/")
+                .setCacheControl(UPLOAD_CACHE_CONTROL);
     }
 }
 
@@ -0,0 +1,55 @@
+package com.example.aqualink.config;
+
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.aqualink.repository.FishRepository;
+import com.example.aqualink.repository.IndustrialStuffRepository;
+
+/**
+ * Gives fish ads and industrial items saved without a create_date_and_time the oldest possible date.
+ * The marketplace feeds page by (create_date_and_time, id), and a row without a date would never be reached
+ * from a cursor. MySQL already sorted those rows after every dated one, so they keep their place at the end
+ * of the feed.
+ *
+ * New rows always get a date from @PrePersist, so after the first run the updates match nothing.
+ */
+@Component
+public class ListingDateBackfill {
+
+    private static final LocalDateTime MISSING_CREATE_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private FishRepository fishRepository;
+
+    @Autowired
+    private IndustrialStuffRepository industrialStuffRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void backfillMissingCreateDates() {
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                int fish = fishRepository.backfillMissingCreateDate(MISSING_CREATE_DATE);
+                int industrial = industrialStuffRepository.backfillMissingCreateDate(MISSING_CREATE_DATE);
+                if (fish + industrial > 0) {
+                    System.out.println("Listing date backfill: dated " + fish + " fish ad(s) and "
+                            + industrial + " industrial item(s)");
+                }
+            });
+        } catch (Exception e) {
+            System.err.println("Error during listing date backfill: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.aqualink.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.aqualink.repository.OrderItemRepository;
+
+/**
+ * Moves the fish ad or industrial item ID of checkout order items from product_id to listing_id.
+ * Checkout items used to keep it in product_id, where it looked like a product that does not exist (or,
+ * worse, a different one with the same ID). Only checkout writes product_type, so that is what marks them.
+ *
+ * New checkout items are written with listing_id, so after the first run the update matches nothing.
+ */
+@Component
+public class OrderItemListingBackfill {
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void moveListingIds() {
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                int moved = orderItemRepository.moveListingIdsOffProductId();
+                if (moved > 0) {
+                    System.out.println("Order item backfill: moved " + moved + " listing ID(s) to listing_id");
+                }
+            });
+        } catch (Exception e) {
+            System.err.println("Error during order item listing backfill: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
@@ -76,7 +76,7 @@ public class AdminController {
                         .body(createErrorResponse("Admin access required"));
             }
 
-            Long adminId = getCurrentUserId(request);
+            Long adminId = jwtUtil.getCurrentUserId(request);
             boolean success = adminVerificationService.approveUser(userId, adminId);
 
             if (success) {
@@ -110,7 +110,7 @@ public class AdminController {
                         .body(createErrorResponse("Admin access required"));
             }
 
-            Long adminId = getCurrentUserId(request);
+            Long adminId = jwtUtil.getCurrentUserId(request);
             boolean success = adminVerificationService.rejectUser(userId, adminId);
 
             if (success) {
@@ -207,7 +207,7 @@ public class AdminController {
     // Helper method to check if user is admin
     private boolean isAdminAuthenticated(HttpServletRequest request) {
         try {
-            Long userId = getCurrentUserId(request);
+            Long userId = jwtUtil.getCurrentUserId(request);
             if (userId == null) {
                 return false;
             }
@@ -245,26 +245,6 @@ public class AdminController {
         }
     }
 
-    // Helper method to get userId from JWT token claims
-    private Long getCurrentUserId(HttpServletRequest request) {
-        try {
-            String authHeader = request.getHeader("Authorization");
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
-                Object userIdObj = jwtUtil.extractClaim(token, claims -> claims.get("userId"));
-                if (userIdObj instanceof Integer) {
-                    return ((Integer) userIdObj).longValue();
-                } else if (userIdObj instanceof Long) {
-                    return (Long) userIdObj;
-                } else if (userIdObj instanceof String) {
-                    return Long.parseLong((String) userIdObj);
-                }
-            }
-        } catch (Exception e) {
-            // Log or handle exception if needed
-        }
-        return null;
-    }
 
     private Map<String, String> createErrorResponse(String message) {
         Map<String, String> error = new HashMap<>();
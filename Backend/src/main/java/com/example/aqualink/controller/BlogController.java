@@ -3,6 +3,7 @@ package com.example.aqualink.controller;
 import com.example.aqualink.dto.BlogCommentDto;
 import com.example.aqualink.dto.BlogPostDto;
 import com.example.aqualink.dto.BlogReactionDto;
+import com.example.aqualink.dto.BlogSearchResultDTO;
 import com.example.aqualink.entity.ReactionType;
 import com.example.aqualink.service.BlogService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,6 +39,14 @@ public class BlogController {
         return ResponseEntity.ok(posts);
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<BlogSearchResultDTO> searchBlogPosts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(blogService.searchPublishedPosts(q, page, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<BlogPostDto> getBlogPostById(@PathVariable Long id) {
         return ResponseEntity.ok(blogService.getBlogPostById(id));
@@ -1,7 +1,10 @@
 package com.example.aqualink.controller;
 
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -11,7 +14,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.example.aqualink.dto.CreateQuoteForFrontendDTO;
 import com.example.aqualink.dto.DeliveryQuoteDTO;
@@ -60,22 +65,41 @@ public class DeliveryQuoteController {
     }
 
     /**
-     * Get available quote requests for delivery persons
+     * Get available quote requests for delivery persons, total count in X-Total-Count.
+     * All of them unless ?page= or ?size= is given; then one page (50 requests unless sized).
      */
     @GetMapping("/available")
     @PreAuthorize("hasRole('DELIVERY_PERSON')")
-    public ResponseEntity<List<DeliveryRequestForFrontendDTO>> getAvailableQuoteRequests(Authentication authentication) {
+    public ResponseEntity<List<DeliveryRequestForFrontendDTO>> getAvailableQuoteRequests(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication) {
         String deliveryPersonEmail = authentication.getName();
-        System.out.println("Fetching available requests for: " + deliveryPersonEmail);
-        
-        // Add debugging to check user roles
-        if (authentication != null && authentication.getAuthorities() != null) {
-            System.out.println("User authorities: " + authentication.getAuthorities());
-        }
-        
-        List<DeliveryRequestForFrontendDTO> requests = deliveryQuoteService.getAvailableQuoteRequestsForDeliveryPerson(deliveryPersonEmail);
-        System.out.println("Found " + requests.size() + " available requests");
-        return ResponseEntity.ok(requests);
+
+        Page<DeliveryRequestForFrontendDTO> requests =
+                deliveryQuoteService.getAvailableQuoteRequestsForDeliveryPerson(deliveryPersonEmail, page, size);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(requests.getTotalElements()))
+                .body(requests.getContent());
+    }
+
+    /**
+     * Exchange the caller's JWT for a single-use ticket that opens /stream (EventSource cannot send headers)
+     */
+    @PostMapping("/stream-ticket")
+    @PreAuthorize("hasRole('DELIVERY_PERSON')")
+    public ResponseEntity<Map<String, String>> issueStreamTicket(Authentication authentication) {
+        String ticket = deliveryQuoteService.issueRequestStreamTicket(authentication.getName());
+        return ResponseEntity.ok(Map.of("ticket", ticket));
+    }
+
+    /**
+     * Stream newly created delivery requests in the delivery person's coverage area (server-sent events).
+     * Authenticated by the ticket from /stream-ticket rather than a bearer token.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNewRequests(@RequestParam String ticket) {
+        return deliveryQuoteService.subscribeToNewRequests(ticket);
     }
 
     /**
@@ -126,6 +150,7 @@ public class DeliveryQuoteController {
             @PathVariable Long quoteId,
             Authentication authentication) {
         String customerEmail = authentication.getName();
+        // A lost race against another accept is a ConflictException (409), someone else's order a 403
         DeliveryQuoteDTO acceptedQuote = deliveryQuoteService.acceptQuote(quoteId, customerEmail);
         return ResponseEntity.ok(acceptedQuote);
     }
@@ -1,48 +1,106 @@
 package com.example.aqualink.controller;
 
+import com.example.aqualink.service.ContentAddressedStore;
 import com.example.aqualink.service.FileStorageService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/files")
 public class FileController {
 
+    private static final CacheControl FILE_CACHE_CONTROL = CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic();
+    // Content-addressed files are named by their hash, so a given URL always returns the same bytes
+    private static final CacheControl BLOB_CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+    // Content type per file extension, resolved once instead of probing the file system per request
+    private static final Map<String, MediaType> CONTENT_TYPES = new ConcurrentHashMap<>();
+
     @Autowired
     private FileStorageService fileStorageService;
 
+    /**
+     * Streams the file from disk (Range requests are answered with 206 by Spring's resource region support)
+     * and answers conditional requests with 304 based on a strong ETag and Last-Modified.
+     */
     @GetMapping("/{category}/{filename:.+}")
-    public ResponseEntity<ByteArrayResource> serveFile(
+    public ResponseEntity<Resource> serveFile(
             @PathVariable String category,
-            @PathVariable String filename) {
-        
+            @PathVariable String filename,
+            WebRequest webRequest) {
+
+        if (category.contains("..") || filename.contains("..")) {
+            return ResponseEntity.notFound().build();
+        }
+        return serve(category + "/" + filename, filename, FILE_CACHE_CONTROL, webRequest);
+    }
+
+    /**
+     * Files from the content-addressed store ({@code blobs/ab/cd/<sha-256>.ext}), cached as immutable.
+     */
+    @GetMapping("/" + ContentAddressedStore.BLOB_DIR + "/{shard1}/{shard2}/{filename:.+}")
+    public ResponseEntity<Resource> serveBlob(
+            @PathVariable String shard1,
+            @PathVariable String shard2,
+            @PathVariable String filename,
+            WebRequest webRequest) {
+
+        String filePath = ContentAddressedStore.BLOB_DIR + "/" + shard1 + "/" + shard2 + "/" + filename;
+        if (!ContentAddressedStore.isBlobReference(filePath)) {
+            return ResponseEntity.notFound().build();
+        }
+        return serve(filePath, filename, BLOB_CACHE_CONTROL, webRequest);
+    }
+
+    private ResponseEntity<Resource> serve(String filePath, String filename, CacheControl cacheControl,
+                                           WebRequest webRequest) {
         try {
-            String filePath = category + "/" + filename;
             Path file = fileStorageService.loadFileAsPath(filePath);
-            byte[] fileContent = Files.readAllBytes(file);
-            
-            String contentType = Files.probeContentType(file);
-            if (contentType == null) {
-                contentType = "application/octet-stream";
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return ResponseEntity.notFound().build();
+            }
+
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            // Stored files are never rewritten in place, so size + mtime identifies the exact bytes
+            String etag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(attributes.size()) + "\"";
+            if (webRequest.checkNotModified(etag, lastModified)) {
+                return ResponseEntity.status(304).cacheControl(cacheControl).build();
             }
-            
-            ByteArrayResource resource = new ByteArrayResource(fileContent);
-            
+
             return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
+                    .contentType(contentTypeOf(filename))
+                    .cacheControl(cacheControl)
                     .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"")
-                    .body(resource);
-                    
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .body(new FileSystemResource(file));
+
         } catch (IOException e) {
             return ResponseEntity.notFound().build();
         }
     }
-}
\ No newline at end of file
+
+    private static MediaType contentTypeOf(String filename) {
+        int dot = filename.lastIndexOf('.');
+        String extension = dot >= 0 ? filename.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+        return CONTENT_TYPES.computeIfAbsent(extension, ext ->
+                MediaTypeFactory.getMediaType("file." + ext).orElse(MediaType.APPLICATION_OCTET_STREAM));
+    }
+}
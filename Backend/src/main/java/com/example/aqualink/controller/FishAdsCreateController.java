@@ -47,7 +47,7 @@ public class FishAdsCreateController {
             fishAdsRequestDTO.setImages(images);
 
             // Get userId from JWT token claims
-            Long userId = getCurrentUserId(request);
+            Long userId = jwtUtil.getCurrentUserId(request);
             System.out.println("Extracted userId from JWT token: " + userId);
             fishAdsRequestDTO.setUserId(userId);
 
@@ -66,25 +66,4 @@ public class FishAdsCreateController {
                     .body("Invalid request data: " + e.getMessage());
         }
     }
-
-    // Helper method to get userId from JWT token claims
-    private Long getCurrentUserId(HttpServletRequest request) {
-        try {
-            String authHeader = request.getHeader("Authorization");
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
-                Object userIdObj = jwtUtil.extractClaim(token, claims -> claims.get("userId"));
-                if (userIdObj instanceof Integer) {
-                    return ((Integer) userIdObj).longValue();
-                } else if (userIdObj instanceof Long) {
-                    return (Long) userIdObj;
-                } else if (userIdObj instanceof String) {
-                    return Long.parseLong((String) userIdObj);
-                }
-            }
-        } catch (Exception e) {
-            // Log or handle exception if needed
-        }
-        return null;
-    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.example.aqualink.controller;
 
+import com.example.aqualink.dto.CursorPage;
 import com.example.aqualink.dto.FishAdsResponseDTO;
 import com.example.aqualink.dto.FishPurchaseDTO;
 import com.example.aqualink.service.FishAdsViewService;
@@ -21,10 +22,28 @@ public class FishAdsViewController {
     private final FishAdsViewService fishAddService;
     private final JwtUtil jwtUtil;
 
+    /**
+     * Marketplace feed, newest first. With ?size= or ?cursor= it is paged: pass the X-Next-Cursor header of one
+     * response as ?cursor= for the next page. Without either, the whole feed is returned.
+     */
     @GetMapping
-    public ResponseEntity<List<FishAdsResponseDTO>> getAllFish() {
-        List<FishAdsResponseDTO> fishList = fishAddService.getAllAvailableFish();
-        return ResponseEntity.ok(fishList);
+    public ResponseEntity<List<FishAdsResponseDTO>> getAllFish(
+            @RequestParam(required = false) String district,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<FishAdsResponseDTO> page = fishAddService.getAvailableFishPage(
+                    blankToNull(district), minPrice, maxPrice, cursor, size);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header("X-Next-Cursor", page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id}")
@@ -42,7 +61,7 @@ public class FishAdsViewController {
 
     @GetMapping("/my-approved")
     public ResponseEntity<List<FishAdsResponseDTO>> getMyApprovedFishAds(HttpServletRequest request) {
-        Long userId = getCurrentUserId(request);
+        Long userId = jwtUtil.getCurrentUserId(request);
         if (userId == null) {
             return ResponseEntity.status(401).build();
         }
@@ -55,7 +74,7 @@ public class FishAdsViewController {
             HttpServletRequest request,
             @PathVariable Long id, 
             @RequestBody Map<String, Integer> stockUpdate) {
-        Long userId = getCurrentUserId(request);
+        Long userId = jwtUtil.getCurrentUserId(request);
         if (userId == null) {
             return ResponseEntity.status(401).body("Unauthorized");
         }
@@ -84,25 +103,8 @@ public class FishAdsViewController {
         }
     }
 
-    // Helper method to get userId from JWT token claims
-    private Long getCurrentUserId(HttpServletRequest request) {
-        try {
-            String authHeader = request.getHeader("Authorization");
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
-                Object userIdObj = jwtUtil.extractClaim(token, claims -> claims.get("userId"));
-                if (userIdObj instanceof Integer) {
-                    return ((Integer) userIdObj).longValue();
-                } else if (userIdObj instanceof Long) {
-                    return (Long) userIdObj;
-                } else if (userIdObj instanceof String) {
-                    return Long.parseLong((String) userIdObj);
-                }
-            }
-        } catch (Exception e) {
-            // Log or handle exception if needed
-        }
-        return null;
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
     }
 }
-
@@ -37,7 +37,7 @@ public class IndustrialStuffCreateController {
             IndustrialStuffRequestDTO industrialRequestDTO = objectMapper.readValue(industrialRequestJson, IndustrialStuffRequestDTO.class);
             industrialRequestDTO.setImages(images);
 
-            Long userId = getCurrentUserId(request);
+            Long userId = jwtUtil.getCurrentUserId(request);
             industrialRequestDTO.setUserId(userId);
 
             IndustrialStuff savedIndustrial = industrialService.saveIndustrialAd(industrialRequestDTO);
@@ -50,24 +50,4 @@ public class IndustrialStuffCreateController {
                     .body("Invalid request data: " + e.getMessage());
         }
     }
-
-    private Long getCurrentUserId(HttpServletRequest request) {
-        try {
-            String authHeader = request.getHeader("Authorization");
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
-                Object userIdObj = jwtUtil.extractClaim(token, claims -> claims.get("userId"));
-                if (userIdObj instanceof Integer) {
-                    return ((Integer) userIdObj).longValue();
-                } else if (userIdObj instanceof Long) {
-                    return (Long) userIdObj;
-                } else if (userIdObj instanceof String) {
-                    return Long.parseLong((String) userIdObj);
-                }
-            }
-        } catch (Exception e) {
-            // Log error
-        }
-        return null;
-    }
 }
@@ -1,5 +1,6 @@
 package com.example.aqualink.controller;
 
+import com.example.aqualink.dto.CursorPage;
 import com.example.aqualink.dto.IndustrialStuffResponseDTO;
 import com.example.aqualink.dto.IndustrialStuffPurchaseDTO;
 import com.example.aqualink.service.IndustrialStuffViewService;
@@ -17,10 +18,29 @@ public class IndustrialStuffViewController {
 
     private final IndustrialStuffViewService industrialService;
 
+    /**
+     * Marketplace feed, newest first. With ?size= or ?cursor= it is paged: pass the X-Next-Cursor header of one
+     * response as ?cursor= for the next page. Without either, the whole feed is returned.
+     */
     @GetMapping
-    public ResponseEntity<List<IndustrialStuffResponseDTO>> getAllIndustrial() {
-        List<IndustrialStuffResponseDTO> industrialList = industrialService.getAllAvailableIndustrial();
-        return ResponseEntity.ok(industrialList);
+    public ResponseEntity<List<IndustrialStuffResponseDTO>> getAllIndustrial(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String district,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<IndustrialStuffResponseDTO> page = industrialService.getAvailableIndustrialPage(
+                    blankToNull(category), blankToNull(district), minPrice, maxPrice, cursor, size);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header("X-Next-Cursor", page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id}")
@@ -46,4 +66,8 @@ public class IndustrialStuffViewController {
             return ResponseEntity.badRequest().body("Purchase failed. Check stock availability.");
         }
     }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
 }
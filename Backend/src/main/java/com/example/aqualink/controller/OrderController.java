@@ -12,12 +12,16 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.aqualink.dto.CursorPage;
+import com.example.aqualink.dto.OrderSummaryDTO;
 import com.example.aqualink.entity.Order;
 import com.example.aqualink.entity.User;
 import com.example.aqualink.repository.OrderRepository;
 import com.example.aqualink.repository.UserRepository;
+import com.example.aqualink.service.OrderListingService;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -29,26 +33,30 @@ public class OrderController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private OrderListingService orderListingService;
+
     /**
-     * Get all orders for the logged-in buyer (customer who placed orders)
+     * Get orders for the logged-in buyer (customer who placed orders), newest first.
+     * All of them unless ?size= or ?cursor= is given; then one page, and the X-Next-Cursor header of a
+     * response is the ?cursor= of the next page.
      */
     @GetMapping("/my-orders")
-    public ResponseEntity<List<Order>> getMyOrders(Authentication authentication) {
+    public ResponseEntity<List<OrderSummaryDTO>> getMyOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication) {
         try {
             String email = authentication.getName();
             System.out.println("Fetching orders for user: " + email);
-            
-            User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
 
-            // Get all orders where this user is the buyer
-            List<Order> orders = orderRepository.findAll().stream()
-                    .filter(order -> order.getBuyerUser().getId().equals(user.getId()))
-                    .toList();
-            
-            System.out.println("Found " + orders.size() + " orders for user " + email);
-            
-            return ResponseEntity.ok(orders);
+            CursorPage<OrderSummaryDTO> page = orderListingService.getBuyerOrders(email, null, cursor, size);
+
+            System.out.println("Found " + page.getItems().size() + " orders for user " + email);
+
+            return toResponse(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             System.err.println("Error fetching orders: " + e.getMessage());
             return ResponseEntity.internalServerError().build();
@@ -59,22 +67,16 @@ public class OrderController {
      * Get orders by status for the logged-in buyer
      */
     @GetMapping("/my-orders/status/{status}")
-    public ResponseEntity<List<Order>> getMyOrdersByStatus(
+    public ResponseEntity<List<OrderSummaryDTO>> getMyOrdersByStatus(
             @PathVariable String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
             Authentication authentication) {
         try {
             String email = authentication.getName();
-            User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-
             Order.OrderStatus orderStatus = Order.OrderStatus.valueOf(status);
-            
-            List<Order> orders = orderRepository.findAll().stream()
-                    .filter(order -> order.getBuyerUser().getId().equals(user.getId()))
-                    .filter(order -> order.getOrderStatus() == orderStatus)
-                    .toList();
-            
-            return ResponseEntity.ok(orders);
+
+            return toResponse(orderListingService.getBuyerOrders(email, orderStatus, cursor, size));
         } catch (Exception e) {
             System.err.println("Error fetching orders by status: " + e.getMessage());
             return ResponseEntity.badRequest().build();
@@ -159,30 +161,24 @@ public class OrderController {
     }
 
     /**
-     * Get all orders for farm owner (seller) - orders containing their products
+     * Get orders for farm owner (seller) - orders containing their products, newest first
      */
     @GetMapping("/seller-orders")
-    public ResponseEntity<List<Order>> getSellerOrders(Authentication authentication) {
+    public ResponseEntity<List<OrderSummaryDTO>> getSellerOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication) {
         try {
             String email = authentication.getName();
             System.out.println("Fetching seller orders for user: " + email);
-            
-            User seller = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
 
-            // Get all orders that contain products from this seller
-            List<Order> allOrders = orderRepository.findAll();
-            List<Order> sellerOrders = allOrders.stream()
-                    .filter(order -> order.getOrderItems() != null && 
-                            order.getOrderItems().stream()
-                                    .anyMatch(item -> item.getProduct() != null && 
-                                            item.getProduct().getUser() != null &&
-                                            item.getProduct().getUser().getId().equals(seller.getId())))
-                    .toList();
-            
-            System.out.println("Found " + sellerOrders.size() + " orders for seller " + email);
-            
-            return ResponseEntity.ok(sellerOrders);
+            CursorPage<OrderSummaryDTO> page = orderListingService.getSellerOrders(email, null, cursor, size);
+
+            System.out.println("Found " + page.getItems().size() + " orders for seller " + email);
+
+            return toResponse(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             System.err.println("Error fetching seller orders: " + e.getMessage());
             e.printStackTrace();
@@ -194,26 +190,16 @@ public class OrderController {
      * Get seller orders by status
      */
     @GetMapping("/seller-orders/status/{status}")
-    public ResponseEntity<List<Order>> getSellerOrdersByStatus(
+    public ResponseEntity<List<OrderSummaryDTO>> getSellerOrdersByStatus(
             @PathVariable String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
             Authentication authentication) {
         try {
             String email = authentication.getName();
-            User seller = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-
             Order.OrderStatus orderStatus = Order.OrderStatus.valueOf(status);
-            
-            List<Order> allOrders = orderRepository.findByOrderStatus(orderStatus);
-            List<Order> sellerOrders = allOrders.stream()
-                    .filter(order -> order.getOrderItems() != null && 
-                            order.getOrderItems().stream()
-                                    .anyMatch(item -> item.getProduct() != null && 
-                                            item.getProduct().getUser() != null &&
-                                            item.getProduct().getUser().getId().equals(seller.getId())))
-                    .toList();
-            
-            return ResponseEntity.ok(sellerOrders);
+
+            return toResponse(orderListingService.getSellerOrders(email, orderStatus, cursor, size));
         } catch (Exception e) {
             System.err.println("Error fetching seller orders by status: " + e.getMessage());
             return ResponseEntity.badRequest().build();
@@ -236,11 +222,12 @@ public class OrderController {
             Order order = orderRepository.findById(orderId)
                     .orElseThrow(() -> new RuntimeException("Order not found"));
 
-            // Verify this order contains products from this seller
+            // Verify this order contains products from this seller; checkout items record the seller ID
             boolean isSellerOrder = order.getOrderItems().stream()
-                    .anyMatch(item -> item.getProduct() != null && 
-                            item.getProduct().getUser() != null &&
-                            item.getProduct().getUser().getId().equals(seller.getId()));
+                    .anyMatch(item -> item.getProduct() != null
+                            ? item.getProduct().getUser() != null
+                                    && item.getProduct().getUser().getId().equals(seller.getId())
+                            : seller.getId().equals(item.getSellerId()));
 
             if (!isSellerOrder) {
                 return ResponseEntity.status(403).build();
@@ -258,4 +245,12 @@ public class OrderController {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    private ResponseEntity<List<OrderSummaryDTO>> toResponse(CursorPage<OrderSummaryDTO> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header("X-Next-Cursor", page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
 }
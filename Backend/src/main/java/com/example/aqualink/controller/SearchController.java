@@ -0,0 +1,39 @@
+package com.example.aqualink.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.aqualink.dto.ListingSearchResultDTO;
+import com.example.aqualink.service.ListingSearchIndex;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final ListingSearchIndex listingSearchIndex;
+
+    /**
+     * Ranked search across fish, industrial and service listings with type/category/district facet counts.
+     * Every filter is optional; an empty q browses all listings.
+     */
+    @GetMapping
+    public ResponseEntity<ListingSearchResultDTO> search(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String district,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        ListingSearchResultDTO result = listingSearchIndex.search(q, type, category, district,
+                minPrice, maxPrice, page, size);
+        return ResponseEntity.ok(result);
+    }
+}
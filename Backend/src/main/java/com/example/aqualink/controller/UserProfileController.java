@@ -42,7 +42,7 @@ public class UserProfileController {
     @GetMapping
     public ResponseEntity<?> getUserProfile(HttpServletRequest request) {
         try {
-            Long userId = getCurrentUserId(request);
+            Long userId = jwtUtil.getCurrentUserId(request);
             if (userId == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(createErrorResponse("User not authenticated"));
@@ -70,7 +70,7 @@ public class UserProfileController {
             @RequestParam("profileData") String profileDataJson,
             @RequestParam(value = "logo", required = false) MultipartFile logoFile) {
         try {
-            Long userId = getCurrentUserId(request);
+            Long userId = jwtUtil.getCurrentUserId(request);
             if (userId == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(createErrorResponse("User not authenticated"));
@@ -92,26 +92,6 @@ public class UserProfileController {
         }
     }
 
-    // Helper method to get userId from JWT token claims
-    private Long getCurrentUserId(HttpServletRequest request) {
-        try {
-            String authHeader = request.getHeader("Authorization");
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
-                Object userIdObj = jwtUtil.extractClaim(token, claims -> claims.get("userId"));
-                if (userIdObj instanceof Integer) {
-                    return ((Integer) userIdObj).longValue();
-                } else if (userIdObj instanceof Long) {
-                    return (Long) userIdObj;
-                } else if (userIdObj instanceof String) {
-                    return Long.parseLong((String) userIdObj);
-                }
-            }
-        } catch (Exception e) {
-            // Log or handle exception if needed
-        }
-        return null;
-    }
 
     private Map<String, String> createErrorResponse(String message) {
         Map<String, String> error = new HashMap<>();
@@ -0,0 +1,35 @@
+package com.example.aqualink.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of ranked blog search hits. Snippets are HTML-escaped plain text with matches wrapped in &lt;mark&gt;.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlogSearchResultDTO {
+    private List<Hit> hits;
+    private long totalHits;
+    private int page;
+    private int size;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Hit {
+        private Long id;
+        private String title;
+        private String summary;
+        private String snippet;
+        private String featuredImagePath;
+        private String authorName;
+        private LocalDateTime publishedAt;
+        private float score;
+    }
+}
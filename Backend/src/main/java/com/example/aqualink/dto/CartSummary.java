@@ -0,0 +1,17 @@
+package com.example.aqualink.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totals of one user's cart (CartRepository.findSummaryByUserId); cartId is null when the user has no cart yet.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartSummary {
+    private Long cartId;
+    private Long itemCount;
+    private Double totalAmount;
+}
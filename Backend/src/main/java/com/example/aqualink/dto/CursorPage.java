@@ -0,0 +1,34 @@
+package com.example.aqualink.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One keyset page of a listing. {@code nextCursor} is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+
+    /**
+     * Every item of a listing, following nextCursor from the first page (cursor null) to the last.
+     */
+    public static <T> List<T> collectAll(Function<String, CursorPage<T>> pageLoader) {
+        List<T> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<T> page = pageLoader.apply(cursor);
+            all.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return all;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.aqualink.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Flat row produced by the delivery-person feed query (OrderRepository.findDeliveryFeedForDeliveryPerson).
+ * Everything the feed card needs is selected in one statement so no lazy loading happens afterwards.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryRequestFeedRow {
+    private Long orderId;
+    private Long quoteRequestId;
+    private LocalDateTime requestCreateTime;
+    private LocalDateTime lastRespondingDateTime;
+    private LocalDateTime orderDateTime;
+    private String addressPlace;
+    private String addressStreet;
+    private String addressDistrict;
+    private String addressTown;
+    private String customerName;
+    private String customerPhone;
+    private BigDecimal totalAmount;
+    private Long totalItems;
+}
@@ -15,6 +15,7 @@ public class FishAdsResponseDTO {
     private Double price;
     private Integer minimumQuantity;
     private List<String> imageUrls;
+    private List<ImageVariantsDTO> images; // per-size URLs, same order as imageUrls
     private LocalDateTime createDateAndTime;
     private String activeStatus;
     private Long userId;
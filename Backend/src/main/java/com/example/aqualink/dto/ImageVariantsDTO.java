@@ -0,0 +1,17 @@
+package com.example.aqualink.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * URLs of one listing image per rendition. Thumbnail and medium fall back to the original until generated.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageVariantsDTO {
+    private String original;
+    private String thumbnail;
+    private String medium;
+}
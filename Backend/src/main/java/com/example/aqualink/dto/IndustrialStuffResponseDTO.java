@@ -16,6 +16,7 @@ public class IndustrialStuffResponseDTO {
     private Boolean inStock;
     private Integer soldCount;
     private List<String> imageUrls;
+    private List<ImageVariantsDTO> images; // per-size URLs, same order as imageUrls
     private LocalDateTime createDateAndTime;
     private String activeStatus;
     private Long userId;
@@ -0,0 +1,35 @@
+package com.example.aqualink.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of ranked listing search hits plus facet counts (type, category, district) over all matches.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListingSearchResultDTO {
+    private List<Hit> hits;
+    private long totalHits;
+    private int page;
+    private int size;
+    private Map<String, Map<String, Integer>> facets;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Hit {
+        private String type; // "fish", "industrial" or "service"
+        private Long id;
+        private String name;
+        private String category;
+        private String district;
+        private Double price;
+        private float score;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.aqualink.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Flat order-item row loaded for a whole page of orders at once (OrderItemRepository.findRowsByOrderIds).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderItemRow {
+    private Long orderId;
+    private Long orderItemId;
+    private int quantity;
+    private BigDecimal price;
+    private Long productId;
+    private String productName;
+    private String productType;
+    private Long sellerId;
+}
@@ -0,0 +1,67 @@
+package com.example.aqualink.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Order as returned by the buyer/seller order listings. Field names mirror the Order entity JSON the
+ * frontend already reads (buyerUser.name, orderItems[].product.user.id, ...).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryDTO {
+    private Long id;
+    private LocalDateTime orderDateTime;
+    private String addressPlace;
+    private String addressStreet;
+    private String addressDistrict;
+    private String addressTown;
+    private String orderStatus;
+    private BigDecimal totalAmount;
+    private Long acceptedDeliveryQuoteId;
+    private BuyerSummary buyerUser;
+    private List<ItemSummary> orderItems;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BuyerSummary {
+        private Long id;
+        private String name;
+        private String email;
+        private String phoneNumber;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemSummary {
+        private Long orderItemId;
+        private int quantity;
+        private BigDecimal price;
+        private ProductSummary product;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProductSummary {
+        private Long id;
+        private String name;
+        private String productType;
+        private SellerRef user;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SellerRef {
+        private Long id;
+    }
+}
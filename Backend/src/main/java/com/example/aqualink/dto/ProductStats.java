@@ -0,0 +1,32 @@
+package com.example.aqualink.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Listing statistics of one product (average rating, review count, units sold).
+ * The two short constructors are the JPQL projections of the grouped review and order-item queries.
+ */
+@Data
+@NoArgsConstructor
+public class ProductStats {
+    private Long productId;
+    private Double averageRating = 0.0;
+    private Long reviewCount = 0L;
+    private Long totalSold;
+
+    public ProductStats(Long productId) {
+        this.productId = productId;
+    }
+
+    public ProductStats(Long productId, Double averageRating, Long reviewCount) {
+        this.productId = productId;
+        this.averageRating = averageRating;
+        this.reviewCount = reviewCount;
+    }
+
+    public ProductStats(Long productId, Long totalSold) {
+        this.productId = productId;
+        this.totalSold = totalSold;
+    }
+}
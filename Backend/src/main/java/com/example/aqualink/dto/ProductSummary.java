@@ -0,0 +1,23 @@
+package com.example.aqualink.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The fields a cart line copies from a fish ad or industrial item, loaded by the projection queries
+ * FishRepository/IndustrialStuffRepository.findSummariesByIds. businessName is null when the seller has
+ * no profile or has not set one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSummary {
+    private Long productId;
+    private String productType;
+    private Double price;
+    private String name;
+    private Long sellerId;
+    private String sellerName;
+    private String businessName;
+}
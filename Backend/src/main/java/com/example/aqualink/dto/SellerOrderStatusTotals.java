@@ -0,0 +1,22 @@
+package com.example.aqualink.dto;
+
+import java.math.BigDecimal;
+
+import com.example.aqualink.entity.Order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row of OrderRepository.sumSellerOrdersByStatus: how many orders in a status contain the seller's
+ * items, and what those items (only the seller's own) are worth.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SellerOrderStatusTotals {
+    private Order.OrderStatus orderStatus;
+    private Long orderCount;
+    private BigDecimal itemsAmount;
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -52,6 +53,20 @@ public class BlogPost {
     @JoinColumn(name = "author_id", nullable = false)
     private User author;
 
+    // Denormalized counters for listings. Entity updates never write them (updatable = false); they
+    // move only through increment queries (BlogPostRepository, BlogReactionBuffer) and BlogCounterReconciler.
+    @ColumnDefault("0")
+    @Column(name = "like_count", nullable = false, updatable = false)
+    private long likeCount;
+
+    @ColumnDefault("0")
+    @Column(name = "dislike_count", nullable = false, updatable = false)
+    private long dislikeCount;
+
+    @ColumnDefault("0")
+    @Column(name = "approved_comment_count", nullable = false, updatable = false)
+    private long approvedCommentCount;
+
     @OneToMany(mappedBy = "blogPost", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<BlogComment> comments = new ArrayList<>();
 
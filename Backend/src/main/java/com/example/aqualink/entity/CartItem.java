@@ -48,4 +48,15 @@ public class CartItem {
 
     @Column(name = "business_name")
     private String businessName;
+
+    // Set when the cart is shown: the price this line had before it was brought up to the product's price
+    @Transient
+    private Double previousPrice;
+
+    @Transient
+    private boolean priceChanged;
+
+    // The product was removed by its seller or an admin; the line cannot be checked out
+    @Transient
+    private boolean unavailable;
 }
@@ -9,6 +9,11 @@ import java.util.List;
 import java.util.ArrayList;
 import java.util.Arrays;
 
+/**
+ * Legacy coverage record holding every covered town as one comma-joined "District:Town" TEXT value.
+ * Superseded by {@link DeliveryPersonCoverageArea}; kept mapped only so CoverageAreaMigration can
+ * move existing rows into the normalized table on startup.
+ */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
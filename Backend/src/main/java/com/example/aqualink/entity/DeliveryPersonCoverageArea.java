@@ -0,0 +1,40 @@
+package com.example.aqualink.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * One covered town of a delivery person. Replaces the comma-joined "District:Town" blob in
+ * {@link DeliveryPersonCoverage} so coverage can be matched and reverse-looked-up through indexes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "delivery_person_coverage_areas",
+        uniqueConstraints = @UniqueConstraint(name = "uk_coverage_area_person_district_town",
+                columnNames = {"delivery_person_user_id", "district", "town"}),
+        indexes = @Index(name = "idx_coverage_area_district_town", columnList = "district, town, delivery_person_user_id"))
+public class DeliveryPersonCoverageArea {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "delivery_person_user_id", nullable = false)
+    private User deliveryPersonUser;
+
+    @Column(name = "district", nullable = false, length = 100)
+    private String district;
+
+    @Column(name = "town", nullable = false, length = 100)
+    private String town;
+
+    public DeliveryPersonCoverageArea(User deliveryPersonUser, String district, String town) {
+        this.deliveryPersonUser = deliveryPersonUser;
+        this.district = district;
+        this.town = town;
+    }
+}
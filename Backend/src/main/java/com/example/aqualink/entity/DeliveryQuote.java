@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.math.BigDecimal;
@@ -11,7 +12,10 @@ import java.time.LocalDateTime;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "delivery_quotes")
+@Table(name = "delivery_quotes", indexes = {
+        @Index(name = "idx_dq_request_person", columnList = "quote_request_id, delivery_person_id"),
+        @Index(name = "idx_dq_status_valid_until", columnList = "status, valid_until")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -52,6 +56,12 @@ public class DeliveryQuote {
     @Column(name = "valid_until", nullable = false)
     private LocalDateTime validUntil;
     
+    // Optimistic lock; the default backfills rows that existed before the column was added
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
     public enum QuoteStatus {
         PENDING,
         ACCEPTED,
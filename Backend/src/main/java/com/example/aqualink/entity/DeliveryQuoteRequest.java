@@ -10,7 +10,10 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "delivery_quote_requests")
+@Table(name = "delivery_quote_requests", indexes = {
+        @Index(name = "idx_dqr_order_id", columnList = "order_id"),
+        @Index(name = "idx_dqr_status_deadline", columnList = "status, last_responding_date_time")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,6 +33,16 @@ public class DeliveryQuoteRequest {
     @Column(name = "create_time", nullable = false, updatable = false)
     private LocalDateTime createTime;
     
+    // Null on rows created before the status column existed; treated as OPEN
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20)
+    private RequestStatus status = RequestStatus.OPEN;
+    
     @OneToMany(mappedBy = "quoteRequest", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<DeliveryQuote> deliveryQuotes;
+    
+    public enum RequestStatus {
+        OPEN,
+        CLOSED
+    }
 }
\ No newline at end of file
@@ -13,10 +13,13 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.BatchSize;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -25,7 +28,9 @@ import lombok.NoArgsConstructor;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "fish_ads")
+@Table(name = "fish_ads", indexes = {
+        @Index(name = "idx_fish_status_created", columnList = "active_status, create_date_and_time")
+})
 public class Fish {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -38,13 +43,15 @@ public class Fish {
     private Double price;
     private Integer minimumQuantity;
 
-    @Column(name = "create_date_and_time")
+    @Column(name = "create_date_and_time", nullable = false)
     private LocalDateTime createDateAndTime;
 
     @Enumerated(EnumType.STRING)
     private ActiveStatus activeStatus = ActiveStatus.PENDING;
 
     // Add this field to store image paths
+    // Loaded for up to 100 listings per query when a page of them is rendered
+    @BatchSize(size = 100)
     @ElementCollection
     @CollectionTable(name = "fish_images", joinColumns = @JoinColumn(name = "fish_id"))
     @Column(name = "image_path")
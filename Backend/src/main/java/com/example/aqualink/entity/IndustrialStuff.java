@@ -13,10 +13,13 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.BatchSize;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -25,7 +28,10 @@ import lombok.NoArgsConstructor;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "industrial_stuff")
+@Table(name = "industrial_stuff", indexes = {
+        @Index(name = "idx_industrial_status_created", columnList = "active_status, create_date_and_time"),
+        @Index(name = "idx_industrial_status_category_created", columnList = "active_status, category, create_date_and_time")
+})
 public class IndustrialStuff {
 
     @Id
@@ -41,12 +47,14 @@ public class IndustrialStuff {
     private Boolean inStock = true;
     private Integer soldCount = 0;
 
-    @Column(name = "create_date_and_time")
+    @Column(name = "create_date_and_time", nullable = false)
     private LocalDateTime createDateAndTime;
 
     @Enumerated(EnumType.STRING)
     private ActiveStatus activeStatus = ActiveStatus.PENDING;
 
+    // Loaded for up to 100 listings per query when a page of them is rendered
+    @BatchSize(size = 100)
     @ElementCollection
     @CollectionTable(name = "industrial_images", joinColumns = @JoinColumn(name = "industrial_id"))
     @Column(name = "image_path")
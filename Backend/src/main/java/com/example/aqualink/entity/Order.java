@@ -4,12 +4,20 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_status_district_town", columnList = "order_status, address_district, address_town"),
+        @Index(name = "idx_orders_buyer_status_date", columnList = "buyer_user_id, order_status, order_date_time"),
+        @Index(name = "idx_orders_buyer_date", columnList = "buyer_user_id, order_date_time"),
+        @Index(name = "idx_orders_date", columnList = "order_date_time")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -57,9 +65,16 @@ public class Order {
     @Column(name = "delivery_quote_request_id")
     private List<Long> deliveryQuoteRequestIds;
 
+    @BatchSize(size = 100)
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<OrderItem> orderItems;
 
+    // Optimistic lock; the default backfills rows that existed before the column was added
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Order Status Enum
     public enum OrderStatus {
         DELIVERY_PENDING,
@@ -4,27 +4,49 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "order_item")
+@Table(name = "order_item", indexes = {
+        @Index(name = "idx_order_item_product_order", columnList = "product_id, order_id"),
+        @Index(name = "idx_order_item_seller_order", columnList = "seller_id, order_id"),
+        @Index(name = "idx_order_item_listing", columnList = "listing_id, product_type")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class OrderItem {
 
+    // Pooled ids (one sequence call per 50 rows) let Hibernate batch the inserts of a checkout;
+    // IDENTITY would need one round trip per row to learn its id
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_item_seq", allocationSize = 50)
     private Long orderItemId;
 
     @ManyToOne
     @JoinColumn(name = "order_id")
     private Order order;
 
+    // Null for items created at checkout, which point at a fish ad or industrial item through listing_id
     @ManyToOne
     @JoinColumn(name = "product_id")
     private Product product;
 
+    // Fish ad or industrial item ID; the two tables overlap, so it only identifies a listing with productType
+    @Column(name = "listing_id")
+    private Long listingId;
+
+    @Column(name = "product_type")
+    private String productType; // "fish" or "industrial"
+
+    @Column(name = "product_name")
+    private String productName;
+
+    @Column(name = "seller_id")
+    private Long sellerId;
+
     @Column(name = "quantity")
     private int quantity;
 
@@ -7,7 +7,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "review")
+@Table(name = "review", indexes = {
+        @Index(name = "idx_review_product_rating", columnList = "product_id, rating")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
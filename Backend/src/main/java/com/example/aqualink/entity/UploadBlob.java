@@ -0,0 +1,39 @@
+package com.example.aqualink.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * One stored upload, identified by the SHA-256 of its content. {@code refCount} is the number of
+ * references (listing images, logos, banners, ...) currently pointing at the file; the file is removed
+ * when it drops to zero.
+ */
+@Entity
+@Table(name = "upload_blobs")
+@Getter
+@Setter
+@NoArgsConstructor
+public class UploadBlob {
+
+    @Id
+    @Column(name = "hash", length = 64)
+    private String hash;
+
+    @Column(name = "extension", length = 10, nullable = false)
+    private String extension;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @ColumnDefault("0")
+    @Column(name = "ref_count", nullable = false)
+    private long refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
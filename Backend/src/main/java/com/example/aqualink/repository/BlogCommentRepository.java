@@ -6,6 +6,9 @@ import com.example.aqualink.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
@@ -22,4 +25,8 @@ public interface BlogCommentRepository extends JpaRepository<BlogComment, Long>
     long countByBlogPostAndApprovedTrue(BlogPost blogPost);
     
     long countByApprovedFalse();
+    
+    @Modifying
+    @Query("UPDATE BlogComment c SET c.approved = true WHERE c.id = :commentId AND c.approved = false")
+    int approveIfPending(@Param("commentId") Long commentId);
 }
\ No newline at end of file
@@ -5,9 +5,12 @@ import com.example.aqualink.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
+
 public interface BlogPostRepository extends JpaRepository<BlogPost, Long> {
     
     Page<BlogPost> findByPublishedTrue(Pageable pageable);
@@ -18,12 +21,28 @@ public interface BlogPostRepository extends JpaRepository<BlogPost, Long> {
     
     Page<BlogPost> findByAuthor(User author, Pageable pageable);
     
-    @Query("SELECT b FROM BlogPost b WHERE " +
-           "(b.published = true) AND " +
-           "(LOWER(b.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(b.content) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(b.summary) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
-    Page<BlogPost> searchPublishedPosts(@Param("searchTerm") String searchTerm, Pageable pageable);
+    // Source for BlogSearchIndex; text search itself goes through the index
+    @Query("SELECT b FROM BlogPost b JOIN FETCH b.author WHERE b.published = true")
+    List<BlogPost> findPublishedWithAuthor();
+    
+    @Modifying
+    @Query("UPDATE BlogPost b SET b.approvedCommentCount = b.approvedCommentCount + :delta WHERE b.id = :postId")
+    int adjustApprovedCommentCount(@Param("postId") Long postId, @Param("delta") long delta);
+    
+    @Query("SELECT b.id FROM BlogPost b WHERE b.id > :afterId ORDER BY b.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Recounts the given posts from blog_reactions / blog_comments; only rows that drifted are touched
+    @Modifying
+    @Query("UPDATE BlogPost b SET " +
+           "b.likeCount = (SELECT COUNT(r) FROM BlogReaction r WHERE r.blogPost.id = b.id AND r.type = 'LIKE'), " +
+           "b.dislikeCount = (SELECT COUNT(r) FROM BlogReaction r WHERE r.blogPost.id = b.id AND r.type = 'DISLIKE'), " +
+           "b.approvedCommentCount = (SELECT COUNT(c) FROM BlogComment c WHERE c.blogPost.id = b.id AND c.approved = true) " +
+           "WHERE b.id IN :ids AND (" +
+           "b.likeCount <> (SELECT COUNT(r) FROM BlogReaction r WHERE r.blogPost.id = b.id AND r.type = 'LIKE') OR " +
+           "b.dislikeCount <> (SELECT COUNT(r) FROM BlogReaction r WHERE r.blogPost.id = b.id AND r.type = 'DISLIKE') OR " +
+           "b.approvedCommentCount <> (SELECT COUNT(c) FROM BlogComment c WHERE c.blogPost.id = b.id AND c.approved = true))")
+    int reconcileCounts(@Param("ids") List<Long> ids);
     
     @Query("SELECT COUNT(b) FROM BlogPost b WHERE b.author = :user")
     long countByAuthor(@Param("user") User user);
@@ -27,4 +27,7 @@ public interface BlogReactionRepository extends JpaRepository<BlogReaction, Long
     
     @Query("SELECT r.type FROM BlogReaction r WHERE r.blogPost = :blogPost AND r.user = :user")
     Optional<ReactionType> findReactionType(@Param("blogPost") BlogPost blogPost, @Param("user") User user);
+    
+    @Query("SELECT r.type FROM BlogReaction r WHERE r.blogPost.id = :postId AND r.user.id = :userId")
+    Optional<ReactionType> findReactionTypeByIds(@Param("postId") Long postId, @Param("userId") Long userId);
 }
\ No newline at end of file
@@ -1,8 +1,11 @@
 package com.example.aqualink.repository;
 
+import com.example.aqualink.dto.CartSummary;
 import com.example.aqualink.entity.Cart;
 import com.example.aqualink.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,4 +13,12 @@ import java.util.Optional;
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
     Optional<Cart> findByUser(User user);
-}
\ No newline at end of file
+
+    Optional<Cart> findByUserId(Long userId);
+
+    // Unit count and total without loading the cart graph
+    @Query("SELECT new com.example.aqualink.dto.CartSummary(c.cartId, COALESCE(SUM(ci.quantity), 0L), " +
+           "COALESCE(SUM(ci.price * ci.quantity), 0.0)) " +
+           "FROM Cart c LEFT JOIN c.cartItems ci WHERE c.user.id = :userId GROUP BY c.cartId")
+    Optional<CartSummary> findSummaryByUserId(@Param("userId") Long userId);
+}
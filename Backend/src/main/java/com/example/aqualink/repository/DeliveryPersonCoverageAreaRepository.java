@@ -0,0 +1,22 @@
+package com.example.aqualink.repository;
+
+import com.example.aqualink.entity.DeliveryPersonCoverageArea;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DeliveryPersonCoverageAreaRepository extends JpaRepository<DeliveryPersonCoverageArea, Long> {
+
+    List<DeliveryPersonCoverageArea> findByDeliveryPersonUserIdOrderByDistrictAscTownAsc(Long deliveryPersonUserId);
+
+    boolean existsByDeliveryPersonUserId(Long deliveryPersonUserId);
+
+    @Modifying
+    @Query("DELETE FROM DeliveryPersonCoverageArea ca WHERE ca.deliveryPersonUser.id = :deliveryPersonUserId")
+    int deleteByDeliveryPersonUserId(@Param("deliveryPersonUserId") Long deliveryPersonUserId);
+}
@@ -3,7 +3,9 @@ package com.example.aqualink.repository;
 import com.example.aqualink.entity.DeliveryQuote;
 import com.example.aqualink.entity.DeliveryQuoteRequest;
 import com.example.aqualink.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -25,6 +27,35 @@ public interface DeliveryQuoteRepository extends JpaRepository<DeliveryQuote, Lo
     @Query("SELECT dq FROM DeliveryQuote dq WHERE dq.validUntil <= :currentTime AND dq.status = 'PENDING'")
     List<DeliveryQuote> findExpiredQuotes(@Param("currentTime") LocalDateTime currentTime);
     
+    // Expiry sweep: one bounded chunk of quote IDs past validUntil that are still PENDING
+    @Query("SELECT dq.id FROM DeliveryQuote dq WHERE dq.validUntil <= :currentTime AND dq.status = :status ORDER BY dq.id")
+    List<Long> findExpiredQuoteIds(@Param("currentTime") LocalDateTime currentTime,
+                                   @Param("status") DeliveryQuote.QuoteStatus status,
+                                   Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE DeliveryQuote dq SET dq.status = :newStatus, dq.version = dq.version + 1 WHERE dq.id IN :ids AND dq.status = :currentStatus")
+    int updateStatusForIds(@Param("ids") List<Long> ids,
+                           @Param("currentStatus") DeliveryQuote.QuoteStatus currentStatus,
+                           @Param("newStatus") DeliveryQuote.QuoteStatus newStatus);
+    
+    // Acceptance: succeeds for exactly one caller, only while the quote is still PENDING and unexpired
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE DeliveryQuote dq SET dq.status = :accepted, dq.acceptedAt = :currentTime, dq.version = dq.version + 1 " +
+           "WHERE dq.id = :quoteId AND dq.status = :pending AND dq.validUntil > :currentTime")
+    int acceptIfPending(@Param("quoteId") Long quoteId,
+                        @Param("currentTime") LocalDateTime currentTime,
+                        @Param("pending") DeliveryQuote.QuoteStatus pending,
+                        @Param("accepted") DeliveryQuote.QuoteStatus accepted);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE DeliveryQuote dq SET dq.status = :rejected, dq.version = dq.version + 1 " +
+           "WHERE dq.quoteRequest.id = :quoteRequestId AND dq.id <> :acceptedQuoteId AND dq.status = :pending")
+    int rejectOtherPendingQuotes(@Param("quoteRequestId") Long quoteRequestId,
+                                 @Param("acceptedQuoteId") Long acceptedQuoteId,
+                                 @Param("pending") DeliveryQuote.QuoteStatus pending,
+                                 @Param("rejected") DeliveryQuote.QuoteStatus rejected);
+    
     boolean existsByQuoteRequestAndDeliveryPerson(DeliveryQuoteRequest quoteRequest, User deliveryPerson);
     
     @Query("SELECT dq FROM DeliveryQuote dq WHERE dq.deliveryPerson = :deliveryPerson ORDER BY dq.createdAt DESC")
@@ -1,9 +1,14 @@
 package com.example.aqualink.repository;
 
 import com.example.aqualink.entity.DeliveryQuoteRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -12,4 +17,20 @@ public interface DeliveryQuoteRequestRepository extends JpaRepository<DeliveryQu
     List<DeliveryQuoteRequest> findByOrderId(Long orderId);
     
     List<DeliveryQuoteRequest> findByOrderIdOrderByCreateTimeDesc(Long orderId);
+    
+    // Expiry sweep: one bounded chunk of open requests past their deadline (or the default timeout if none is set)
+    @Query("SELECT r.id FROM DeliveryQuoteRequest r " +
+           "WHERE (r.status IS NULL OR r.status = :openStatus) " +
+           "AND (r.lastRespondingDateTime <= :currentTime " +
+           "     OR (r.lastRespondingDateTime IS NULL AND r.createTime <= :defaultCutoff)) " +
+           "ORDER BY r.id")
+    List<Long> findPastDeadlineRequestIds(@Param("currentTime") LocalDateTime currentTime,
+                                          @Param("defaultCutoff") LocalDateTime defaultCutoff,
+                                          @Param("openStatus") DeliveryQuoteRequest.RequestStatus openStatus,
+                                          Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE DeliveryQuoteRequest r SET r.status = :newStatus WHERE r.id IN :ids")
+    int updateStatusForIds(@Param("ids") List<Long> ids,
+                           @Param("newStatus") DeliveryQuoteRequest.RequestStatus newStatus);
 }
\ No newline at end of file
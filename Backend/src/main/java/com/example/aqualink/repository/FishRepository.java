@@ -1,13 +1,18 @@
 package com.example.aqualink.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.aqualink.dto.ProductSummary;
 import com.example.aqualink.entity.ActiveStatus;
 import com.example.aqualink.entity.Fish;
 
@@ -44,4 +49,34 @@ public interface FishRepository extends JpaRepository<Fish, Long> {
     @Query("SELECT f FROM Fish f LEFT JOIN FETCH f.user u LEFT JOIN FETCH u.userProfile WHERE f.id = :id")
     Optional<Fish> findByIdWithUserAndProfile(@Param("id") Long id);
 
-}
\ No newline at end of file
+    // Keyset page of the marketplace feed, newest first, with seller and profile in the same statement.
+    // Null filters are ignored; a null cursor means the first page.
+    @Query("SELECT f FROM Fish f JOIN FETCH f.user u LEFT JOIN FETCH u.userProfile p " +
+           "WHERE f.activeStatus = 'VERIFIED' AND f.stock > 0 " +
+           "AND (:district IS NULL OR p.addressDistrict = :district) " +
+           "AND (:minPrice IS NULL OR f.price >= :minPrice) " +
+           "AND (:maxPrice IS NULL OR f.price <= :maxPrice) " +
+           "AND (:cursorTime IS NULL OR f.createDateAndTime < :cursorTime " +
+           "     OR (f.createDateAndTime = :cursorTime AND f.id < :cursorId)) " +
+           "ORDER BY f.createDateAndTime DESC, f.id DESC")
+    List<Fish> findAvailableFishPage(@Param("district") String district,
+                                     @Param("minPrice") Double minPrice,
+                                     @Param("maxPrice") Double maxPrice,
+                                     @Param("cursorTime") LocalDateTime cursorTime,
+                                     @Param("cursorId") Long cursorId,
+                                     Pageable pageable);
+
+    // Rows for a set of search hits, with seller and profile
+    @Query("SELECT f FROM Fish f JOIN FETCH f.user u LEFT JOIN FETCH u.userProfile WHERE f.id IN :ids")
+    List<Fish> findByIdInWithProfile(@Param("ids") Collection<Long> ids);
+
+    // What a cart line copies from many ads in one statement, without loading the entity graphs
+    @Query("SELECT new com.example.aqualink.dto.ProductSummary(f.id, 'fish', f.price, f.name, u.id, u.name, p.businessName) " +
+           "FROM Fish f JOIN f.user u LEFT JOIN u.userProfile p WHERE f.id IN :ids")
+    List<ProductSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    // Rows written before the column was NOT NULL; see ListingDateBackfill
+    @Modifying
+    @Query("UPDATE Fish f SET f.createDateAndTime = :createDate WHERE f.createDateAndTime IS NULL")
+    int backfillMissingCreateDate(@Param("createDate") LocalDateTime createDate);
+}
@@ -1,13 +1,18 @@
 package com.example.aqualink.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.aqualink.dto.ProductSummary;
 import com.example.aqualink.entity.ActiveStatus;
 import com.example.aqualink.entity.IndustrialStuff;
 
@@ -30,4 +35,37 @@ public interface IndustrialStuffRepository extends JpaRepository<IndustrialStuff
 
     @Query("SELECT i FROM IndustrialStuff i LEFT JOIN FETCH i.user WHERE i.id = :id")
     Optional<IndustrialStuff> findByIdWithProfile(@Param("id") Long id);
+
+    // Keyset page of the marketplace feed, newest first, with seller and profile in the same statement.
+    // Null filters are ignored; a null cursor means the first page.
+    @Query("SELECT i FROM IndustrialStuff i JOIN FETCH i.user u LEFT JOIN FETCH u.userProfile p " +
+           "WHERE i.activeStatus = 'VERIFIED' AND i.stock > 0 " +
+           "AND (:category IS NULL OR i.category = :category) " +
+           "AND (:district IS NULL OR p.addressDistrict = :district) " +
+           "AND (:minPrice IS NULL OR i.price >= :minPrice) " +
+           "AND (:maxPrice IS NULL OR i.price <= :maxPrice) " +
+           "AND (:cursorTime IS NULL OR i.createDateAndTime < :cursorTime " +
+           "     OR (i.createDateAndTime = :cursorTime AND i.id < :cursorId)) " +
+           "ORDER BY i.createDateAndTime DESC, i.id DESC")
+    List<IndustrialStuff> findAvailableIndustrialPage(@Param("category") String category,
+                                                      @Param("district") String district,
+                                                      @Param("minPrice") Double minPrice,
+                                                      @Param("maxPrice") Double maxPrice,
+                                                      @Param("cursorTime") LocalDateTime cursorTime,
+                                                      @Param("cursorId") Long cursorId,
+                                                      Pageable pageable);
+
+    // Rows for a set of search hits, with seller and profile
+    @Query("SELECT i FROM IndustrialStuff i JOIN FETCH i.user u LEFT JOIN FETCH u.userProfile WHERE i.id IN :ids")
+    List<IndustrialStuff> findByIdInWithProfile(@Param("ids") Collection<Long> ids);
+
+    // What a cart line copies from many items in one statement, without loading the entity graphs
+    @Query("SELECT new com.example.aqualink.dto.ProductSummary(i.id, 'industrial', i.price, i.name, u.id, u.name, p.businessName) " +
+           "FROM IndustrialStuff i JOIN i.user u LEFT JOIN u.userProfile p WHERE i.id IN :ids")
+    List<ProductSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    // Rows written before the column was NOT NULL; see ListingDateBackfill
+    @Modifying
+    @Query("UPDATE IndustrialStuff i SET i.createDateAndTime = :createDate WHERE i.createDateAndTime IS NULL")
+    int backfillMissingCreateDate(@Param("createDate") LocalDateTime createDate);
 }
@@ -1,15 +1,46 @@
 package com.example.aqualink.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.aqualink.dto.OrderItemRow;
+import com.example.aqualink.dto.ProductStats;
 import com.example.aqualink.entity.OrderItem;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
 
-    @Query("SELECT SUM(oi.quantity) FROM OrderItem oi WHERE oi.product.id = :productId")
-    Long findTotalSoldByProductId(@Param("productId") Long productId);
+    // Fish and industrial IDs come from separate tables and overlap, so the type is part of the key
+    @Query("SELECT SUM(oi.quantity) FROM OrderItem oi WHERE oi.listingId = :productId AND oi.productType = :productType")
+    Long findTotalSoldByProductId(@Param("productId") Long productId, @Param("productType") String productType);
+
+    // Units sold for many products of one type in one grouped query
+    @Query("SELECT new com.example.aqualink.dto.ProductStats(oi.listingId, SUM(oi.quantity)) " +
+           "FROM OrderItem oi WHERE oi.listingId IN :productIds AND oi.productType = :productType " +
+           "GROUP BY oi.productType, oi.listingId")
+    List<ProductStats> findTotalSoldByProductIds(@Param("productIds") Collection<Long> productIds,
+                                                 @Param("productType") String productType);
+
+    // Items (with product and seller id) for a page of orders in one statement; checkout items carry their own copy
+    @Query("SELECT new com.example.aqualink.dto.OrderItemRow(" +
+           "oi.order.id, oi.orderItemId, oi.quantity, oi.price, COALESCE(p.id, oi.listingId), " +
+           "COALESCE(p.name, oi.productName), COALESCE(p.productType, oi.productType), COALESCE(p.user.id, oi.sellerId)) " +
+           "FROM OrderItem oi LEFT JOIN oi.product p " +
+           "WHERE oi.order.id IN :orderIds " +
+           "ORDER BY oi.orderItemId")
+    List<OrderItemRow> findRowsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    // Checkout items written before listing_id existed kept the listing ID in product_id; see
+    // OrderItemListingBackfill. Assignments run left to right, so listing_id gets the old product_id.
+    @Modifying
+    @Query(value = "UPDATE order_item SET listing_id = product_id, product_id = NULL " +
+                   "WHERE listing_id IS NULL AND product_type IS NOT NULL AND product_id IS NOT NULL",
+           nativeQuery = true)
+    int moveListingIdsOffProductId();
 }
@@ -1,15 +1,53 @@
 package com.example.aqualink.repository;
 
+import com.example.aqualink.dto.DeliveryRequestFeedRow;
+import com.example.aqualink.dto.SellerOrderStatusTotals;
 import com.example.aqualink.entity.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    // Shared FROM/WHERE of the delivery-person feed: still open for quotes, inside the
+    // courier's District:Town coverage, courier available, and not already quoted by them.
+    // Without a deadline, a request times out from its createTime like in DeliveryExpirySweeper;
+    // an order that has no request yet times out from its orderDateTime
+    String DELIVERY_FEED_FROM_WHERE =
+            "FROM Order o JOIN o.buyerUser b " +
+            "LEFT JOIN DeliveryQuoteRequest r ON r.orderId = o.id " +
+            "WHERE o.orderStatus = 'DELIVERY_PENDING' " +
+            "AND (r.status IS NULL OR r.status <> 'CLOSED') " +
+            "AND (r.lastRespondingDateTime > :now " +
+            "     OR (r.lastRespondingDateTime IS NULL AND COALESCE(r.createTime, o.orderDateTime) > :defaultCutoff)) " +
+            "AND NOT EXISTS (SELECT a.id FROM DeliveryPersonAvailability a " +
+            "                WHERE a.deliveryPersonUser.id = :deliveryPersonId AND a.isAvailable = false) " +
+            "AND EXISTS (SELECT ca.id FROM DeliveryPersonCoverageArea ca " +
+            "            WHERE ca.deliveryPersonUser.id = :deliveryPersonId " +
+            "            AND ca.district = o.addressDistrict AND ca.town = o.addressTown) " +
+            "AND NOT EXISTS (SELECT q.id FROM DeliveryQuote q " +
+            "                WHERE q.quoteRequest.id = r.id AND q.deliveryPerson.id = :deliveryPersonId) ";
+
+    // One statement per page for the delivery-person request feed, regardless of backlog size
+    @Query(value = "SELECT new com.example.aqualink.dto.DeliveryRequestFeedRow(" +
+                   "o.id, r.id, r.createTime, r.lastRespondingDateTime, o.orderDateTime, " +
+                   "o.addressPlace, o.addressStreet, o.addressDistrict, o.addressTown, " +
+                   "b.name, b.phoneNumber, o.totalAmount, " +
+                   "(SELECT COUNT(oi) FROM OrderItem oi WHERE oi.order = o)) " +
+                   DELIVERY_FEED_FROM_WHERE +
+                   "ORDER BY o.orderDateTime DESC, o.id DESC",
+           countQuery = "SELECT COUNT(o) " + DELIVERY_FEED_FROM_WHERE)
+    Page<DeliveryRequestFeedRow> findDeliveryFeedForDeliveryPerson(@Param("deliveryPersonId") Long deliveryPersonId,
+                                                                   @Param("now") LocalDateTime now,
+                                                                   @Param("defaultCutoff") LocalDateTime defaultCutoff,
+                                                                   Pageable pageable);
     
     // Find orders by customer NIC - commented out due to missing field
     // List<Order> findByNicNumber(String nicNumber);
@@ -29,12 +67,21 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     // Find orders by date range - commented out due to missing orderDate field
     // List<Order> findByOrderDateBetween(LocalDate startDate, LocalDate endDate);
     
+    // A seller's orders come from two queries that the services merge. Items created at checkout record
+    // the seller in seller_id, which idx_order_item_seller_order resolves; the legacy queries match older
+    // items through their product's NIC. An OR of the two in one query would scan all of order_item.
+
     // Find orders for a specific shop owner (orders containing products from that seller)
+    @Query("SELECT DISTINCT o FROM Order o " +
+           "JOIN o.orderItems oi " +
+           "WHERE oi.sellerId = :sellerId")
+    List<Order> findOrdersBySellerId(@Param("sellerId") Long sellerId);
+
     @Query("SELECT DISTINCT o FROM Order o " +
            "JOIN o.orderItems oi " +
            "JOIN oi.product p " +
            "WHERE p.nicNumber = :sellerNic")
-    List<Order> findOrdersBySellerNic(@Param("sellerNic") String sellerNic);
+    List<Order> findLegacyOrdersBySellerNic(@Param("sellerNic") String sellerNic);
     
     // Find pending orders that need delivery assignment - commented out due to missing field
     // @Query("SELECT o FROM Order o WHERE o.orderStatus = 'DELIVERY_PENDING' AND o.deliveryGuyNicNumber IS NULL")
@@ -49,10 +96,85 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     // Long countByDeliveryPersonAndStatus(@Param("deliveryNic") String deliveryNic, @Param("status") Order.OrderStatus status);
     
     // Find orders containing products from specific seller with status filter
+    @Query("SELECT DISTINCT o FROM Order o " +
+           "JOIN o.orderItems oi " +
+           "WHERE oi.sellerId = :sellerId " +
+           "AND o.orderStatus IN :statuses")
+    List<Order> findOrdersBySellerIdAndOrderStatuses(@Param("sellerId") Long sellerId, @Param("statuses") List<Order.OrderStatus> statuses);
+
     @Query("SELECT DISTINCT o FROM Order o " +
            "JOIN o.orderItems oi " +
            "JOIN oi.product p " +
            "WHERE p.nicNumber = :sellerNic " +
            "AND o.orderStatus IN :statuses")
-    List<Order> findOrdersBySellerNicAndOrderStatuses(@Param("sellerNic") String sellerNic, @Param("statuses") List<Order.OrderStatus> statuses);
-}
\ No newline at end of file
+    List<Order> findLegacyOrdersBySellerNicAndOrderStatuses(@Param("sellerNic") String sellerNic, @Param("statuses") List<Order.OrderStatus> statuses);
+
+    // Shop dashboard counters: one row per order status, with the value of the seller's own items
+    @Query("SELECT new com.example.aqualink.dto.SellerOrderStatusTotals(" +
+           "o.orderStatus, COUNT(DISTINCT o.id), SUM(oi.price * oi.quantity)) " +
+           "FROM Order o JOIN o.orderItems oi " +
+           "WHERE oi.sellerId = :sellerId " +
+           "GROUP BY o.orderStatus")
+    List<SellerOrderStatusTotals> sumSellerOrdersByStatus(@Param("sellerId") Long sellerId);
+
+    // Legacy items never have a seller_id, so no item is counted by both queries
+    @Query("SELECT new com.example.aqualink.dto.SellerOrderStatusTotals(" +
+           "o.orderStatus, COUNT(DISTINCT o.id), SUM(oi.price * oi.quantity)) " +
+           "FROM Order o JOIN o.orderItems oi JOIN oi.product p " +
+           "WHERE p.nicNumber = :sellerNic AND oi.sellerId IS NULL " +
+           "GROUP BY o.orderStatus")
+    List<SellerOrderStatusTotals> sumLegacySellerOrdersByStatus(@Param("sellerNic") String sellerNic);
+
+    // The seller's orders placed in [from, to), newest first; the date range is resolved on idx_orders_date
+    @Query("SELECT o FROM Order o JOIN FETCH o.buyerUser b LEFT JOIN FETCH b.userProfile " +
+           "WHERE o.orderDateTime >= :from AND o.orderDateTime < :to " +
+           "AND o.id IN (SELECT oi.order.id FROM OrderItem oi WHERE oi.sellerId = :sellerId) " +
+           "ORDER BY o.orderDateTime DESC, o.id DESC")
+    List<Order> findSellerOrdersPlacedBetween(@Param("sellerId") Long sellerId,
+                                              @Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to);
+
+    @Query("SELECT o FROM Order o JOIN FETCH o.buyerUser b LEFT JOIN FETCH b.userProfile " +
+           "WHERE o.orderDateTime >= :from AND o.orderDateTime < :to " +
+           "AND o.id IN (SELECT oi.order.id FROM OrderItem oi JOIN oi.product p WHERE p.nicNumber = :sellerNic) " +
+           "ORDER BY o.orderDateTime DESC, o.id DESC")
+    List<Order> findLegacySellerOrdersPlacedBetween(@Param("sellerNic") String sellerNic,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to);
+
+    // Keyset pages for the order listings, newest first. A null status means any status and a null
+    // cursor means the first page; otherwise only rows strictly after (cursorTime, cursorId) are returned.
+    String ORDER_KEYSET_FILTER =
+            "AND (:status IS NULL OR o.orderStatus = :status) " +
+            "AND (:cursorTime IS NULL OR o.orderDateTime < :cursorTime " +
+            "     OR (o.orderDateTime = :cursorTime AND o.id < :cursorId)) " +
+            "ORDER BY o.orderDateTime DESC, o.id DESC";
+
+    @Query("SELECT o FROM Order o JOIN FETCH o.buyerUser " +
+           "WHERE o.buyerUser.id = :buyerId " + ORDER_KEYSET_FILTER)
+    List<Order> findBuyerOrderPage(@Param("buyerId") Long buyerId,
+                                   @Param("status") Order.OrderStatus status,
+                                   @Param("cursorTime") LocalDateTime cursorTime,
+                                   @Param("cursorId") Long cursorId,
+                                   Pageable pageable);
+
+    // Seller pages, like the shop queries above, come from a checkout query and a legacy one that
+    // OrderListingService merges
+    @Query("SELECT o FROM Order o JOIN FETCH o.buyerUser " +
+           "WHERE o.id IN (SELECT oi.order.id FROM OrderItem oi WHERE oi.sellerId = :sellerId) " +
+           ORDER_KEYSET_FILTER)
+    List<Order> findSellerOrderPage(@Param("sellerId") Long sellerId,
+                                    @Param("status") Order.OrderStatus status,
+                                    @Param("cursorTime") LocalDateTime cursorTime,
+                                    @Param("cursorId") Long cursorId,
+                                    Pageable pageable);
+
+    @Query("SELECT o FROM Order o JOIN FETCH o.buyerUser " +
+           "WHERE o.id IN (SELECT oi.order.id FROM OrderItem oi JOIN oi.product p WHERE p.user.id = :sellerId) " +
+           ORDER_KEYSET_FILTER)
+    List<Order> findLegacySellerOrderPage(@Param("sellerId") Long sellerId,
+                                          @Param("status") Order.OrderStatus status,
+                                          @Param("cursorTime") LocalDateTime cursorTime,
+                                          @Param("cursorId") Long cursorId,
+                                          Pageable pageable);
+}
@@ -1,5 +1,6 @@
 package com.example.aqualink.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -7,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.aqualink.dto.ProductStats;
 import com.example.aqualink.entity.Review;
 
 @Repository
@@ -19,4 +21,9 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     @Query("SELECT COUNT(r) FROM Review r WHERE r.product.id = :productId")
     Long countReviewsByProductId(@Param("productId") Long productId);
+
+    // Average rating and review count for many products in one grouped query
+    @Query("SELECT new com.example.aqualink.dto.ProductStats(r.product.id, AVG(r.rating), COUNT(r)) " +
+           "FROM Review r WHERE r.product.id IN :productIds GROUP BY r.product.id")
+    List<ProductStats> findReviewStatsByProductIds(@Param("productIds") Collection<Long> productIds);
 }
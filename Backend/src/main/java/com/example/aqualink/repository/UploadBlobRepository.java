@@ -0,0 +1,22 @@
+package com.example.aqualink.repository;
+
+import com.example.aqualink.entity.UploadBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface UploadBlobRepository extends JpaRepository<UploadBlob, String> {
+
+    @Modifying
+    @Query("UPDATE UploadBlob b SET b.refCount = b.refCount + 1 WHERE b.hash = :hash")
+    int incrementRefCount(@Param("hash") String hash);
+
+    @Modifying
+    @Query("UPDATE UploadBlob b SET b.refCount = b.refCount - 1 WHERE b.hash = :hash AND b.refCount > 0")
+    int decrementRefCount(@Param("hash") String hash);
+
+    @Modifying
+    @Query("DELETE FROM UploadBlob b WHERE b.hash = :hash AND b.refCount = 0")
+    int deleteIfUnreferenced(@Param("hash") String hash);
+}
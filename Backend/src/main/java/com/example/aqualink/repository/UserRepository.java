@@ -3,9 +3,14 @@ package com.example.aqualink.repository;
 import com.example.aqualink.entity.User;
 import com.example.aqualink.entity.UserProfile;
 import com.example.aqualink.entity.VerificationStatus;
+import com.example.aqualink.security.dto.LoginCredentialRow;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -27,6 +32,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Find user by email for login
     Optional<User> findByEmail(String email);
 
+    @Query("SELECT u.id FROM User u WHERE u.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    @Query("SELECT u.id FROM User u WHERE u.nicNumber = :nicNumber")
+    Optional<Long> findIdByNicNumber(@Param("nicNumber") String nicNumber);
+
     // Find active user by email
     Optional<User> findByEmailAndActiveTrue(String email);
 
@@ -40,6 +51,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @EntityGraph(attributePaths = {"userRoles"})
     Optional<User> findWithRolesByEmail(String email);
 
+    // Everything login needs in one query (one row per role), without loading the User entity and its profile
+    @Query("SELECT new com.example.aqualink.security.dto.LoginCredentialRow(" +
+           "u.id, u.email, u.password, u.nicNumber, u.active, u.verificationStatus, r.roleName) " +
+           "FROM User u LEFT JOIN u.userRoles r WHERE u.email = :email")
+    List<LoginCredentialRow> findLoginCredentialsByEmail(@Param("email") String email);
+
+    // Swap in a rehashed password, unless the password was changed in the meantime
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :userId AND u.password = :oldHash")
+    int replacePasswordHash(@Param("userId") Long userId, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
     // Admin verification methods
     List<User> findByActiveFalseOrderByCreatedAtDesc();
     
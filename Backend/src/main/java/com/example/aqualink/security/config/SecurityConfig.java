@@ -1,6 +1,7 @@
 package com.example.aqualink.security.config;
 
 import com.example.aqualink.security.filter.JwtAuthFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -34,9 +35,11 @@ public class SecurityConfig {
     @Value("${cors.allowed.origins:http://localhost:5173,http://localhost:3000}")
     private String allowedOrigins;
 
+    // Static so the password hashing beans do not depend on this configuration (and the filter it holds).
+    // Raising the strength upgrades stored hashes on each user's next login (see PasswordHashingService)
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public static PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int bcryptStrength) {
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -49,6 +52,11 @@ public class SecurityConfig {
         http.csrf().disable()
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(authz -> authz
+                        // Async re-dispatches (SSE streams) were already authorized on the original request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        // Error pages rendered for @ResponseStatus exceptions must keep their status instead of
+                        // being denied on the re-dispatch, which carries no bearer token
+                        .dispatcherTypeMatchers(DispatcherType.ERROR).permitAll()
                         // Allow all uploads paths - this is crucial for banner images, blog images, etc.
                         .requestMatchers("/uploads/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/uploads/**").permitAll()
@@ -59,11 +67,15 @@ public class SecurityConfig {
                         .requestMatchers("/uploads/profile-images/**").permitAll()
                         .requestMatchers("/uploads/service_images/**").permitAll()
                         // Allow API endpoints
-                        .requestMatchers("/api/auth/**","/api/users/**", "/api/banners/**", "/api/v1/fish/**","/api/fish/**","/api/profile/**","/api/industrial-ads/**","/api/industrial/**","/api/v1/industrial/**","/api/services/**","/api/service-provider/services/**","/api/blogs/**").permitAll()
+                        .requestMatchers("/api/auth/**","/api/users/**", "/api/banners/**", "/api/v1/fish/**","/api/fish/**","/api/profile/**","/api/industrial-ads/**","/api/industrial/**","/api/v1/industrial/**","/api/services/**","/api/service-provider/services/**","/api/blogs/**","/api/search/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/fish-ads").permitAll() // Allow POST for fish ads
                         .requestMatchers(HttpMethod.GET, "/api/fish-ads").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/delivery-quotes/create-initial-order").permitAll() // Temporarily allow this endpoint for testing
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        // Authenticated by its single-use ticket, since EventSource cannot send a bearer token
+                        .requestMatchers(HttpMethod.GET, "/api/delivery-quotes/stream").permitAll()
+                        // Operational metrics (login, inventory, mail, sweeps) are for admins only
+                        .requestMatchers("/actuator/metrics/**").hasRole("ADMIN")
                         // Protected endpoints - require authentication
                         .requestMatchers("/api/delivery/**").authenticated()
                         .requestMatchers("/api/delivery-quotes/**").authenticated()
@@ -90,6 +102,8 @@ public class SecurityConfig {
         
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "Accept", "X-Requested-With"));
+        // Paging metadata sent alongside list bodies
+        configuration.setExposedHeaders(Arrays.asList("X-Total-Count", "X-Next-Cursor"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
         
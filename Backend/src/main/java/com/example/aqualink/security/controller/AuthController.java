@@ -1,5 +1,8 @@
 package com.example.aqualink.security.controller;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -20,30 +23,39 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    // Asynchronous: the request thread is released while the password is checked on the hashing pool
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(@RequestBody LoginRequest loginRequest) {
+        CompletableFuture<LoginResponse> result;
         try {
-            LoginResponse response = authService.authenticate(loginRequest);
-            return ResponseEntity.ok(response);
+            result = authService.authenticate(loginRequest);
         } catch (RuntimeException e) {
-            System.out.println("Login failed: " + e.getMessage());
-            
-            // Create error response with appropriate message
-            String errorMessage;
-            if (e.getMessage().contains("pending admin approval")) {
-                errorMessage = "Your account is pending admin approval. Please wait for verification to complete.";
-            } else if (e.getMessage().contains("rejected by the administrator")) {
-                errorMessage = "Your account has been rejected by the administrator. Please contact support for more information.";
-            } else if (e.getMessage().contains("deactivated")) {
-                errorMessage = "Your account has been deactivated. Please contact support.";
-            } else if (e.getMessage().contains("Invalid email or password")) {
-                errorMessage = "Invalid email or password. Please check your credentials and try again.";
-            } else {
-                errorMessage = "Login failed. " + e.getMessage();
-            }
-            
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(new LoginResponse(errorMessage));
+            result = CompletableFuture.failedFuture(e);
+        }
+        return result
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(e -> loginFailed(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e));
+    }
+
+    private ResponseEntity<LoginResponse> loginFailed(Throwable e) {
+        String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        System.out.println("Login failed: " + message);
+
+        // Create error response with appropriate message
+        String errorMessage;
+        if (message.contains("pending admin approval")) {
+            errorMessage = "Your account is pending admin approval. Please wait for verification to complete.";
+        } else if (message.contains("rejected by the administrator")) {
+            errorMessage = "Your account has been rejected by the administrator. Please contact support for more information.";
+        } else if (message.contains("deactivated")) {
+            errorMessage = "Your account has been deactivated. Please contact support.";
+        } else if (message.contains("Invalid email or password")) {
+            errorMessage = "Invalid email or password. Please check your credentials and try again.";
+        } else {
+            errorMessage = "Login failed. " + message;
         }
+
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(new LoginResponse(errorMessage));
     }
-}
\ No newline at end of file
+}
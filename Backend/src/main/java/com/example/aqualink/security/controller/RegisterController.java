@@ -1,13 +1,17 @@
 package com.example.aqualink.security.controller;
 
 import com.example.aqualink.entity.Role;
+import com.example.aqualink.exception.TooManyRequestsException;
 import com.example.aqualink.security.service.OTPService;
 import com.example.aqualink.security.service.AuthService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import jakarta.servlet.http.HttpServletRequest;
+
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -39,7 +43,8 @@ public class RegisterController {
     }
 
     @GetMapping("/send-otp")
-    public ResponseEntity<Map<String, String>> sendOtpToEmail(@RequestParam("email") String email) {
+    public ResponseEntity<Map<String, String>> sendOtpToEmail(@RequestParam("email") String email,
+                                                              HttpServletRequest request) {
         Map<String, String> response = new HashMap<>();
 
         try {
@@ -48,11 +53,14 @@ public class RegisterController {
                 return ResponseEntity.badRequest().body(response);
             }
 
-            String otp = otpService.generateOTP(email);
+            String otp = otpService.generateOTP(email, request.getRemoteAddr());
             otpService.sendOTPEmail(email, otp);
             response.put("message", "OTP sent successfully to " + email);
             return ResponseEntity.ok(response);
 
+        } catch (TooManyRequestsException e) {
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response);
         } catch (Exception e) {
             response.put("message", "Failed to send OTP");
             response.put("error", e.getMessage());
@@ -0,0 +1,12 @@
+package com.example.aqualink.security.dto;
+
+import com.example.aqualink.entity.Role;
+import com.example.aqualink.entity.VerificationStatus;
+
+/**
+ * One row of the login lookup: the user's credentials and status joined with one of their roles
+ * ({@code roleName} is null for a user without roles).
+ */
+public record LoginCredentialRow(Long userId, String email, String passwordHash, String nicNumber,
+                                 boolean active, VerificationStatus verificationStatus, Role roleName) {
+}
@@ -64,6 +64,8 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 package com.example.aqualink.security.filter;
 
 import java.io.IOException;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -73,8 +75,11 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.example.aqualink.entity.Role;
 import com.example.aqualink.entity.User;
 import com.example.aqualink.security.service.AuthService;
+import com.example.aqualink.security.service.JwtPrincipalCache;
+import com.example.aqualink.security.util.JwtPrincipal;
 import com.example.aqualink.security.util.JwtUtil;
 
 import jakarta.servlet.FilterChain;
@@ -91,68 +96,77 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private JwtPrincipalCache principalCache;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
-        System.out.println("JWT Filter: Processing request to " + request.getRequestURI());
-        
         // Skip JWT validation for public GET /api/fish endpoints
         String path = request.getRequestURI();
         if (request.getMethod().equals("GET") && (path.equals("/api/fish") || path.startsWith("/api/fish/"))) {
-            System.out.println("JWT Filter: Skipping validation for public fish endpoint");
             filterChain.doFilter(request, response);
             return;
         }
 
         final String authHeader = request.getHeader("Authorization");
-        System.out.println("JWT Filter: Authorization header = " + authHeader);
-        
-        String email = null;
-        Long userId = null;
-        String jwt = null;
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
-            System.out.println("JWT Filter: Extracted JWT token");
-            try {
-                email = jwtUtil.extractEmail(jwt);
-                userId = jwtUtil.extractUserId(jwt);
-                System.out.println("JWT Filter: Extracted email = " + email + ", userId = " + userId);
-            } catch (Exception e) {
-                System.out.println("JWT Filter: Error extracting token data: " + e.getMessage());
-                // Invalid token
-            }
-        } else {
-            System.out.println("JWT Filter: No valid Authorization header found");
-        }
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwt = authHeader.substring(7);
+            JwtPrincipal principal = resolvePrincipal(jwt);
 
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            System.out.println("JWT Filter: Attempting to authenticate user: " + email);
-            User user = authService.findByEmail(email);
-            if (user != null && jwtUtil.validateToken(jwt, user.getEmail())) {
-                System.out.println("JWT Filter: Token validated successfully for user: " + email);
+            if (principal != null && principal.email() != null) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        user.getEmail(), null,
-                        user.getRoles().stream().map(role -> new SimpleGrantedAuthority("ROLE_" + role.name())).toList()
+                        principal.email(), null,
+                        principal.roles().stream().map(role -> new SimpleGrantedAuthority("ROLE_" + role)).toList()
                 );
 
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
 
-                if (userId != null) {
-                    request.setAttribute("userId", userId);
-                    System.out.println("JWT Filter: Stored userId in request: " + userId);
+                if (principal.userId() != null) {
+                    request.setAttribute(JwtUtil.USER_ID_ATTRIBUTE, principal.userId());
                 }
-                System.out.println("JWT Filter: Authentication set successfully");
-            } else {
-                System.out.println("JWT Filter: Token validation failed for user: " + email);
             }
-        } else {
-            System.out.println("JWT Filter: Skipping authentication - email=" + email + ", existing auth=" + (SecurityContextHolder.getContext().getAuthentication() != null));
         }
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Look the token up in the principal cache; on a miss, verify it once and cache the result.
+     * Roles come from the "roles" claim, so the database is only consulted for legacy tokens without one.
+     */
+    private JwtPrincipal resolvePrincipal(String jwt) {
+        JwtPrincipal principal = principalCache.get(jwt);
+        if (principal != null) {
+            return principal;
+        }
+
+        try {
+            principal = jwtUtil.parseToken(jwt);
+        } catch (Exception e) {
+            System.out.println("JWT Filter: Rejected token: " + e.getMessage());
+            return null;
+        }
+
+        if (principal.roles().isEmpty() && principal.email() != null) {
+            try {
+                User user = authService.findByEmail(principal.email());
+                Set<String> roles = user.getRoles().stream()
+                        .map(Role::name)
+                        .collect(Collectors.toSet());
+                principal = principal.withRoles(roles);
+            } catch (RuntimeException e) {
+                System.out.println("JWT Filter: Token user not found: " + principal.email());
+                return null;
+            }
+        }
+
+        principalCache.put(jwt, principal);
+        return principal;
+    }
 }
@@ -5,11 +5,11 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.example.aqualink.entity.Role;
@@ -18,6 +18,7 @@ import com.example.aqualink.entity.UserRole;
 import com.example.aqualink.entity.VerificationStatus;
 import com.example.aqualink.repository.UserRepository;
 import com.example.aqualink.repository.UserRoleRepository;
+import com.example.aqualink.security.dto.LoginCredentialRow;
 import com.example.aqualink.security.dto.LoginRequest;
 import com.example.aqualink.security.dto.LoginResponse;
 import com.example.aqualink.security.util.JwtUtil;
@@ -38,7 +39,11 @@ public class AuthService {
     @Autowired
     private JwtUtil jwtUtil;
 
-    private BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
 
     public String registerUser(String nicNumber, String name, String email,
                                String phoneNumber, String password, String confirmPassword,
@@ -93,7 +98,7 @@ public class AuthService {
             user.setName(name);
             user.setEmail(email);
             user.setPhoneNumber(phoneNumber);
-            user.setPassword(passwordEncoder.encode(password));
+            user.setPassword(passwordHashingService.encodeNow(password));
             user.setNicFrontDocumentPath(nicFrontPath);
             user.setNicBackDocumentPath(nicBackPath);
             user.setSelfieDocumentPath(selfiePath);
@@ -172,93 +177,95 @@ public class AuthService {
         return userRepository.findById(userId);
     }
 
-    @Transactional(readOnly = true)
-    public LoginResponse authenticate(LoginRequest loginRequest) {
-        try {
-            if (loginRequest == null) {
-                throw new RuntimeException("Login request cannot be null");
-            }
-
-            if (loginRequest.getEmail() == null || loginRequest.getEmail().trim().isEmpty()) {
-                throw new RuntimeException("Email is required");
-            }
-
-            if (loginRequest.getPassword() == null || loginRequest.getPassword().trim().isEmpty()) {
-                throw new RuntimeException("Password is required");
-            }
-
-            User user = userRepository.findByEmail(loginRequest.getEmail())
-                    .orElseThrow(() -> {
-                        System.out.println("ERROR: User not found: " + loginRequest.getEmail());
-                        return new RuntimeException("Invalid email or password");
-                    });
-
-            // Check verification status first
-            if (user.getVerificationStatus() == null) {
-                // Handle users with null verification status (existing users)
-                if (!user.isActive()) {
-                    System.out.println("ERROR: User account pending approval (legacy): " + loginRequest.getEmail());
-                    throw new RuntimeException("Your account is pending admin approval. Please wait for verification to complete.");
-                }
-            } else if (user.getVerificationStatus() == VerificationStatus.PENDING) {
-                System.out.println("ERROR: User account pending approval: " + loginRequest.getEmail());
-                throw new RuntimeException("Your account is pending admin approval. Please wait for verification to complete.");
-            } else if (user.getVerificationStatus() == VerificationStatus.REJECTED) {
-                System.out.println("ERROR: User account rejected: " + loginRequest.getEmail());
-                throw new RuntimeException("Your account has been rejected by the administrator. Please contact support for more information.");
-            }
-
-            if (!user.isActive()) {
-                System.out.println("ERROR: User account is inactive: " + loginRequest.getEmail());
-                throw new RuntimeException("Your account has been deactivated. Please contact support.");
-            }
+    /**
+     * Checks the credentials and issues a JWT. The user and roles are loaded in one query on the calling
+     * thread; the BCrypt comparison runs on the password hashing pool, and the returned future completes
+     * there. Hashes made with a lower cost than the configured one are upgraded after a successful login.
+     */
+    public CompletableFuture<LoginResponse> authenticate(LoginRequest loginRequest) {
+        if (loginRequest == null) {
+            throw new RuntimeException("Login request cannot be null");
+        }
 
-            if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
-                System.out.println("ERROR: Password mismatch for: " + loginRequest.getEmail());
-                throw new RuntimeException("Invalid email or password");
-            }
+        if (loginRequest.getEmail() == null || loginRequest.getEmail().trim().isEmpty()) {
+            throw new RuntimeException("Email is required");
+        }
 
-            List<UserRole> userRolesList = userRoleRepository.findByUserId(user.getId());
-            System.out.println("Found " + userRolesList.size() + " user roles");
+        if (loginRequest.getPassword() == null || loginRequest.getPassword().trim().isEmpty()) {
+            throw new RuntimeException("Password is required");
+        }
 
-            Set<Role> roles = new HashSet<>();
-            for (UserRole userRole : userRolesList) {
-                if (userRole != null && userRole.getRoleName() != null) {
-                    roles.add(userRole.getRoleName());
-                    System.out.println("Added role: " + userRole.getRoleName());
-                }
-            }
+        List<LoginCredentialRow> rows = userRepository.findLoginCredentialsByEmail(loginRequest.getEmail());
+        if (rows.isEmpty()) {
+            System.out.println("ERROR: User not found: " + loginRequest.getEmail());
+            throw new RuntimeException("Invalid email or password");
+        }
+        LoginCredentialRow user = rows.get(0);
 
-            if (roles.isEmpty()) {
-                System.out.println("ERROR: No roles found for user: " + loginRequest.getEmail());
-                throw new RuntimeException("User has no assigned roles");
+        // Check verification status first
+        if (user.verificationStatus() == null) {
+            // Handle users with null verification status (existing users)
+            if (!user.active()) {
+                System.out.println("ERROR: User account pending approval (legacy): " + loginRequest.getEmail());
+                throw new RuntimeException("Your account is pending admin approval. Please wait for verification to complete.");
             }
+        } else if (user.verificationStatus() == VerificationStatus.PENDING) {
+            System.out.println("ERROR: User account pending approval: " + loginRequest.getEmail());
+            throw new RuntimeException("Your account is pending admin approval. Please wait for verification to complete.");
+        } else if (user.verificationStatus() == VerificationStatus.REJECTED) {
+            System.out.println("ERROR: User account rejected: " + loginRequest.getEmail());
+            throw new RuntimeException("Your account has been rejected by the administrator. Please contact support for more information.");
+        }
 
-            String token;
-            try {
-
-                token = jwtUtil.generateToken(user.getEmail(), roles, user.getId());
+        if (!user.active()) {
+            System.out.println("ERROR: User account is inactive: " + loginRequest.getEmail());
+            throw new RuntimeException("Your account has been deactivated. Please contact support.");
+        }
 
-                System.out.println("Token generated successfully");
-            } catch (Exception e) {
-                System.out.println("ERROR: Failed to generate token: " + e.getMessage());
-                e.printStackTrace();
-                throw new RuntimeException("Failed to generate authentication token");
+        Set<Role> roles = new HashSet<>();
+        for (LoginCredentialRow row : rows) {
+            if (row.roleName() != null) {
+                roles.add(row.roleName());
             }
+        }
 
+        return passwordHashingService.matches(loginRequest.getPassword(), user.passwordHash())
+                .thenApply(matches -> {
+                    if (!matches) {
+                        System.out.println("ERROR: Password mismatch for: " + loginRequest.getEmail());
+                        throw new RuntimeException("Invalid email or password");
+                    }
+
+                    if (passwordHashingService.needsRehash(user.passwordHash())) {
+                        rehashPassword(user, loginRequest.getPassword());
+                    }
+
+                    if (roles.isEmpty()) {
+                        System.out.println("ERROR: No roles found for user: " + loginRequest.getEmail());
+                        throw new RuntimeException("User has no assigned roles");
+                    }
+
+                    String token;
+                    try {
+                        token = jwtUtil.generateToken(user.email(), roles, user.userId());
+                    } catch (Exception e) {
+                        System.out.println("ERROR: Failed to generate token: " + e.getMessage());
+                        e.printStackTrace();
+                        throw new RuntimeException("Failed to generate authentication token");
+                    }
+
+                    return new LoginResponse(token, roles, user.nicNumber(), null, user.userId());
+                });
+    }
 
-            LoginResponse response = new LoginResponse(token, roles, user.getNicNumber(), null, user.getId());
-
-
-            return response;
-
-        } catch (RuntimeException e) {
-            e.printStackTrace();
-            throw e;
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException("Authentication failed due to unexpected error: " + e.getMessage());
-        }
+    // Fire and forget: the login does not wait for the new hash, and a failed upgrade is retried next login
+    private void rehashPassword(LoginCredentialRow user, String rawPassword) {
+        passwordHashingService.encode(rawPassword)
+                .thenAccept(newHash -> userRepository.replacePasswordHash(user.userId(), user.passwordHash(), newHash))
+                .exceptionally(e -> {
+                    System.err.println("Error upgrading password hash for user " + user.userId() + ": " + e.getMessage());
+                    return null;
+                });
     }
 
     public User findByEmail(String email) {
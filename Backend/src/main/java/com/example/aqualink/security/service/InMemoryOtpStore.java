@@ -0,0 +1,61 @@
+package com.example.aqualink.security.service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single-node {@link OtpStore}. Holds at most {@code otp.store.max-entries} OTPs; expired ones are swept
+ * every {@code otp.store.sweep-interval-ms}, so abandoned registrations do not accumulate.
+ */
+@Component
+public class InMemoryOtpStore implements OtpStore {
+
+    private final Map<String, PendingOtp> entries = new ConcurrentHashMap<>();
+
+    @Value("${otp.store.max-entries:100000}")
+    private int maxEntries;
+
+    @Override
+    public boolean put(String email, PendingOtp otp) {
+        if (entries.size() >= maxEntries && !entries.containsKey(email)) {
+            sweepExpired();
+            if (entries.size() >= maxEntries) {
+                return false;
+            }
+        }
+        entries.put(email, otp);
+        return true;
+    }
+
+    @Override
+    public Optional<PendingOtp> find(String email) {
+        PendingOtp otp = entries.get(email);
+        if (otp != null && otp.isExpired(System.currentTimeMillis())) {
+            entries.remove(email, otp);
+            return Optional.empty();
+        }
+        return Optional.ofNullable(otp);
+    }
+
+    @Override
+    public Optional<PendingOtp> recordFailedAttempt(String email) {
+        return Optional.ofNullable(entries.computeIfPresent(email, (key, otp) ->
+                new PendingOtp(otp.otp(), otp.expiresAtMillis(), otp.failedAttempts() + 1)));
+    }
+
+    @Override
+    public void remove(String email) {
+        entries.remove(email);
+    }
+
+    @Scheduled(fixedDelayString = "${otp.store.sweep-interval-ms:30000}")
+    public void sweepExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(otp -> otp.isExpired(now));
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.aqualink.security.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.aqualink.security.util.JwtPrincipal;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Bounded LRU cache of verified JWT principals.
+ *
+ * Entries are keyed by the SHA-256 of the raw token (the token itself is never kept) and live
+ * for at most {@code jwt.principal-cache.ttl-ms}, never past the token's own {@code exp}.
+ */
+@Component
+public class JwtPrincipalCache {
+
+    @Value("${jwt.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${jwt.principal-cache.ttl-ms:300000}")
+    private long ttlMillis;
+
+    private Map<String, CachedPrincipal> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPrincipal> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    public JwtPrincipal get(String token) {
+        String key = hash(token);
+        CachedPrincipal entry = cache.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            cache.remove(key);
+            return null;
+        }
+        return entry.principal();
+    }
+
+    public void put(String token, JwtPrincipal principal) {
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttlMillis;
+        if (principal.expiresAt() != null) {
+            expiresAt = Math.min(expiresAt, principal.expiresAt().getTime());
+        }
+        if (expiresAt <= now) {
+            return;
+        }
+        cache.put(hash(token), new CachedPrincipal(principal, expiresAt));
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    private String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hashed = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hashed);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record CachedPrincipal(JwtPrincipal principal, long expiresAtMillis) {
+    }
+}
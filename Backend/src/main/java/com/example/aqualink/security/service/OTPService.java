@@ -1,64 +1,92 @@
 package com.example.aqualink.security.service;
 
+import com.example.aqualink.exception.TooManyRequestsException;
+import com.example.aqualink.service.OutboundMailQueue;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.SecureRandom;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Locale;
+import java.util.Optional;
 
 @Service
 public class OTPService {
 
-    private final JavaMailSender mailSender;
-    private final SecureRandom random = new SecureRandom();
+    private static final String OTP_PLACEHOLDER = "\u0000otp\u0000";
+    private static final String EMAIL_PLACEHOLDER = "\u0000email\u0000";
+    private static final String[] OTP_TEMPLATE_PARTS =
+            buildOTPEmailTemplate(OTP_PLACEHOLDER, EMAIL_PLACEHOLDER).split(OTP_PLACEHOLDER + "|" + EMAIL_PLACEHOLDER, -1);
+    private static final int OTP_TEMPLATE_LENGTH =
+            OTP_TEMPLATE_PARTS[0].length() + OTP_TEMPLATE_PARTS[1].length() + OTP_TEMPLATE_PARTS[2].length();
+
+    private static final long OTP_VALIDITY_MS = 5 * 60 * 1000;
+    // Wrong guesses allowed per OTP before it is discarded
+    private static final int MAX_FAILED_ATTEMPTS = 5;
 
-    // Store OTPs temporarily in memory with timestamp
-    private final Map<String, OTPData> otpStorage = new ConcurrentHashMap<>();
+    private final OutboundMailQueue outboundMailQueue;
+    private final OtpStore otpStore;
+    private final OtpRateLimiter otpRateLimiter;
+    private final SecureRandom random = new SecureRandom();
 
     @Autowired
-    public OTPService(JavaMailSender mailSender) {
-        this.mailSender = mailSender;
+    public OTPService(OutboundMailQueue outboundMailQueue, OtpStore otpStore, OtpRateLimiter otpRateLimiter) {
+        this.outboundMailQueue = outboundMailQueue;
+        this.otpStore = otpStore;
+        this.otpRateLimiter = otpRateLimiter;
     }
 
-    public String generateOTP(String email) {
+    /**
+     * Generate and store a new OTP for the email, replacing any pending one. Throws
+     * TooManyRequestsException when the email or client IP has requested too many OTPs recently.
+     */
+    public String generateOTP(String email, String clientIp) {
+        String key = normalize(email);
+        if (!otpRateLimiter.tryAcquire(key, clientIp)) {
+            throw new TooManyRequestsException("Too many OTP requests. Please wait a few minutes and try again.");
+        }
+
         // Generate 6 digit OTP
         int otp = 100000 + random.nextInt(900000);
         String otpString = String.valueOf(otp);
 
-        // Store OTP with timestamp (valid for 5 minutes)
-        long expiryTime = System.currentTimeMillis() + (5 * 60 * 1000);
-        otpStorage.put(email, new OTPData(otpString, expiryTime));
+        // Valid for 5 minutes
+        long expiryTime = System.currentTimeMillis() + OTP_VALIDITY_MS;
+        if (!otpStore.put(key, new OtpStore.PendingOtp(otpString, expiryTime, 0))) {
+            throw new TooManyRequestsException("Too many pending OTP requests. Please try again later.");
+        }
 
         return otpString;
     }
 
+    /**
+     * Queues the OTP email and returns immediately; it is sent (and retried if needed) on the mail threads.
+     */
     public void sendOTPEmail(String toEmail, String otp) {
-        try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
+        String htmlContent = renderOTPEmail(otp, toEmail);
+        outboundMailQueue.enqueue("OTP email to " + toEmail, mimeMessage -> {
             MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
-            
+
             helper.setTo(toEmail);
             helper.setSubject("Your AquaLink Registration OTP Code");
             helper.setFrom("aqualink.lk@gmail.com", "AquaLink");
-            
-            // Professional HTML email template
-            String htmlContent = buildOTPEmailTemplate(otp, toEmail);
             helper.setText(htmlContent, true); // true = HTML email
-            
-            mailSender.send(mimeMessage);
-        } catch (MessagingException e) {
-            throw new RuntimeException("Failed to send email: " + e.getMessage());
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to send email: " + e.getMessage());
-        }
+        });
     }
-    
-    private String buildOTPEmailTemplate(String otp, String email) {
+
+    private static String renderOTPEmail(String otp, String email) {
+        return new StringBuilder(OTP_TEMPLATE_LENGTH + 64)
+                .append(OTP_TEMPLATE_PARTS[0]).append(otp)
+                .append(OTP_TEMPLATE_PARTS[1]).append(HtmlUtils.htmlEscape(email))
+                .append(OTP_TEMPLATE_PARTS[2])
+                .toString();
+    }
+
+    // Professional HTML email template, built once with placeholders for the OTP and the address
+    private static String buildOTPEmailTemplate(String otp, String email) {
         StringBuilder html = new StringBuilder();
         html.append("<!DOCTYPE html>");
         html.append("<html lang=\"en\">");
@@ -158,47 +186,31 @@ public class OTPService {
     }
 
     public boolean verifyOTP(String email, String otp) {
-        OTPData otpData = otpStorage.get(email);
-
-        if (otpData == null) {
-            return false; // No OTP found for this email
-        }
-
-        // Check if OTP is expired
-        if (System.currentTimeMillis() > otpData.getExpiryTime()) {
-            otpStorage.remove(email); // Remove expired OTP
-            return false;
+        String key = normalize(email);
+        Optional<OtpStore.PendingOtp> pending = otpStore.find(key);
+        if (pending.isEmpty() || otp == null) {
+            return false; // No OTP found for this email, or it has expired
         }
 
-        // Check if OTP matches
-        if (otpData.getOtp().equals(otp)) {
-            otpStorage.remove(email); // Remove OTP after successful verification
+        // Constant-time comparison so response timing does not reveal matching digits
+        if (MessageDigest.isEqual(pending.get().otp().getBytes(StandardCharsets.US_ASCII),
+                otp.trim().getBytes(StandardCharsets.US_ASCII))) {
+            otpStore.remove(key); // Remove OTP after successful verification
             return true;
         }
 
+        Optional<OtpStore.PendingOtp> updated = otpStore.recordFailedAttempt(key);
+        if (updated.isPresent() && updated.get().failedAttempts() >= MAX_FAILED_ATTEMPTS) {
+            otpStore.remove(key);
+        }
         return false;
     }
 
     public void clearOTP(String email) {
-        otpStorage.remove(email);
+        otpStore.remove(normalize(email));
     }
 
-    // Inner class to store OTP with expiry time
-    private static class OTPData {
-        private final String otp;
-        private final long expiryTime;
-
-        public OTPData(String otp, long expiryTime) {
-            this.otp = otp;
-            this.expiryTime = expiryTime;
-        }
-
-        public String getOtp() {
-            return otp;
-        }
-
-        public long getExpiryTime() {
-            return expiryTime;
-        }
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
     }
 }
@@ -0,0 +1,118 @@
+package com.example.aqualink.security.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token-bucket limits on OTP generation, one bucket per email address and one per client IP.
+ *
+ * A bucket starts full, each OTP takes one token, and tokens come back at one per refill period. Buckets
+ * that have refilled completely carry no state worth keeping and are dropped by the periodic sweep.
+ *
+ * The number of tracked keys per map is capped by {@code otp.rate-limit.max-tracked-keys}. Once a map is
+ * full, every email or IP without a bucket is refused (the caller answers 429) until the sweep makes room;
+ * keys that already have a bucket are unaffected. The cap bounds memory at the cost of availability under
+ * a flood of distinct keys.
+ *
+ * Client IPs are whatever request.getRemoteAddr() reports, which behind the reverse proxy is resolved from
+ * X-Forwarded-For by {@code server.forward-headers-strategy}.
+ */
+@Component
+public class OtpRateLimiter {
+
+    @Value("${otp.rate-limit.email.capacity:3}")
+    private int emailCapacity;
+
+    @Value("${otp.rate-limit.email.refill-period-ms:300000}")
+    private long emailRefillPeriodMs;
+
+    @Value("${otp.rate-limit.ip.capacity:10}")
+    private int ipCapacity;
+
+    @Value("${otp.rate-limit.ip.refill-period-ms:60000}")
+    private long ipRefillPeriodMs;
+
+    @Value("${otp.rate-limit.max-tracked-keys:100000}")
+    private int maxTrackedKeys;
+
+    private final Map<String, TokenBucket> emailBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> ipBuckets = new ConcurrentHashMap<>();
+
+    /**
+     * Take one token from both the email's and the IP's bucket; false (and nothing taken) if either is empty.
+     */
+    public boolean tryAcquire(String email, String clientIp) {
+        long now = System.currentTimeMillis();
+        TokenBucket ipBucket = bucket(ipBuckets, clientIp, ipCapacity, ipRefillPeriodMs);
+        if (ipBucket == null || !ipBucket.tryConsume(now)) {
+            return false;
+        }
+        TokenBucket emailBucket = bucket(emailBuckets, email, emailCapacity, emailRefillPeriodMs);
+        if (emailBucket == null || !emailBucket.tryConsume(now)) {
+            ipBucket.refund();
+            return false;
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${otp.rate-limit.sweep-interval-ms:60000}")
+    public void sweepIdleBuckets() {
+        long now = System.currentTimeMillis();
+        emailBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        ipBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    private TokenBucket bucket(Map<String, TokenBucket> buckets, String key, int capacity, long refillPeriodMs) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxTrackedKeys) {
+            return null;
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, refillPeriodMs, System.currentTimeMillis()));
+    }
+
+    private static final class TokenBucket {
+        private final int capacity;
+        private final long refillPeriodMs;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(int capacity, long refillPeriodMs, long now) {
+            this.capacity = capacity;
+            this.refillPeriodMs = refillPeriodMs;
+            this.tokens = capacity;
+            this.lastRefill = now;
+        }
+
+        synchronized boolean tryConsume(long now) {
+            refill(now);
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+
+        synchronized void refund() {
+            tokens = Math.min(capacity, tokens + 1);
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            if (now > lastRefill) {
+                tokens = Math.min(capacity, tokens + (double) (now - lastRefill) / refillPeriodMs);
+                lastRefill = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.aqualink.security.service;
+
+import java.util.Optional;
+
+/**
+ * Storage for pending OTPs, keyed by email address.
+ *
+ * The default {@link InMemoryOtpStore} is local to one node; a deployment behind a load balancer can
+ * register a shared implementation (e.g. on Redis or a database table) as a {@code @Primary} bean.
+ */
+public interface OtpStore {
+
+    /**
+     * Store (or replace) the OTP for an email. Returns false when the store is full.
+     */
+    boolean put(String email, PendingOtp otp);
+
+    Optional<PendingOtp> find(String email);
+
+    /**
+     * Count a failed verification; returns the updated entry, or empty if it no longer exists.
+     */
+    Optional<PendingOtp> recordFailedAttempt(String email);
+
+    void remove(String email);
+
+    record PendingOtp(String otp, long expiresAtMillis, int failedAttempts) {
+
+        public boolean isExpired(long nowMillis) {
+            return nowMillis > expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.aqualink.security.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs password hashing (BCrypt, deliberately slow) on a dedicated pool sized to the CPU count, so a burst
+ * of logins queues here instead of occupying Tomcat's request threads. When the queue is full the call
+ * fails fast rather than piling up more work than the CPUs can finish.
+ *
+ * The {@code auth.password.hash} timer (tagged verify/encode) shows the cost per hash at the configured
+ * strength; with N hash threads busy, N / mean seconds is the login throughput of this node.
+ */
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final Timer verifyTimer;
+    private final Timer encodeTimer;
+
+    // 0 = one thread per available processor
+    @Value("${security.password.hash-threads:0}")
+    private int threads;
+
+    @Value("${security.password.hash-queue-size:256}")
+    private int queueSize;
+
+    private ThreadPoolExecutor executor;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.verifyTimer = Timer.builder("auth.password.hash")
+                .description("Time spent hashing passwords")
+                .tag("operation", "verify")
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder("auth.password.hash")
+                .description("Time spent hashing passwords")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(() -> verifyTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> encodeTimer.record(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    /**
+     * Hash on the calling thread. For registration, which waits for the hash anyway and is too rare to be
+     * worth queueing behind logins or failing when the pool is busy.
+     */
+    public String encodeNow(String rawPassword) {
+        return encodeTimer.record(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * True when the hash was made with a weaker setting than the configured one and should be replaced.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(work, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(
+                    new RuntimeException("The server is busy handling other logins. Please try again in a moment."));
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.aqualink.security.util;
+
+import java.util.Date;
+import java.util.Set;
+
+/**
+ * Immutable view of a verified JWT. Built once per token by {@link JwtUtil#parseToken(String)}
+ * so the filter never has to re-parse or re-verify the same token.
+ */
+public record JwtPrincipal(String email, Long userId, Set<String> roles, Date expiresAt) {
+
+    public JwtPrincipal {
+        roles = roles != null ? Set.copyOf(roles) : Set.of();
+    }
+
+    public JwtPrincipal withRoles(Set<String> newRoles) {
+        return new JwtPrincipal(email, userId, newRoles, expiresAt);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.aqualink.security.util;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -16,23 +17,53 @@ import org.springframework.stereotype.Component;
 import com.example.aqualink.entity.Role;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 
 @Component
 public class JwtUtil {
+
+    // Request attribute under which JwtAuthFilter stores the user ID of a verified token
+    public static final String USER_ID_ATTRIBUTE = "userId";
+
     @Value("${jwt.secret:O6z6I2xL8UeQ9nV0xD5hRpO3rYgCmJv6YzNcT0qLgBw=}")
     private String secret;
     
     @Value("${jwt.expiration:28800000}")
     private int jwtExpiration; // Default 8 hours for development
 
-    // Add the missing getSigningKey method
-    private SecretKey getSigningKey() {
+    // Key and parser are immutable and thread-safe, so build them once instead of per call
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
         byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        signingKey = Keys.hmacShaKeyFor(keyBytes);
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
+    private SecretKey getSigningKey() {
+        return signingKey;
+    }
+
+    /**
+     * Parse and verify the token once (single HMAC check) and return its claims as an immutable principal.
+     * Throws if the signature is invalid or the token has expired.
+     */
+    public JwtPrincipal parseToken(String token) {
+        Claims claims = extractAllClaims(token);
+        return new JwtPrincipal(
+                claims.getSubject(),
+                toUserId(claims.get("userId")),
+                toRoleNames(claims.get("roles")),
+                claims.getExpiration());
     }
 
     public String generateToken(String email, Set<Role> roles, Long userId) {
@@ -137,31 +168,44 @@ public class JwtUtil {
     public Long extractUserId(String token) {
         try {
             Claims claims = extractAllClaims(token);
-            Object userIdClaim = claims.get("userId");
-
-            if (userIdClaim == null) {
+            Long userId = toUserId(claims.get("userId"));
+            if (userId == null) {
                 System.out.println("WARNING: No userId found in token");
-                return null;
-            }
-
-            // Handle different number types that might be stored
-            if (userIdClaim instanceof Integer) {
-                return ((Integer) userIdClaim).longValue();
-            } else if (userIdClaim instanceof Long) {
-                return (Long) userIdClaim;
-            } else if (userIdClaim instanceof String) {
-                return Long.parseLong((String) userIdClaim);
             }
-
-            System.out.println("Extracted userId: " + userIdClaim);
-            return Long.valueOf(userIdClaim.toString());
-
+            return userId;
         } catch (Exception e) {
             System.out.println("Failed to extract userId from token: " + e.getMessage());
             throw e;
         }
     }
 
+    private Long toUserId(Object userIdClaim) {
+        if (userIdClaim == null) {
+            return null;
+        }
+
+        // Handle different number types that might be stored
+        if (userIdClaim instanceof Integer) {
+            return ((Integer) userIdClaim).longValue();
+        } else if (userIdClaim instanceof Long) {
+            return (Long) userIdClaim;
+        } else if (userIdClaim instanceof String) {
+            return Long.parseLong((String) userIdClaim);
+        }
+        return Long.valueOf(userIdClaim.toString());
+    }
+
+    // Roles are written as a Set but come back from Jackson as a List
+    private Set<String> toRoleNames(Object rolesClaim) {
+        if (rolesClaim instanceof Collection<?> roles) {
+            return roles.stream()
+                    .filter(role -> role != null)
+                    .map(Object::toString)
+                    .collect(Collectors.toSet());
+        }
+        return Set.of();
+    }
+
     public Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
@@ -173,12 +217,7 @@ public class JwtUtil {
 
     private Claims extractAllClaims(String token) {
         try {
-            // Updated to use modern JJWT API
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return jwtParser.parseClaimsJws(token).getBody();
         } catch (Exception e) {
             System.out.println("Failed to parse JWT claims: " + e.getMessage());
             throw e;
@@ -204,6 +243,27 @@ public class JwtUtil {
         return null;
     }
 
+    /**
+     * The user ID of the request's bearer token, or null when there is none. Requests that passed through
+     * JwtAuthFilter carry it as a request attribute; on paths the filter skips the token is verified here.
+     */
+    public Long getCurrentUserId(HttpServletRequest request) {
+        Object verifiedUserId = request.getAttribute(USER_ID_ATTRIBUTE);
+        if (verifiedUserId instanceof Long) {
+            return (Long) verifiedUserId;
+        }
+
+        String token = getJwtFromRequest(request);
+        if (token == null) {
+            return null;
+        }
+        try {
+            return extractUserId(token);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     // Fixed getUserIdFromToken method using consistent approach
     public Long getUserIdFromToken(String token) {
         try {
@@ -218,9 +278,7 @@ public class JwtUtil {
     public Set<String> extractRoles(String token) {
         try {
             Claims claims = extractAllClaims(token);
-            @SuppressWarnings("unchecked")
-            Set<String> roles = (Set<String>) claims.get("roles");
-            return roles != null ? roles : Set.of();
+            return toRoleNames(claims.get("roles"));
         } catch (Exception e) {
             System.out.println("Failed to extract roles from token: " + e.getMessage());
             return Set.of();
@@ -8,6 +8,7 @@ import com.example.aqualink.entity.VerificationStatus;
 import com.example.aqualink.repository.UserRepository;
 import com.example.aqualink.repository.UserRoleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,6 +29,9 @@ public class AdminVerificationServiceImpl implements AdminVerificationService {
     @Autowired
     private UserRoleRepository userRoleRepository;
 
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
     @Override
     public List<UserVerificationDTO> getAllUsersForVerification() {
         List<User> users = userRepository.findAllByOrderByCreatedAtDesc();
@@ -179,7 +183,7 @@ public class AdminVerificationServiceImpl implements AdminVerificationService {
             adminUser.setEmail(email);
             adminUser.setNicNumber("ADMIN001");
             adminUser.setPhoneNumber("+94700000000");
-            adminUser.setPassword(new org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder().encode(password));
+            adminUser.setPassword(passwordEncoder.encode(password));
             adminUser.setActive(true); // Admin users are active by default
             adminUser.setEnabled(true); // Admin users are enabled by default
             
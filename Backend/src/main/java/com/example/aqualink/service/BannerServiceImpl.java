@@ -5,7 +5,6 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
-import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -21,6 +20,12 @@ public class BannerServiceImpl implements BannerService {
     @Autowired
     private BannerRepository bannerRepo;
 
+    @Autowired
+    private ContentAddressedStore contentAddressedStore;
+
+    @Autowired
+    private UploadIngestionService uploadIngestionService;
+
     // Use the same directory as configured in application.properties
     @Value("${file.upload-dir:./uploads/}")
     private String baseUploadDir;
@@ -40,26 +45,11 @@ public class BannerServiceImpl implements BannerService {
     @Override
     public Banner uploadBanner(MultipartFile file) {
         try {
-            // Create full upload path
-            String fullUploadDir = baseUploadDir + BANNER_SUBDIR;
-            Path uploadPath = Paths.get(fullUploadDir);
-            
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-
-            // Generate unique filename
-            String originalFileName = file.getOriginalFilename();
-            String fileExtension = originalFileName.substring(originalFileName.lastIndexOf("."));
-            String uniqueFileName = UUID.randomUUID().toString() + fileExtension;
-
-            // Save file
-            Path filePath = uploadPath.resolve(uniqueFileName);
-            Files.copy(file.getInputStream(), filePath);
+            ContentAddressedStore.StoredBlob blob = uploadIngestionService.ingest(file, UploadIngestionService.ANY_IMAGE);
 
             // Create banner entity with correct URL path
             Banner banner = new Banner();
-            banner.setImageUrl("/uploads/banners/" + uniqueFileName);
+            banner.setImageUrl(blob.url());
 
             return bannerRepo.save(banner);
         } catch (IOException e) {
@@ -74,7 +64,9 @@ public class BannerServiceImpl implements BannerService {
             Banner banner = bannerRepo.findById(id).orElse(null);
             if (banner != null) {
                 String imageUrl = banner.getImageUrl();
-                if (imageUrl != null && imageUrl.startsWith("/uploads/banners/")) {
+                // Stored uploads are reference counted; only banners from before that are deleted directly
+                if (!contentAddressedStore.release(imageUrl)
+                        && imageUrl != null && imageUrl.startsWith("/uploads/banners/")) {
                     String fileName = imageUrl.substring("/uploads/banners/".length());
                     Path filePath = Paths.get(baseUploadDir + BANNER_SUBDIR + fileName);
                     Files.deleteIfExists(filePath);
@@ -0,0 +1,85 @@
+package com.example.aqualink.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.aqualink.repository.BlogPostRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Periodically recounts the denormalized like/dislike/approved-comment counters on blog_posts from
+ * blog_reactions and blog_comments, repairing any drift (and backfilling posts that existed before
+ * the counter columns were added).
+ *
+ * Posts are walked in ID order in chunks of {@code blog.counter-reconcile.batch-size}; each chunk is one
+ * bulk UPDATE in its own short transaction.
+ */
+@Component
+public class BlogCounterReconciler {
+
+    private final BlogPostRepository blogPostRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter repairedPostsCounter;
+
+    @Value("${blog.counter-reconcile.batch-size:500}")
+    private int batchSize;
+
+    public BlogCounterReconciler(BlogPostRepository blogPostRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.blogPostRepository = blogPostRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.repairedPostsCounter = Counter.builder("blog.counters.repaired")
+                .description("Blog posts whose denormalized counters had drifted and were recounted")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${blog.counter-reconcile.interval-ms:3600000}",
+               initialDelayString = "${blog.counter-reconcile.initial-delay-ms:30000}")
+    public void reconcile() {
+        try {
+            int repaired = reconcileAll();
+            repairedPostsCounter.increment(repaired);
+            if (repaired > 0) {
+                System.out.println("Blog counter reconciliation: repaired " + repaired + " post(s)");
+            }
+        } catch (Exception e) {
+            System.err.println("Error during blog counter reconciliation: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    int reconcileAll() {
+        long afterId = 0;
+        int repaired = 0;
+        while (true) {
+            long cursor = afterId;
+            ChunkResult result = transactionTemplate.execute(status -> {
+                List<Long> ids = blogPostRepository.findIdsAfter(cursor, PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    return new ChunkResult(0, cursor, 0);
+                }
+                return new ChunkResult(ids.size(), ids.get(ids.size() - 1), blogPostRepository.reconcileCounts(ids));
+            });
+            if (result == null) {
+                return repaired;
+            }
+            repaired += result.repaired();
+            if (result.selected() < batchSize) {
+                return repaired;
+            }
+            afterId = result.lastId();
+        }
+    }
+
+    private record ChunkResult(int selected, long lastId, int repaired) {
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.aqualink.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.aqualink.entity.ReactionType;
+import com.example.aqualink.entity.User;
+import com.example.aqualink.repository.BlogReactionRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind buffer for blog reactions.
+ *
+ * Toggles are folded into one pending entry per (post, user) in a striped in-memory map and written to
+ * blog_reactions every {@code blog.reactions.flush-interval-ms} as JDBC batches, together with the net
+ * change of the like/dislike counters. A burst of toggles on a hot post therefore costs one row write per
+ * user per flush, and a toggle that cancels out before the flush costs nothing. Reads of a user's own
+ * reaction consult the buffer first, so they always see the latest toggle.
+ */
+@Component
+public class BlogReactionBuffer {
+
+    private static final int STRIPES = 16;
+
+    private static final String DELETE_SQL =
+            "DELETE FROM blog_reactions WHERE blog_post_id = ? AND user_id = ?";
+    private static final String UPDATE_SQL =
+            "UPDATE blog_reactions SET type = ?, updated_at = ? WHERE blog_post_id = ? AND user_id = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO blog_reactions (type, created_at, updated_at, blog_post_id, user_id) VALUES (?, ?, ?, ?, ?)";
+    private static final String COUNTER_SQL =
+            "UPDATE blog_posts SET like_count = like_count + ?, dislike_count = dislike_count + ? WHERE id = ?";
+
+    private final BlogReactionRepository blogReactionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter togglesCounter;
+    private final Counter writtenRowsCounter;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public BlogReactionBuffer(BlogReactionRepository blogReactionRepository,
+                              JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.blogReactionRepository = blogReactionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+
+        this.togglesCounter = Counter.builder("blog.reactions.toggles")
+                .description("Reaction changes accepted into the write-behind buffer")
+                .register(meterRegistry);
+        this.writtenRowsCounter = Counter.builder("blog.reactions.rows.written")
+                .description("blog_reactions rows written by buffer flushes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Toggle a reaction: the same type as the current one removes it, any other type replaces it.
+     * Returns the resulting state; its type is null when the user no longer reacts to the post.
+     */
+    public PendingReaction toggle(Long postId, User user, ReactionType type) {
+        return update(postId, user, current -> current == type ? null : type);
+    }
+
+    public PendingReaction remove(Long postId, User user) {
+        return update(postId, user, current -> null);
+    }
+
+    /**
+     * The user's not-yet-flushed reaction state, if there is one.
+     */
+    public Optional<PendingReaction> find(Long postId, Long userId) {
+        Stripe stripe = stripeFor(postId);
+        Key key = new Key(postId, userId);
+        synchronized (stripe) {
+            PendingReaction pending = stripe.pending.get(key);
+            return Optional.ofNullable(pending != null ? pending : stripe.inFlight.get(key));
+        }
+    }
+
+    /**
+     * Every not-yet-flushed reaction state on a post, keyed by user ID.
+     */
+    public Map<Long, PendingReaction> findForPost(Long postId) {
+        Map<Long, PendingReaction> result = new LinkedHashMap<>();
+        Stripe stripe = stripeFor(postId);
+        synchronized (stripe) {
+            // Pending entries are newer than the ones being flushed, so they are applied last
+            for (Map<Key, PendingReaction> entries : List.of(stripe.inFlight, stripe.pending)) {
+                for (PendingReaction entry : entries.values()) {
+                    if (entry.postId().equals(postId)) {
+                        result.put(entry.userId(), entry);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${blog.reactions.flush-interval-ms:250}")
+    public synchronized void flush() {
+        List<PendingReaction> batch = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                if (!stripe.pending.isEmpty()) {
+                    stripe.inFlight = stripe.pending;
+                    stripe.pending = new HashMap<>();
+                    batch.addAll(stripe.inFlight.values());
+                }
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+        } catch (RuntimeException e) {
+            // One bad entry (e.g. its post was deleted meanwhile) must not sink the rest of the batch
+            System.err.println("Error flushing " + batch.size() + " blog reaction(s), retrying one by one: " + e.getMessage());
+            for (PendingReaction entry : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> write(List.of(entry)));
+                } catch (RuntimeException single) {
+                    System.err.println("Dropping blog reaction of user " + entry.userId() + " on post "
+                            + entry.postId() + ": " + single.getMessage());
+                }
+            }
+        } finally {
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    if (!stripe.inFlight.isEmpty()) {
+                        stripe.inFlight = new HashMap<>();
+                        stripe.generation++;
+                    }
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private PendingReaction update(Long postId, User user, UnaryOperator<ReactionType> change) {
+        Stripe stripe = stripeFor(postId);
+        Key key = new Key(postId, user.getId());
+        while (true) {
+            long generation;
+            boolean buffered;
+            synchronized (stripe) {
+                generation = stripe.generation;
+                buffered = stripe.pending.containsKey(key) || stripe.inFlight.containsKey(key);
+            }
+            // The database is read outside the lock; the generation check below catches a flush in between
+            ReactionType persisted = buffered ? null
+                    : blogReactionRepository.findReactionTypeByIds(postId, user.getId()).orElse(null);
+
+            synchronized (stripe) {
+                ReactionType original;
+                ReactionType current;
+                PendingReaction pending = stripe.pending.get(key);
+                PendingReaction flushing = stripe.inFlight.get(key);
+                if (pending != null) {
+                    original = pending.original();
+                    current = pending.type();
+                } else if (flushing != null) {
+                    // Being written right now; that write is the new baseline
+                    original = flushing.type();
+                    current = flushing.type();
+                } else if (generation == stripe.generation) {
+                    original = persisted;
+                    current = persisted;
+                } else {
+                    continue;
+                }
+
+                ReactionType next = change.apply(current);
+                PendingReaction entry = new PendingReaction(postId, user.getId(), user.getName(), user.getEmail(),
+                        original, next, LocalDateTime.now());
+                if (next == original) {
+                    // Toggled back to where the database already is; nothing left to write
+                    stripe.pending.remove(key);
+                } else {
+                    stripe.pending.put(key, entry);
+                }
+                togglesCounter.increment();
+                return entry;
+            }
+        }
+    }
+
+    private void write(List<PendingReaction> entries) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<PendingReaction> upserts = new ArrayList<>();
+        Map<Long, long[]> counterDeltas = new HashMap<>();
+
+        for (PendingReaction entry : entries) {
+            if (entry.type() == null) {
+                deletes.add(new Object[]{entry.postId(), entry.userId()});
+            } else {
+                updates.add(new Object[]{entry.type().name(), now, entry.postId(), entry.userId()});
+                upserts.add(entry);
+            }
+            long[] delta = counterDeltas.computeIfAbsent(entry.postId(), id -> new long[2]);
+            delta[0] += count(entry.type(), ReactionType.LIKE) - count(entry.original(), ReactionType.LIKE);
+            delta[1] += count(entry.type(), ReactionType.DISLIKE) - count(entry.original(), ReactionType.DISLIKE);
+        }
+
+        int written = 0;
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_SQL, deletes);
+            written += deletes.size();
+        }
+        if (!updates.isEmpty()) {
+            // Update first; rows that did not exist yet are inserted in a second batch
+            int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+            List<Object[]> inserts = new ArrayList<>();
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) {
+                    PendingReaction entry = upserts.get(i);
+                    inserts.add(new Object[]{entry.type().name(), now, now, entry.postId(), entry.userId()});
+                }
+            }
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+            }
+            written += updates.size();
+        }
+
+        List<Object[]> counters = new ArrayList<>();
+        for (Map.Entry<Long, long[]> delta : counterDeltas.entrySet()) {
+            if (delta.getValue()[0] != 0 || delta.getValue()[1] != 0) {
+                counters.add(new Object[]{delta.getValue()[0], delta.getValue()[1], delta.getKey()});
+            }
+        }
+        if (!counters.isEmpty()) {
+            jdbcTemplate.batchUpdate(COUNTER_SQL, counters);
+        }
+        writtenRowsCounter.increment(written);
+    }
+
+    private Stripe stripeFor(Long postId) {
+        return stripes[Math.floorMod(postId.hashCode(), STRIPES)];
+    }
+
+    private static long count(ReactionType type, ReactionType wanted) {
+        return type == wanted ? 1 : 0;
+    }
+
+    /**
+     * Latest reaction state of one user on one post. {@code type} is null when the reaction was removed;
+     * {@code original} is what the database held before the buffered changes.
+     */
+    public record PendingReaction(Long postId, Long userId, String userName, String userEmail,
+                                  ReactionType original, ReactionType type, LocalDateTime updatedAt) {
+    }
+
+    private record Key(Long postId, Long userId) {
+    }
+
+    private static final class Stripe {
+        private Map<Key, PendingReaction> pending = new HashMap<>();
+        private Map<Key, PendingReaction> inFlight = new HashMap<>();
+        private long generation;
+    }
+}
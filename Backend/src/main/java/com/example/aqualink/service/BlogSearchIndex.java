@@ -0,0 +1,269 @@
+package com.example.aqualink.service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.uhighlight.DefaultPassageFormatter;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
+
+import com.example.aqualink.dto.BlogSearchResultDTO;
+import com.example.aqualink.entity.BlogPost;
+import com.example.aqualink.repository.BlogPostRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * In-memory Lucene index of published blog posts.
+ *
+ * The HTML body is reduced to plain text before indexing, and matches rank title over summary over
+ * body. Built from the database at startup and then kept up to date by the BlogService write paths;
+ * as in ListingSearchIndex, changes made inside a transaction reach the index only after it commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class BlogSearchIndex {
+
+    public static final int MAX_PAGE_SIZE = 50;
+
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_TITLE = "title";
+    private static final String FIELD_SUMMARY = "summary";
+    private static final String FIELD_BODY = "body";
+    private static final String FIELD_IMAGE = "image";
+    private static final String FIELD_AUTHOR = "author";
+    private static final String FIELD_PUBLISHED_AT = "published_at";
+
+    // Title matches outrank summary matches, which outrank body matches
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(
+            FIELD_TITLE, 3.0f,
+            FIELD_SUMMARY, 2.0f,
+            FIELD_BODY, 1.0f);
+
+    private static final int SNIPPET_PASSAGES = 2;
+    private static final int MAX_HIGHLIGHT_LENGTH = 50_000;
+
+    private static final Pattern SCRIPT_OR_STYLE = Pattern.compile("(?is)<(script|style)[^>]*>.*?</\\1\\s*>");
+    private static final Pattern COMMENT = Pattern.compile("(?s)<!--.*?-->");
+    private static final Pattern TAG = Pattern.compile("<[^>]*>");
+    private static final Pattern WHITESPACE = Pattern.compile("[\\s\\u00A0]+");
+
+    private final BlogPostRepository blogPostRepository;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    @PostConstruct
+    void open() throws IOException {
+        writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(30)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        try {
+            writer.deleteAll();
+            List<BlogPost> posts = blogPostRepository.findPublishedWithAuthor();
+            for (BlogPost post : posts) {
+                Entry entry = entryOf(post);
+                writer.updateDocument(idTerm(entry.id()), toDocument(entry));
+            }
+            searcherManager.maybeRefresh();
+            System.out.println("Blog search index built: " + posts.size() + " post(s)");
+        } catch (IOException e) {
+            System.err.println("Error building blog search index: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Add or refresh a post if it is published, drop it otherwise.
+     */
+    public void index(BlogPost post) {
+        apply(post.getId(), post.isPublished() ? entryOf(post) : null);
+    }
+
+    public void remove(Long postId) {
+        apply(postId, null);
+    }
+
+    /**
+     * Ranked search over published posts; every word has to match title, summary or body.
+     */
+    public BlogSearchResultDTO search(String text, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = LuceneQueries.clampPage(page, pageSize);
+        List<String> tokens = LuceneQueries.analyze(analyzer, FIELD_BODY, text);
+        if (tokens.isEmpty()) {
+            return new BlogSearchResultDTO(new ArrayList<>(), 0, pageNumber, pageSize);
+        }
+
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        for (String token : tokens) {
+            builder.add(LuceneQueries.wordQuery(token, FIELD_BOOSTS), BooleanClause.Occur.MUST);
+        }
+        Query query = builder.build();
+
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            TopDocs topDocs = searcher.search(query, (pageNumber + 1) * pageSize);
+            ScoreDoc[] all = topDocs.scoreDocs;
+            int from = Math.min(pageNumber * pageSize, all.length);
+            ScoreDoc[] pageDocs = new ScoreDoc[all.length - from];
+            System.arraycopy(all, from, pageDocs, 0, pageDocs.length);
+
+            // Snippets are cut only for the docs on this page
+            String[] snippets = highlighter(searcher).highlight(FIELD_BODY, query,
+                    new TopDocs(topDocs.totalHits, pageDocs), SNIPPET_PASSAGES);
+
+            StoredFields storedFields = searcher.storedFields();
+            List<BlogSearchResultDTO.Hit> hits = new ArrayList<>();
+            for (int i = 0; i < pageDocs.length; i++) {
+                Document doc = storedFields.document(pageDocs[i].doc);
+                String publishedAt = doc.get(FIELD_PUBLISHED_AT);
+                hits.add(new BlogSearchResultDTO.Hit(
+                        doc.getField(FIELD_ID).numericValue().longValue(),
+                        doc.get(FIELD_TITLE),
+                        doc.get(FIELD_SUMMARY),
+                        snippets[i],
+                        doc.get(FIELD_IMAGE),
+                        doc.get(FIELD_AUTHOR),
+                        publishedAt != null ? LocalDateTime.parse(publishedAt) : null,
+                        pageDocs[i].score));
+            }
+            return new BlogSearchResultDTO(hits, topDocs.totalHits.value, pageNumber, pageSize);
+        } catch (IOException e) {
+            throw new RuntimeException("Blog search failed: " + e.getMessage(), e);
+        } finally {
+            if (searcher != null) {
+                try {
+                    searcherManager.release(searcher);
+                } catch (IOException e) {
+                    // Nothing useful to do; the searcher is closed on the next refresh
+                }
+            }
+        }
+    }
+
+    /**
+     * Plain text of an HTML fragment: scripts, styles, comments and tags removed, entities decoded.
+     */
+    static String stripHtml(String html) {
+        if (html == null || html.isEmpty()) {
+            return "";
+        }
+        String text = SCRIPT_OR_STYLE.matcher(html).replaceAll(" ");
+        text = COMMENT.matcher(text).replaceAll(" ");
+        text = TAG.matcher(text).replaceAll(" ");
+        text = HtmlUtils.htmlUnescape(text);
+        return WHITESPACE.matcher(text).replaceAll(" ").trim();
+    }
+
+    private UnifiedHighlighter highlighter(IndexSearcher searcher) {
+        return UnifiedHighlighter.builder(searcher, analyzer)
+                .withMaxLength(MAX_HIGHLIGHT_LENGTH)
+                .withFormatter(new DefaultPassageFormatter("<mark>", "</mark>", "... ", true))
+                .build();
+    }
+
+    private void apply(Long postId, Entry entry) {
+        AfterCommit.run(() -> {
+            try {
+                if (entry != null) {
+                    writer.updateDocument(idTerm(postId), toDocument(entry));
+                } else {
+                    writer.deleteDocuments(idTerm(postId));
+                }
+                searcherManager.maybeRefresh();
+            } catch (IOException e) {
+                System.err.println("Error updating blog search index for post " + postId + ": " + e.getMessage());
+            }
+        });
+    }
+
+    private Document toDocument(Entry entry) {
+        Document doc = new Document();
+        doc.add(new StringField(FIELD_ID, entry.id().toString(), Field.Store.NO));
+        doc.add(new StoredField(FIELD_ID, entry.id()));
+        doc.add(new TextField(FIELD_TITLE, entry.title() != null ? entry.title() : "", Field.Store.YES));
+        if (hasText(entry.summary())) {
+            doc.add(new TextField(FIELD_SUMMARY, entry.summary(), Field.Store.YES));
+        }
+        // Stored so the highlighter can cut snippets out of it
+        doc.add(new TextField(FIELD_BODY, entry.body(), Field.Store.YES));
+        if (hasText(entry.image())) {
+            doc.add(new StoredField(FIELD_IMAGE, entry.image()));
+        }
+        if (hasText(entry.authorName())) {
+            doc.add(new StoredField(FIELD_AUTHOR, entry.authorName()));
+        }
+        if (entry.publishedAt() != null) {
+            doc.add(new StoredField(FIELD_PUBLISHED_AT, entry.publishedAt().toString()));
+        }
+        return doc;
+    }
+
+    // Everything is read eagerly so the after-commit update never touches a lazy association
+    private Entry entryOf(BlogPost post) {
+        String image = post.getFeaturedImagePath();
+        if (hasText(image) && !image.startsWith("/uploads/")) {
+            image = "/uploads/" + image;
+        }
+        String authorName = post.getAuthor() != null ? post.getAuthor().getName() : null;
+        return new Entry(post.getId(), post.getTitle(), post.getSummary(), stripHtml(post.getContent()),
+                image, authorName, post.getPublishedAt());
+    }
+
+    private static Term idTerm(Long postId) {
+        return new Term(FIELD_ID, postId.toString());
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private record Entry(Long id, String title, String summary, String body, String image,
+                         String authorName, LocalDateTime publishedAt) {
+    }
+}
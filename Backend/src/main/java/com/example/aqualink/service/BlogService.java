@@ -2,7 +2,9 @@ package com.example.aqualink.service;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -19,6 +21,7 @@ import org.springframework.web.multipart.MultipartFile;
 import com.example.aqualink.dto.BlogCommentDto;
 import com.example.aqualink.dto.BlogPostDto;
 import com.example.aqualink.dto.BlogReactionDto;
+import com.example.aqualink.dto.BlogSearchResultDTO;
 import com.example.aqualink.dto.UserSummaryDto;
 import com.example.aqualink.entity.BlogComment;
 import com.example.aqualink.entity.BlogPost;
@@ -42,18 +45,24 @@ public class BlogService {
     private final BlogReactionRepository blogReactionRepository;
     private final UserRepository userRepository;
     private final FileStorageService fileStorageService;
+    private final BlogSearchIndex blogSearchIndex;
+    private final BlogReactionBuffer blogReactionBuffer;
 
     @Autowired
     public BlogService(BlogPostRepository blogPostRepository, 
                       BlogCommentRepository blogCommentRepository,
                       BlogReactionRepository blogReactionRepository,
                       UserRepository userRepository,
-                      FileStorageService fileStorageService) {
+                      FileStorageService fileStorageService,
+                      BlogSearchIndex blogSearchIndex,
+                      BlogReactionBuffer blogReactionBuffer) {
         this.blogPostRepository = blogPostRepository;
         this.blogCommentRepository = blogCommentRepository;
         this.blogReactionRepository = blogReactionRepository;
         this.userRepository = userRepository;
         this.fileStorageService = fileStorageService;
+        this.blogSearchIndex = blogSearchIndex;
+        this.blogReactionBuffer = blogReactionBuffer;
     }
 
     // Blog Post Methods
@@ -69,6 +78,10 @@ public class BlogService {
         return blogPostRepository.findByAuthorAndPublishedTrue(author, pageable);
     }
 
+    public BlogSearchResultDTO searchPublishedPosts(String query, int page, int size) {
+        return blogSearchIndex.search(query, page, size);
+    }
+
     public BlogPost getPostById(Long postId) {
         return blogPostRepository.findById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Blog post not found with id: " + postId));
@@ -77,7 +90,9 @@ public class BlogService {
     @Transactional
     public BlogPost createBlogPost(BlogPost blogPost, User author) {
         blogPost.setAuthor(author);
-        return blogPostRepository.save(blogPost);
+        BlogPost savedPost = blogPostRepository.save(blogPost);
+        blogSearchIndex.index(savedPost);
+        return savedPost;
     }
 
     @Transactional
@@ -106,7 +121,9 @@ public class BlogService {
             existingPost.setPublished(false);
         }
         
-        return blogPostRepository.save(existingPost);
+        BlogPost savedPost = blogPostRepository.save(existingPost);
+        blogSearchIndex.index(savedPost);
+        return savedPost;
     }
 
     @Transactional
@@ -129,6 +146,7 @@ public class BlogService {
         }
         
         blogPostRepository.delete(post);
+        blogSearchIndex.remove(postId);
     }
 
     // Blog Comment Methods
@@ -152,13 +170,21 @@ public class BlogService {
             comment.setApproved(true);
         }
         
-        return blogCommentRepository.save(comment);
+        BlogComment savedComment = blogCommentRepository.save(comment);
+        if (savedComment.isApproved()) {
+            blogPostRepository.adjustApprovedCommentCount(blogPost.getId(), 1);
+        }
+        return savedComment;
     }
 
     @Transactional
     public BlogComment approveComment(Long commentId) {
         BlogComment comment = blogCommentRepository.findById(commentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Comment not found with id: " + commentId));
+        // Conditional flip, so two concurrent approvals count the comment only once
+        if (blogCommentRepository.approveIfPending(commentId) == 1) {
+            blogPostRepository.adjustApprovedCommentCount(comment.getBlogPost().getId(), 1);
+        }
         comment.setApproved(true);
         return blogCommentRepository.save(comment);
     }
@@ -177,46 +203,47 @@ public class BlogService {
             throw new IllegalStateException("You are not authorized to delete this comment");
         }
         
-        blogCommentRepository.delete(comment);
+        deleteCommentAndCount(comment);
     }
 
     // Blog Reaction Methods
-    @Transactional
+    // Reactions go through the write-behind buffer; it folds bursts of toggles into batched writes
     public BlogReaction addOrUpdateReaction(BlogPost blogPost, User user, ReactionType type) {
-        Optional<BlogReaction> existingReaction = blogReactionRepository.findByBlogPostAndUser(blogPost, user);
-        
-        if (existingReaction.isPresent()) {
-            BlogReaction reaction = existingReaction.get();
-            
-            // If same type, remove the reaction
-            if (reaction.getType() == type) {
-                blogReactionRepository.delete(reaction);
-                return null;
-            } else {
-                // Change the reaction type
-                reaction.setType(type);
-                return blogReactionRepository.save(reaction);
-            }
-        } else {
-            // Create new reaction
-            BlogReaction reaction = new BlogReaction();
-            reaction.setBlogPost(blogPost);
-            reaction.setUser(user);
-            reaction.setType(type);
-            return blogReactionRepository.save(reaction);
+        BlogReactionBuffer.PendingReaction result = blogReactionBuffer.toggle(blogPost.getId(), user, type);
+        if (result.type() == null) {
+            return null;
+        }
+        BlogReaction reaction = new BlogReaction();
+        reaction.setBlogPost(blogPost);
+        reaction.setUser(user);
+        reaction.setType(result.type());
+        reaction.setCreatedAt(result.updatedAt());
+        reaction.setUpdatedAt(result.updatedAt());
+        return reaction;
+    }
+
+    private void deleteCommentAndCount(BlogComment comment) {
+        blogCommentRepository.delete(comment);
+        if (comment.isApproved()) {
+            blogPostRepository.adjustApprovedCommentCount(comment.getBlogPost().getId(), -1);
         }
     }
 
     public Optional<ReactionType> getUserReaction(BlogPost blogPost, User user) {
+        // A not-yet-flushed toggle wins over the stored row
+        Optional<BlogReactionBuffer.PendingReaction> pending = blogReactionBuffer.find(blogPost.getId(), user.getId());
+        if (pending.isPresent()) {
+            return Optional.ofNullable(pending.get().type());
+        }
         return blogReactionRepository.findReactionType(blogPost, user);
     }
 
     public long getLikesCount(BlogPost blogPost) {
-        return blogReactionRepository.countByBlogPostAndType(blogPost, ReactionType.LIKE);
+        return blogPost.getLikeCount();
     }
 
     public long getDislikesCount(BlogPost blogPost) {
-        return blogReactionRepository.countByBlogPostAndType(blogPost, ReactionType.DISLIKE);
+        return blogPost.getDislikeCount();
     }
     
     // DTO conversion methods
@@ -290,8 +317,8 @@ public class BlogService {
             dto.setAuthor(authorDto);
         }
         
-        // Set counts
-        dto.setCommentsCount(blogCommentRepository.countByBlogPostAndApprovedTrue(blogPost));
+        // Counts come from the denormalized counter columns, so a page costs no extra queries
+        dto.setCommentsCount(blogPost.getApprovedCommentCount());
         dto.setLikesCount(getLikesCount(blogPost));
         dto.setDislikesCount(getDislikesCount(blogPost));
         
@@ -366,6 +393,7 @@ public class BlogService {
         post.setPublished(true);
         post.setPublishedAt(LocalDateTime.now());
         BlogPost savedPost = blogPostRepository.save(post);
+        blogSearchIndex.index(savedPost);
         return convertToDto(savedPost);
     }
     
@@ -381,6 +409,7 @@ public class BlogService {
         post.setPublished(false);
         post.setPublishedAt(null);
         BlogPost savedPost = blogPostRepository.save(post);
+        blogSearchIndex.index(savedPost);
         return convertToDto(savedPost);
     }
     
@@ -393,6 +422,7 @@ public class BlogService {
                 .collect(Collectors.toList());
     }
     
+    @Transactional
     public BlogCommentDto addComment(Long blogId, BlogCommentDto commentDto, String username) {
         User user = getUserByUsername(username);
         BlogPost blogPost = getPostById(blogId);
@@ -416,6 +446,7 @@ public class BlogService {
         return convertCommentToDto(savedComment);
     }
     
+    @Transactional
     public void deleteComment(Long commentId, String username) {
         User user = getUserByUsername(username);
         BlogComment comment = blogCommentRepository.findById(commentId)
@@ -426,9 +457,10 @@ public class BlogService {
             throw new IllegalStateException("You are not authorized to delete this comment");
         }
         
-        blogCommentRepository.delete(comment);
+        deleteCommentAndCount(comment);
     }
     
+    @Transactional
     public BlogCommentDto approveComment(Long commentId, String username) {
         BlogComment comment = approveComment(commentId);
         return convertCommentToDto(comment);
@@ -438,14 +470,14 @@ public class BlogService {
         User user = getUserByUsername(username);
         BlogPost blogPost = getPostById(blogId);
         BlogReaction reaction = addOrUpdateReaction(blogPost, user, reactionType);
-        return convertReactionToDto(reaction);
+        // Toggling the current reaction off leaves nothing to return
+        return reaction != null ? convertReactionToDto(reaction) : null;
     }
     
     public void removeReaction(Long blogId, String username) {
         User user = getUserByUsername(username);
         BlogPost blogPost = getPostById(blogId);
-        Optional<BlogReaction> reaction = blogReactionRepository.findByBlogPostAndUser(blogPost, user);
-        reaction.ifPresent(blogReactionRepository::delete);
+        blogReactionBuffer.remove(blogPost.getId(), user);
     }
     
     public List<BlogReactionDto> getReactionsForBlog(Long blogId, ReactionType type, int page, int size) {
@@ -459,9 +491,23 @@ public class BlogService {
             reactions = blogReactionRepository.findByBlogPost(blogPost, pageable);
         }
         
-        return reactions.getContent().stream()
-                .map(this::convertReactionToDto)
-                .collect(Collectors.toList());
+        // Overlay not-yet-flushed toggles: their users' stored rows are stale, and on the first page
+        // the buffered reactions are shown in their place
+        Map<Long, BlogReactionBuffer.PendingReaction> pending = blogReactionBuffer.findForPost(blogId);
+        List<BlogReactionDto> result = new ArrayList<>();
+        if (page == 0) {
+            for (BlogReactionBuffer.PendingReaction entry : pending.values()) {
+                if (entry.type() != null && (type == null || entry.type() == type)) {
+                    result.add(convertPendingReactionToDto(entry));
+                }
+            }
+        }
+        for (BlogReaction reaction : reactions.getContent()) {
+            if (!pending.containsKey(reaction.getUser().getId())) {
+                result.add(convertReactionToDto(reaction));
+            }
+        }
+        return result;
     }
     
     private User getUserByUsername(String username) {
@@ -488,6 +534,21 @@ public class BlogService {
         return dto;
     }
     
+    private BlogReactionDto convertPendingReactionToDto(BlogReactionBuffer.PendingReaction entry) {
+        BlogReactionDto dto = new BlogReactionDto();
+        dto.setReactionType(entry.type().toString());
+        dto.setCreatedAt(entry.updatedAt());
+        dto.setBlogPostId(entry.postId());
+        
+        UserSummaryDto userDto = new UserSummaryDto();
+        userDto.setId(entry.userId());
+        userDto.setName(entry.userName());
+        userDto.setEmail(entry.userEmail());
+        dto.setUser(userDto);
+        
+        return dto;
+    }
+    
     private BlogReactionDto convertReactionToDto(BlogReaction reaction) {
         BlogReactionDto dto = new BlogReactionDto();
         dto.setId(reaction.getId());
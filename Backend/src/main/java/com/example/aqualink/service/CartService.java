@@ -1,12 +1,21 @@
 package com.example.aqualink.service;
 
+import com.example.aqualink.dto.CartSummary;
+import com.example.aqualink.dto.ProductSummary;
 import com.example.aqualink.entity.*;
 import com.example.aqualink.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -22,32 +31,26 @@ public class CartService {
     private UserRepository userRepository;
 
     @Autowired
-    private FishRepository fishRepository;
+    private ProductSummaryCache productSummaryCache;
 
     @Autowired
-    private IndustrialStuffRepository industrialStuffRepository;
+    private InventoryReservationLedger inventoryReservationLedger;
+
+    @Autowired
+    private CartSummaryCache cartSummaryCache;
 
     public Cart getCartByUserEmail(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        Optional<Cart> cartOpt = cartRepository.findByUser(user);
-        if (cartOpt.isPresent()) {
-            return cartOpt.get();
-        } else {
-            // Create new cart if doesn't exist
-            Cart newCart = new Cart();
-            newCart.setUser(user);
-            newCart.setTotalAmount(0.0);
-            return cartRepository.save(newCart);
+        Long userId = resolveUserId(email);
+        Cart cart = getOrCreateCart(userId);
+        if (revalidateLines(cart)) {
+            updateCartTotal(userId, cart);
         }
+        return cart;
     }
 
     public void addToCart(String email, Long productId, String productType, Integer quantity) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Cart cart = getCartByUserEmail(email);
+        Long userId = resolveUserId(email);
+        Cart cart = getOrCreateCart(userId);
         
         // Check if item already exists in cart
         Optional<CartItem> existingItem = cart.getCartItems().stream()
@@ -58,8 +61,8 @@ public class CartService {
         if (existingItem.isPresent()) {
             // Update quantity if item exists
             CartItem item = existingItem.get();
+            holdStock(cart, productId, productType, item.getQuantity() + quantity, item.getProductName());
             item.setQuantity(item.getQuantity() + quantity);
-            cartItemRepository.save(item);
         } else {
             // Create new cart item
             CartItem newItem = new CartItem();
@@ -69,103 +72,180 @@ public class CartService {
             newItem.setQuantity(quantity);
 
             // Get product details and set price
-            if ("fish".equalsIgnoreCase(productType)) {
-                Fish fish = fishRepository.findById(productId)
-                        .orElseThrow(() -> new RuntimeException("Fish product not found"));
-                newItem.setPrice(fish.getPrice());
-                newItem.setProductName(fish.getName());
-                
-                // Set seller information
-                User seller = fish.getUser();
-                newItem.setSellerId(seller.getId());
-                newItem.setSellerName(seller.getName());
-                
-                // Get business name from user profile
-                if (seller.getUserProfile() != null && seller.getUserProfile().getBusinessName() != null) {
-                    newItem.setBusinessName(seller.getUserProfile().getBusinessName());
-                } else {
-                    newItem.setBusinessName(seller.getName() + "'s Business");
-                }
-                
-            } else if ("industrial".equalsIgnoreCase(productType)) {
-                IndustrialStuff industrialStuff = industrialStuffRepository.findById(productId)
-                        .orElseThrow(() -> new RuntimeException("Industrial product not found"));
-                newItem.setPrice(industrialStuff.getPrice());
-                newItem.setProductName(industrialStuff.getName());
-                
-                // Set seller information
-                User seller = industrialStuff.getUser();
-                newItem.setSellerId(seller.getId());
-                newItem.setSellerName(seller.getName());
-                
-                // Get business name from user profile
-                if (seller.getUserProfile() != null && seller.getUserProfile().getBusinessName() != null) {
-                    newItem.setBusinessName(seller.getUserProfile().getBusinessName());
-                } else {
-                    newItem.setBusinessName(seller.getName() + "'s Business");
-                }
-            }
-
-            cartItemRepository.save(newItem);
+            InventoryReservationLedger.ProductKind kind = InventoryReservationLedger.ProductKind.of(productType);
+            ProductSummary product = productSummaryCache.find(kind, productId)
+                    .orElseThrow(() -> new RuntimeException(kind == InventoryReservationLedger.ProductKind.FISH
+                            ? "Fish product not found" : "Industrial product not found"));
+            copySummary(newItem, product);
+
+            holdStock(cart, productId, productType, quantity, newItem.getProductName());
+            cart.getCartItems().add(newItem);
         }
 
         // Update cart total
-        updateCartTotal(cart);
+        updateCartTotal(userId, cart);
     }
 
     public void updateCartItem(String email, Long cartItemId, Integer quantity) {
+        Long userId = resolveUserId(email);
         CartItem cartItem = cartItemRepository.findById(cartItemId)
                 .orElseThrow(() -> new RuntimeException("Cart item not found"));
-        
+        Cart cart = cartItem.getCart();
+
         // Verify ownership
-        if (!cartItem.getCart().getUser().getEmail().equals(email)) {
+        if (!cart.getUser().getId().equals(userId)) {
             throw new RuntimeException("Unauthorized access to cart item");
         }
 
         if (quantity <= 0) {
+            releaseStock(cartItem);
+            cart.getCartItems().remove(cartItem);
             cartItemRepository.delete(cartItem);
         } else {
+            holdStock(cart, cartItem.getProductId(), cartItem.getProductType(), quantity,
+                    cartItem.getProductName());
             cartItem.setQuantity(quantity);
-            cartItemRepository.save(cartItem);
         }
 
-        updateCartTotal(cartItem.getCart());
+        updateCartTotal(userId, cart);
     }
 
     public void removeFromCart(String email, Long cartItemId) {
+        Long userId = resolveUserId(email);
         CartItem cartItem = cartItemRepository.findById(cartItemId)
                 .orElseThrow(() -> new RuntimeException("Cart item not found"));
-        
+        Cart cart = cartItem.getCart();
+
         // Verify ownership
-        if (!cartItem.getCart().getUser().getEmail().equals(email)) {
+        if (!cart.getUser().getId().equals(userId)) {
             throw new RuntimeException("Unauthorized access to cart item");
         }
 
-        Cart cart = cartItem.getCart();
+        releaseStock(cartItem);
+        cart.getCartItems().remove(cartItem);
         cartItemRepository.delete(cartItem);
-        updateCartTotal(cart);
+        updateCartTotal(userId, cart);
     }
 
     public void clearCart(String email) {
-        Cart cart = getCartByUserEmail(email);
-        cartItemRepository.deleteAll(cart.getCartItems());
+        Long userId = resolveUserId(email);
+        Cart cart = getOrCreateCart(userId);
+        cart.getCartItems().forEach(this::releaseStock);
+        cartItemRepository.deleteAllInBatch(cart.getCartItems());
         cart.getCartItems().clear();
-        cart.setTotalAmount(0.0);
-        cartRepository.save(cart);
+        updateCartTotal(userId, cart);
     }
 
+    // Polled by the navbar badge: answered from the cache, without a transaction or a database connection
+    @Transactional(propagation = Propagation.SUPPORTS)
     public int getCartItemCount(String email) {
-        Cart cart = getCartByUserEmail(email);
-        return cart.getCartItems().stream()
-                .mapToInt(CartItem::getQuantity)
-                .sum();
+        Long userId = resolveUserId(email);
+        CartSummary summary = cartSummaryCache.find(userId).orElseGet(() -> {
+            long stamp = cartSummaryCache.stamp();
+            CartSummary loaded = cartRepository.findSummaryByUserId(userId)
+                    .orElse(new CartSummary(null, 0L, 0.0));
+            cartSummaryCache.put(userId, loaded, stamp);
+            return loaded;
+        });
+        return summary.getItemCount().intValue();
+    }
+
+    private Long resolveUserId(String email) {
+        // Emails do not change once registered, so the mapping never goes stale
+        return cartSummaryCache.findUserId(email).orElseGet(() -> {
+            Long userId = userRepository.findIdByEmail(email)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            cartSummaryCache.putUserId(email, userId);
+            return userId;
+        });
     }
 
-    private void updateCartTotal(Cart cart) {
+    private Cart getOrCreateCart(Long userId) {
+        Optional<Cart> cartOpt = cartRepository.findByUserId(userId);
+        if (cartOpt.isPresent()) {
+            return cartOpt.get();
+        } else {
+            // Create new cart if doesn't exist
+            Cart newCart = new Cart();
+            newCart.setUser(userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found")));
+            newCart.setTotalAmount(0.0);
+            return cartRepository.save(newCart);
+        }
+    }
+
+    /**
+     * Bring every line's price and seller details up to date with its product, looking the products up in
+     * one batch per product kind. Lines whose price moved keep the old price in previousPrice and are
+     * flagged priceChanged; lines whose product is gone are flagged unavailable. Returns true when a
+     * price changed.
+     */
+    private boolean revalidateLines(Cart cart) {
+        Map<InventoryReservationLedger.ProductKind, List<CartItem>> linesByKind = new EnumMap<>(
+                InventoryReservationLedger.ProductKind.class);
+        for (CartItem item : cart.getCartItems()) {
+            linesByKind.computeIfAbsent(InventoryReservationLedger.ProductKind.of(item.getProductType()),
+                    kind -> new ArrayList<>()).add(item);
+        }
+
+        boolean priceChanged = false;
+        for (Map.Entry<InventoryReservationLedger.ProductKind, List<CartItem>> group : linesByKind.entrySet()) {
+            Map<Long, ProductSummary> products = productSummaryCache.getAll(group.getKey(),
+                    group.getValue().stream().map(CartItem::getProductId).collect(Collectors.toList()));
+            for (CartItem item : group.getValue()) {
+                ProductSummary product = products.get(item.getProductId());
+                if (product == null) {
+                    item.setUnavailable(true);
+                    continue;
+                }
+                if (!Objects.equals(item.getPrice(), product.getPrice())) {
+                    item.setPreviousPrice(item.getPrice());
+                    item.setPriceChanged(true);
+                    priceChanged = true;
+                }
+                copySummary(item, product);
+            }
+        }
+        return priceChanged;
+    }
+
+    private static void copySummary(CartItem item, ProductSummary product) {
+        item.setPrice(product.getPrice());
+        item.setProductName(product.getName());
+
+        // Set seller information
+        item.setSellerId(product.getSellerId());
+        item.setSellerName(product.getSellerName());
+        if (product.getBusinessName() != null) {
+            item.setBusinessName(product.getBusinessName());
+        } else {
+            item.setBusinessName(product.getSellerName() + "'s Business");
+        }
+    }
+
+    // The managed cart is written once at commit, and the cached totals are dropped once after it
+    private void updateCartTotal(Long userId, Cart cart) {
         double total = cart.getCartItems().stream()
                 .mapToDouble(item -> item.getPrice() * item.getQuantity())
                 .sum();
         cart.setTotalAmount(total);
-        cartRepository.save(cart);
+        cartSummaryCache.evictAfterCompletion(userId);
+    }
+
+    // Cart lines hold their units for a while so other buyers cannot take them before checkout
+    private void holdStock(Cart cart, Long productId, String productType, int quantity, String productName) {
+        if (!inventoryReservationLedger.hold(holderOf(cart), InventoryReservationLedger.ProductKind.of(productType),
+                productId, quantity)) {
+            throw new RuntimeException("Not enough stock available for " + productName);
+        }
+    }
+
+    private void releaseStock(CartItem item) {
+        inventoryReservationLedger.release(holderOf(item.getCart()),
+                InventoryReservationLedger.ProductKind.of(item.getProductType()), item.getProductId());
+    }
+
+    static String holderOf(Cart cart) {
+        return "cart:" + cart.getCartId();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,129 @@
+package com.example.aqualink.service;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.aqualink.dto.CartSummary;
+
+/**
+ * In-process cache of each user's cart totals (cart id, units, amount) keyed by user ID, plus the
+ * email to user ID lookups the cart endpoints start from. The navbar badge polls the unit count, which is
+ * answered from here without touching the database.
+ *
+ * A cart change evicts the user's entry once its transaction has completed, and the next read reloads it
+ * from the committed rows. A read that loaded its totals before such an eviction does not store them: every
+ * eviction advances a stamp, and {@link #put} only keeps an entry when the stamp taken before loading is
+ * still current, so an older snapshot can never replace a newer one. Entries are local to this instance and
+ * are reloaded after {@code cart.cache.ttl-ms}, which bounds how long a change made through another
+ * instance can go unnoticed.
+ */
+@Component
+public class CartSummaryCache {
+
+    private final Map<Long, Entry> summaries = new ConcurrentHashMap<>();
+    private final Map<String, Long> userIds = new ConcurrentHashMap<>();
+    // Advanced by every eviction; one counter for all users keeps it bounded, at the cost of an occasional
+    // skipped put for a user whose cart did not change
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Value("${cart.cache.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${cart.cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    public Optional<CartSummary> find(Long userId) {
+        Entry entry = summaries.get(userId);
+        if (entry == null || entry.isExpired(System.currentTimeMillis(), ttlMs)) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.summary());
+    }
+
+    /**
+     * Take before loading a summary from the database, and pass to {@link #put} with the result.
+     */
+    public long stamp() {
+        return evictions.get();
+    }
+
+    /**
+     * Cache a summary loaded after {@code stamp} was taken, unless an eviction happened since.
+     */
+    public void put(Long userId, CartSummary summary, long stamp) {
+        // When full, callers simply keep reading from the database until the sweep makes room
+        if (evictions.get() != stamp || (summaries.size() >= maxEntries && !summaries.containsKey(userId))) {
+            return;
+        }
+        Entry entry = new Entry(summary, System.currentTimeMillis());
+        summaries.put(userId, entry);
+        // An eviction between the check and the put must still win
+        if (evictions.get() != stamp) {
+            summaries.remove(userId, entry);
+        }
+    }
+
+    public void evict(Long userId) {
+        evictions.incrementAndGet();
+        summaries.remove(userId);
+    }
+
+    public Optional<Long> findUserId(String email) {
+        return Optional.ofNullable(userIds.get(email));
+    }
+
+    public void putUserId(String email, Long userId) {
+        if (userIds.size() < maxEntries || userIds.containsKey(email)) {
+            userIds.put(email, userId);
+        }
+    }
+
+    /**
+     * Record that the user's cart changed in the current transaction. However often this is called, the
+     * entry is evicted once, when the transaction completes (committed or not).
+     */
+    public void evictAfterCompletion(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(userId);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<Long> changed = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (changed == null) {
+            Set<Long> users = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, users);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CartSummaryCache.this);
+                    users.forEach(CartSummaryCache.this::evict);
+                }
+            });
+            changed = users;
+        }
+        changed.add(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${cart.cache.sweep-interval-ms:60000}")
+    public void sweepExpired() {
+        long now = System.currentTimeMillis();
+        summaries.values().removeIf(entry -> entry.isExpired(now, ttlMs));
+    }
+
+    private record Entry(CartSummary summary, long loadedAt) {
+
+        boolean isExpired(long now, long ttlMs) {
+            return now - loadedAt >= ttlMs;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.aqualink.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.aqualink.entity.Cart;
+import com.example.aqualink.entity.CartItem;
+import com.example.aqualink.entity.Order;
+import com.example.aqualink.entity.OrderItem;
+import com.example.aqualink.entity.User;
+import com.example.aqualink.exception.ConflictException;
+import com.example.aqualink.repository.CartItemRepository;
+import com.example.aqualink.repository.CartRepository;
+import com.example.aqualink.repository.FishRepository;
+import com.example.aqualink.repository.IndustrialStuffRepository;
+import com.example.aqualink.repository.OrderRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Turns cart lines into an order in one unit of work: the stock of every line is taken, the order and its
+ * items are inserted and the lines leave the cart, or none of it happens.
+ *
+ * The number of statements does not depend on the number of lines: stock is taken with one JDBC batch per
+ * product kind, order items get pooled ids and are inserted in JDBC batches
+ * ({@code hibernate.jdbc.batch_size}), and the checked-out lines are deleted with a single statement.
+ */
+@Service
+@RequiredArgsConstructor
+public class CheckoutService {
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final OrderRepository orderRepository;
+    private final FishRepository fishRepository;
+    private final IndustrialStuffRepository industrialStuffRepository;
+    private final InventoryReservationLedger inventoryReservationLedger;
+    private final CartSummaryCache cartSummaryCache;
+    private final ListingSearchIndex listingSearchIndex;
+
+    /**
+     * Check out the given lines of the buyer's cart (all of them when {@code cartItemIds} is empty).
+     * {@code order} is a new order with its address and status filled in; buyer, date, items and total are
+     * set here. Throws {@link ConflictException} naming the products that are no longer available.
+     */
+    @Transactional
+    public Order checkout(User buyer, Collection<Long> cartItemIds, Order order) {
+        Cart cart = cartRepository.findByUserId(buyer.getId())
+                .orElseThrow(() -> new RuntimeException("Cart is empty"));
+
+        List<CartItem> lines = selectLines(cart, cartItemIds);
+        if (lines.isEmpty()) {
+            throw new RuntimeException("Cart is empty");
+        }
+
+        List<InventoryReservationLedger.StockLine> stockLines = lines.stream()
+                .map(line -> new InventoryReservationLedger.StockLine(
+                        InventoryReservationLedger.ProductKind.of(line.getProductType()),
+                        line.getProductId(), line.getQuantity()))
+                .collect(Collectors.toList());
+        List<InventoryReservationLedger.StockLine> unavailable =
+                inventoryReservationLedger.reserveInTransaction(CartService.holderOf(cart), stockLines);
+        if (!unavailable.isEmpty()) {
+            // Rolls back the lines that were taken as well
+            List<String> names = new ArrayList<>();
+            for (int i = 0; i < lines.size(); i++) {
+                if (unavailable.contains(stockLines.get(i))) {
+                    names.add(lines.get(i).getProductName());
+                }
+            }
+            throw new ConflictException("Not enough stock available for " + String.join(", ", names));
+        }
+
+        List<OrderItem> items = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (CartItem line : lines) {
+            OrderItem item = new OrderItem();
+            item.setOrder(order);
+            item.setListingId(line.getProductId());
+            item.setProductType(line.getProductType().toLowerCase());
+            item.setProductName(line.getProductName());
+            item.setSellerId(line.getSellerId());
+            item.setQuantity(line.getQuantity());
+            item.setPrice(BigDecimal.valueOf(line.getPrice()));
+            items.add(item);
+            total = total.add(item.getPrice().multiply(BigDecimal.valueOf(line.getQuantity())));
+        }
+
+        order.setBuyerUser(buyer);
+        order.setOrderDateTime(LocalDateTime.now());
+        order.setTotalAmount(total);
+        order.setOrderItems(items);
+        Order savedOrder = orderRepository.save(order);
+
+        cart.getCartItems().removeAll(lines);
+        cartItemRepository.deleteAllInBatch(lines);
+        cart.setTotalAmount(cart.getCartItems().stream()
+                .mapToDouble(line -> line.getPrice() * line.getQuantity())
+                .sum());
+        cartSummaryCache.evictAfterCompletion(buyer.getId());
+        reindexListings(stockLines);
+
+        return savedOrder;
+    }
+
+    // New stock figures, and sold-out listings leave search; ListingSearchIndex applies them after commit
+    private void reindexListings(List<InventoryReservationLedger.StockLine> stockLines) {
+        Set<Long> fishIds = new HashSet<>();
+        Set<Long> industrialIds = new HashSet<>();
+        for (InventoryReservationLedger.StockLine line : stockLines) {
+            if (line.kind() == InventoryReservationLedger.ProductKind.FISH) {
+                fishIds.add(line.productId());
+            } else {
+                industrialIds.add(line.productId());
+            }
+        }
+        if (!fishIds.isEmpty()) {
+            fishRepository.findByIdInWithProfile(fishIds).forEach(listingSearchIndex::indexFish);
+        }
+        if (!industrialIds.isEmpty()) {
+            industrialStuffRepository.findByIdInWithProfile(industrialIds).forEach(listingSearchIndex::indexIndustrial);
+        }
+    }
+
+    private static List<CartItem> selectLines(Cart cart, Collection<Long> cartItemIds) {
+        if (cartItemIds == null || cartItemIds.isEmpty()) {
+            return new ArrayList<>(cart.getCartItems());
+        }
+        Set<Long> wanted = new HashSet<>(cartItemIds);
+        List<CartItem> lines = cart.getCartItems().stream()
+                .filter(line -> wanted.contains(line.getCartItemId()))
+                .collect(Collectors.toList());
+        if (lines.size() != wanted.size()) {
+            throw new RuntimeException("Cart item not found");
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.aqualink.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.aqualink.entity.UploadBlob;
+import com.example.aqualink.repository.UploadBlobRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Content-addressed storage for uploaded files.
+ *
+ * An upload is hashed (SHA-256) while it is streamed to a temporary file and then stored once under
+ * {@code blobs/<hash[0:2]>/<hash[2:4]>/<hash><ext>} below {@code file.upload-dir}. Uploading the same bytes
+ * again only increments the reference count in upload_blobs and returns the existing path, and since a
+ * hash-named file never changes it can be served with an immutable Cache-Control. {@link #release} drops
+ * one reference and deletes the file together with its renditions once nothing points at it anymore.
+ *
+ * Reference counts are changed in their own short transactions so they do not hold row locks for the
+ * length of the caller's transaction; a caller that rolls back after storing leaks one reference, which
+ * keeps the file around rather than deleting it under someone else.
+ */
+@Service
+public class ContentAddressedStore {
+
+    public static final String BLOB_DIR = "blobs";
+
+    private static final Pattern BLOB_REFERENCE =
+            Pattern.compile("(?:^|/)" + BLOB_DIR + "/[0-9a-f]{2}/[0-9a-f]{2}/([0-9a-f]{64})(\\.[a-z0-9]{1,9})?$");
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("\\.[a-z0-9]{1,9}");
+    private static final long TRANSFER_CHUNK_BYTES = 1024 * 1024;
+
+    // Store and release of the same hash must not interleave between the refcount change and the file operation
+    private static final int LOCK_STRIPES = 64;
+
+    private final UploadBlobRepository uploadBlobRepository;
+    private final ImageDerivativeService imageDerivativeService;
+    private final TransactionTemplate transactionTemplate;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private final Counter storedCounter;
+    private final Counter deduplicatedCounter;
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    public ContentAddressedStore(UploadBlobRepository uploadBlobRepository,
+                                 ImageDerivativeService imageDerivativeService,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.uploadBlobRepository = uploadBlobRepository;
+        this.imageDerivativeService = imageDerivativeService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+
+        this.storedCounter = Counter.builder("uploads.blobs.stored")
+                .description("Uploads written to the content-addressed store as new files")
+                .register(meterRegistry);
+        this.deduplicatedCounter = Counter.builder("uploads.blobs.deduplicated")
+                .description("Uploads whose content was already stored and only gained a reference")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Store the uploaded file (or add a reference to identical content stored earlier).
+     */
+    public StoredBlob store(MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return store(in, extensionOf(file.getOriginalFilename()));
+        }
+    }
+
+    /**
+     * Store the content of the stream under the given extension (e.g. {@code ".jpg"}). The stream is not closed.
+     */
+    public StoredBlob store(InputStream content, String fileExtension) throws IOException {
+        String extension = extensionOf(fileExtension);
+        Path tempDir = uploadRoot().resolve(BLOB_DIR).resolve("tmp");
+        Files.createDirectories(tempDir);
+
+        Path temp = Files.createTempFile(tempDir, "upload-", ".part");
+        try {
+            MessageDigest digest = newDigest();
+            long size = 0;
+            // Straight from the multipart stream into the file channel, hashing the bytes on the way through
+            ReadableByteChannel source = Channels.newChannel(new DigestInputStream(content, digest));
+            try (FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                long transferred;
+                while ((transferred = target.transferFrom(source, size, TRANSFER_CHUNK_BYTES)) > 0) {
+                    size += transferred;
+                }
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            long storedSize = size;
+
+            synchronized (lockFor(hash)) {
+                String storedExtension;
+                try {
+                    storedExtension = transactionTemplate.execute(status -> addReference(hash, extension, storedSize, temp));
+                } catch (DataIntegrityViolationException e) {
+                    // Another instance inserted the same hash between our lookup and insert; it exists now
+                    storedExtension = transactionTemplate.execute(status -> addReference(hash, extension, storedSize, temp));
+                }
+                String relativePath = relativePathOf(hash, storedExtension);
+                return new StoredBlob(hash, relativePath, uploadRoot().resolve(relativePath));
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Drop one reference to a stored file, deleting it once unreferenced. Accepts any of the forms handed
+     * out by {@link StoredBlob} (URL, relative path or file system path). Returns false when the reference
+     * does not point into the store, so callers can fall back to deleting legacy uploads themselves.
+     */
+    public boolean release(String reference) {
+        Optional<BlobReference> parsed = parse(reference);
+        if (parsed.isEmpty()) {
+            return false;
+        }
+        String hash = parsed.get().hash();
+        Path path = uploadRoot().resolve(relativePathOf(hash, parsed.get().extension()));
+
+        synchronized (lockFor(hash)) {
+            Boolean unreferenced = transactionTemplate.execute(status ->
+                    uploadBlobRepository.decrementRefCount(hash) > 0 && uploadBlobRepository.deleteIfUnreferenced(hash) > 0);
+            if (Boolean.TRUE.equals(unreferenced)) {
+                try {
+                    Files.deleteIfExists(path);
+                    imageDerivativeService.deleteVariants(path);
+                } catch (IOException e) {
+                    System.err.println("Error deleting unreferenced upload " + path + ": " + e.getMessage());
+                }
+            }
+        }
+        return true;
+    }
+
+    public static boolean isBlobReference(String reference) {
+        return parse(reference).isPresent();
+    }
+
+    private String addReference(String hash, String extension, long size, Path temp) {
+        Optional<UploadBlob> existing = uploadBlobRepository.findById(hash);
+        String storedExtension;
+        if (existing.isPresent()) {
+            uploadBlobRepository.incrementRefCount(hash);
+            storedExtension = existing.get().getExtension();
+            deduplicatedCounter.increment();
+        } else {
+            UploadBlob blob = new UploadBlob();
+            blob.setHash(hash);
+            blob.setExtension(extension);
+            blob.setSizeBytes(size);
+            blob.setRefCount(1);
+            blob.setCreatedAt(LocalDateTime.now());
+            uploadBlobRepository.saveAndFlush(blob);
+            storedExtension = extension;
+            storedCounter.increment();
+        }
+
+        // Also covers a row whose file went missing; the move happens before commit so a failure rolls back
+        Path target = uploadRoot().resolve(relativePathOf(hash, storedExtension));
+        if (!Files.exists(target)) {
+            try {
+                Files.createDirectories(target.getParent());
+                moveIntoPlace(temp, target);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to store upload " + hash + ": " + e.getMessage(), e);
+            }
+        }
+        return storedExtension;
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private Path uploadRoot() {
+        return Paths.get(uploadDir).toAbsolutePath().normalize();
+    }
+
+    private Object lockFor(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static String relativePathOf(String hash, String extension) {
+        return BLOB_DIR + "/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + extension;
+    }
+
+    private static String extensionOf(String filename) {
+        if (filename == null || !filename.contains(".")) {
+            return "";
+        }
+        String extension = filename.substring(filename.lastIndexOf('.')).toLowerCase(Locale.ROOT);
+        return SAFE_EXTENSION.matcher(extension).matches() ? extension : "";
+    }
+
+    private static Optional<BlobReference> parse(String reference) {
+        if (reference == null || reference.isEmpty()) {
+            return Optional.empty();
+        }
+        Matcher matcher = BLOB_REFERENCE.matcher(reference.replace('\\', '/'));
+        if (!matcher.find()) {
+            return Optional.empty();
+        }
+        return Optional.of(new BlobReference(matcher.group(1), matcher.group(2) != null ? matcher.group(2) : ""));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * A stored upload. {@code relativePath} is relative to the upload directory ({@code blobs/ab/cd/<hash>.jpg}).
+     */
+    public record StoredBlob(String hash, String relativePath, Path path) {
+
+        public String url() {
+            return "/uploads/" + relativePath;
+        }
+    }
+
+    private record BlobReference(String hash, String extension) {
+    }
+}
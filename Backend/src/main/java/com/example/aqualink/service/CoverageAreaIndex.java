@@ -0,0 +1,132 @@
+package com.example.aqualink.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.aqualink.entity.DeliveryPersonAvailability;
+import com.example.aqualink.entity.DeliveryPersonCoverageArea;
+import com.example.aqualink.repository.DeliveryPersonAvailabilityRepository;
+import com.example.aqualink.repository.DeliveryPersonCoverageAreaRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * In-process inverted index from "District:Town" to the delivery persons covering it.
+ *
+ * Built from the database once at startup and then kept up to date incrementally by the
+ * coverage/availability update paths. Changes made inside a transaction are applied only
+ * after it commits, so the index never shows coverage that was rolled back.
+ */
+@Component
+@RequiredArgsConstructor
+public class CoverageAreaIndex {
+
+    private final DeliveryPersonCoverageAreaRepository coverageAreaRepository;
+    private final DeliveryPersonAvailabilityRepository availabilityRepository;
+
+    private final Map<String, Set<Long>> deliveryPersonsByTown = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> townsByDeliveryPerson = new ConcurrentHashMap<>();
+    private final Set<Long> unavailableDeliveryPersons = ConcurrentHashMap.newKeySet();
+
+    // Runs after CoverageAreaMigration so legacy coverage is already normalized
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(10)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        deliveryPersonsByTown.clear();
+        townsByDeliveryPerson.clear();
+        unavailableDeliveryPersons.clear();
+
+        for (DeliveryPersonCoverageArea area : coverageAreaRepository.findAll()) {
+            addTown(area.getDeliveryPersonUser().getId(), key(area.getDistrict(), area.getTown()));
+        }
+        for (DeliveryPersonAvailability availability : availabilityRepository.findAll()) {
+            if (Boolean.FALSE.equals(availability.getIsAvailable())) {
+                unavailableDeliveryPersons.add(availability.getDeliveryPersonUser().getId());
+            }
+        }
+
+        System.out.println("Coverage index built: " + deliveryPersonsByTown.size() + " town(s), "
+                + townsByDeliveryPerson.size() + " delivery person(s)");
+    }
+
+    /**
+     * Replace every covered town of a delivery person (applied after the current transaction commits).
+     */
+    public void replaceCoverage(Long deliveryPersonId, Collection<DeliveryPersonCoverageArea> areas) {
+        Set<String> keys = new HashSet<>();
+        for (DeliveryPersonCoverageArea area : areas) {
+            keys.add(key(area.getDistrict(), area.getTown()));
+        }
+        AfterCommit.run(() -> {
+            Set<String> previous = townsByDeliveryPerson.remove(deliveryPersonId);
+            if (previous != null) {
+                for (String town : previous) {
+                    removeFromTown(town, deliveryPersonId);
+                }
+            }
+            for (String town : keys) {
+                addTown(deliveryPersonId, town);
+            }
+        });
+    }
+
+    /**
+     * Record a delivery person's availability (applied after the current transaction commits).
+     */
+    public void setAvailable(Long deliveryPersonId, boolean available) {
+        AfterCommit.run(() -> {
+            if (available) {
+                unavailableDeliveryPersons.remove(deliveryPersonId);
+            } else {
+                unavailableDeliveryPersons.add(deliveryPersonId);
+            }
+        });
+    }
+
+    /**
+     * Available delivery persons covering the given town. Cost is O(matching delivery persons).
+     */
+    public List<Long> findAvailableDeliveryPersonIds(String district, String town) {
+        List<Long> result = new ArrayList<>();
+        if (district == null || town == null) {
+            return result;
+        }
+        Set<Long> covering = deliveryPersonsByTown.get(key(district, town));
+        if (covering != null) {
+            for (Long deliveryPersonId : covering) {
+                if (!unavailableDeliveryPersons.contains(deliveryPersonId)) {
+                    result.add(deliveryPersonId);
+                }
+            }
+        }
+        return result;
+    }
+
+    private void addTown(Long deliveryPersonId, String town) {
+        deliveryPersonsByTown.computeIfAbsent(town, k -> ConcurrentHashMap.newKeySet()).add(deliveryPersonId);
+        townsByDeliveryPerson.computeIfAbsent(deliveryPersonId, k -> ConcurrentHashMap.newKeySet()).add(town);
+    }
+
+    private void removeFromTown(String town, Long deliveryPersonId) {
+        deliveryPersonsByTown.computeIfPresent(town, (k, ids) -> {
+            ids.remove(deliveryPersonId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static String key(String district, String town) {
+        return district + ":" + town;
+    }
+}
@@ -3,10 +3,10 @@ package com.example.aqualink.service;
 import com.example.aqualink.dto.CoverageAreaManagementDTO;
 import com.example.aqualink.dto.UpdateCoverageAreaDTO;
 import com.example.aqualink.entity.DeliveryPersonAvailability;
-import com.example.aqualink.entity.DeliveryPersonCoverage;
+import com.example.aqualink.entity.DeliveryPersonCoverageArea;
 import com.example.aqualink.entity.User;
 import com.example.aqualink.repository.DeliveryPersonAvailabilityRepository;
-import com.example.aqualink.repository.DeliveryPersonCoverageRepository;
+import com.example.aqualink.repository.DeliveryPersonCoverageAreaRepository;
 import com.example.aqualink.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -22,8 +22,9 @@ import java.util.stream.Collectors;
 public class CoverageAreaManagementService {
 
     private final DeliveryPersonAvailabilityRepository availabilityRepository;
-    private final DeliveryPersonCoverageRepository coverageRepository;
+    private final DeliveryPersonCoverageAreaRepository coverageAreaRepository;
     private final UserRepository userRepository;
+    private final CoverageAreaIndex coverageAreaIndex;
 
     /**
      * Get coverage area and availability data for a delivery person
@@ -42,8 +43,8 @@ public class CoverageAreaManagementService {
                 availabilityRepository.findByDeliveryPersonUser(deliveryPerson);
 
             // Get coverage data (towns)
-            List<DeliveryPersonCoverage> coverageList = 
-                coverageRepository.findByDeliveryPersonUser(deliveryPerson);
+            List<DeliveryPersonCoverageArea> coverageList =
+                coverageAreaRepository.findByDeliveryPersonUserIdOrderByDistrictAscTownAsc(deliveryPerson.getId());
 
             if (availabilityOpt.isPresent() || !coverageList.isEmpty()) {
                 System.out.println("Found existing availability or coverage records");
@@ -90,33 +91,30 @@ public class CoverageAreaManagementService {
         availability.setLastUpdated(LocalDateTime.now());
         DeliveryPersonAvailability savedAvailability = availabilityRepository.save(availability);
         
-        // Handle coverage areas in separate entity
-        // First, delete existing coverage records for this user
-        List<DeliveryPersonCoverage> existingCoverage = coverageRepository.findByDeliveryPersonUser(deliveryPerson);
-        if (!existingCoverage.isEmpty()) {
-            coverageRepository.deleteAll(existingCoverage);
-        }
-        
-        // Create new coverage record with selected towns
+        // Replace coverage areas: one row per District/Town
+        coverageAreaRepository.deleteByDeliveryPersonUserId(deliveryPerson.getId());
+
+        List<DeliveryPersonCoverageArea> newCoverage = new ArrayList<>();
         if (updateDTO.getSelectedTowns() != null && !updateDTO.getSelectedTowns().isEmpty()) {
-            List<String> serviceTowns = new ArrayList<>();
+            Set<String> seen = new HashSet<>();
             for (Map.Entry<String, List<String>> entry : updateDTO.getSelectedTowns().entrySet()) {
                 String district = entry.getKey();
-                List<String> towns = entry.getValue();
-                for (String town : towns) {
-                    serviceTowns.add(district + ":" + town); // Store as "District:Town"
+                if (district == null || entry.getValue() == null) {
+                    continue;
+                }
+                for (String town : entry.getValue()) {
+                    if (town != null && seen.add(district + ":" + town)) {
+                        newCoverage.add(new DeliveryPersonCoverageArea(deliveryPerson, district, town));
+                    }
                 }
             }
-            
-            DeliveryPersonCoverage newCoverage = new DeliveryPersonCoverage();
-            newCoverage.setDeliveryPersonUser(deliveryPerson);
-            newCoverage.setTowns(serviceTowns);
-            coverageRepository.save(newCoverage);
+            coverageAreaRepository.saveAll(newCoverage);
         }
+        coverageAreaIndex.replaceCoverage(deliveryPerson.getId(), newCoverage);
+        coverageAreaIndex.setAvailable(deliveryPerson.getId(), Boolean.TRUE.equals(savedAvailability.getIsAvailable()));
 
         // Return updated data
-        List<DeliveryPersonCoverage> updatedCoverage = coverageRepository.findByDeliveryPersonUser(deliveryPerson);
-        return convertToDTO(savedAvailability, updatedCoverage);
+        return convertToDTO(savedAvailability, newCoverage);
     }
 
     /**
@@ -141,13 +139,15 @@ public class CoverageAreaManagementService {
         availability.setLastUpdated(LocalDateTime.now());
 
         DeliveryPersonAvailability savedAvailability = availabilityRepository.save(availability);
+        coverageAreaIndex.setAvailable(deliveryPerson.getId(), Boolean.TRUE.equals(savedAvailability.getIsAvailable()));
         
         // Get coverage data to return complete information
-        List<DeliveryPersonCoverage> coverageList = coverageRepository.findByDeliveryPersonUser(deliveryPerson);
+        List<DeliveryPersonCoverageArea> coverageList =
+            coverageAreaRepository.findByDeliveryPersonUserIdOrderByDistrictAscTownAsc(deliveryPerson.getId());
         return convertToDTO(savedAvailability, coverageList);
     }
 
-    private CoverageAreaManagementDTO convertToDTO(DeliveryPersonAvailability availability, List<DeliveryPersonCoverage> coverageList) {
+    private CoverageAreaManagementDTO convertToDTO(DeliveryPersonAvailability availability, List<DeliveryPersonCoverageArea> coverageList) {
         CoverageAreaManagementDTO dto = new CoverageAreaManagementDTO();
         
         // Set availability data
@@ -159,23 +159,13 @@ public class CoverageAreaManagementService {
             dto.setLastUpdated(LocalDateTime.now());
         }
         
-        // Set coverage towns from DeliveryPersonCoverage entities
+        // Set coverage towns from DeliveryPersonCoverageArea rows
         Map<String, List<String>> selectedTowns = new HashMap<>();
         Set<String> selectedDistricts = new HashSet<>();
         
-        for (DeliveryPersonCoverage coverage : coverageList) {
-            if (coverage.getTowns() != null) {
-                for (String serviceTown : coverage.getTowns()) {
-                    if (serviceTown.contains(":")) {
-                        String[] parts = serviceTown.split(":", 2);
-                        String district = parts[0];
-                        String town = parts[1];
-                        
-                        selectedDistricts.add(district);
-                        selectedTowns.computeIfAbsent(district, k -> new ArrayList<>()).add(town);
-                    }
-                }
-            }
+        for (DeliveryPersonCoverageArea area : coverageList) {
+            selectedDistricts.add(area.getDistrict());
+            selectedTowns.computeIfAbsent(area.getDistrict(), k -> new ArrayList<>()).add(area.getTown());
         }
         
         dto.setSelectedDistricts(new ArrayList<>(selectedDistricts));
@@ -0,0 +1,136 @@
+package com.example.aqualink.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.aqualink.entity.DeliveryQuote;
+import com.example.aqualink.entity.DeliveryQuoteRequest;
+import com.example.aqualink.repository.DeliveryQuoteRepository;
+import com.example.aqualink.repository.DeliveryQuoteRequestRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Periodically flips PENDING quotes past validUntil to EXPIRED and closes quote requests past their
+ * responding deadline.
+ *
+ * Each pass works in chunks of {@code delivery.expiry-sweep.batch-size} IDs, and every chunk is one
+ * bulk UPDATE in its own short transaction, so a large backlog never holds long row locks.
+ */
+@Component
+public class DeliveryExpirySweeper {
+
+    private final DeliveryQuoteRepository deliveryQuoteRepository;
+    private final DeliveryQuoteRequestRepository deliveryQuoteRequestRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Timer sweepTimer;
+    private final Counter expiredQuotesCounter;
+    private final Counter closedRequestsCounter;
+    private final DistributionSummary rowsPerRun;
+
+    @Value("${delivery.expiry-sweep.batch-size:500}")
+    private int batchSize;
+
+    public DeliveryExpirySweeper(DeliveryQuoteRepository deliveryQuoteRepository,
+                                 DeliveryQuoteRequestRepository deliveryQuoteRequestRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.deliveryQuoteRepository = deliveryQuoteRepository;
+        this.deliveryQuoteRequestRepository = deliveryQuoteRequestRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.sweepTimer = Timer.builder("delivery.expiry.sweep")
+                .description("Duration of one expiry sweep pass")
+                .register(meterRegistry);
+        this.expiredQuotesCounter = Counter.builder("delivery.expiry.rows")
+                .tag("type", "quote")
+                .description("Quotes moved from PENDING to EXPIRED")
+                .register(meterRegistry);
+        this.closedRequestsCounter = Counter.builder("delivery.expiry.rows")
+                .tag("type", "request")
+                .description("Quote requests closed after their deadline")
+                .register(meterRegistry);
+        this.rowsPerRun = DistributionSummary.builder("delivery.expiry.rows.per.run")
+                .description("Rows changed by one expiry sweep pass")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${delivery.expiry-sweep.interval-ms:60000}",
+               initialDelayString = "${delivery.expiry-sweep.interval-ms:60000}")
+    public void sweep() {
+        Timer.Sample sample = Timer.start();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int expiredQuotes = expirePendingQuotes(now);
+            int closedRequests = closePastDeadlineRequests(now);
+
+            expiredQuotesCounter.increment(expiredQuotes);
+            closedRequestsCounter.increment(closedRequests);
+            rowsPerRun.record(expiredQuotes + closedRequests);
+
+            if (expiredQuotes > 0 || closedRequests > 0) {
+                System.out.println("Expiry sweep: expired " + expiredQuotes + " quote(s), closed "
+                        + closedRequests + " request(s)");
+            }
+        } catch (Exception e) {
+            System.err.println("Error during expiry sweep: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            sample.stop(sweepTimer);
+        }
+    }
+
+    int expirePendingQuotes(LocalDateTime now) {
+        return sweepInChunks(
+                chunk -> deliveryQuoteRepository.findExpiredQuoteIds(now, DeliveryQuote.QuoteStatus.PENDING, chunk),
+                ids -> deliveryQuoteRepository.updateStatusForIds(ids,
+                        DeliveryQuote.QuoteStatus.PENDING, DeliveryQuote.QuoteStatus.EXPIRED));
+    }
+
+    int closePastDeadlineRequests(LocalDateTime now) {
+        LocalDateTime defaultCutoff = now.minusHours(DeliveryQuoteService.DEFAULT_REQUEST_EXPIRY_HOURS);
+        return sweepInChunks(
+                chunk -> deliveryQuoteRequestRepository.findPastDeadlineRequestIds(now, defaultCutoff,
+                        DeliveryQuoteRequest.RequestStatus.OPEN, chunk),
+                ids -> deliveryQuoteRequestRepository.updateStatusForIds(ids,
+                        DeliveryQuoteRequest.RequestStatus.CLOSED));
+    }
+
+    /**
+     * Select up to one chunk of IDs and update them in a single transaction, repeating until a chunk
+     * comes back short. Updated rows drop out of the selection, so the first page is always re-read.
+     */
+    private int sweepInChunks(Function<Pageable, List<Long>> selectChunk, Function<List<Long>, Integer> updateChunk) {
+        Pageable chunk = PageRequest.of(0, batchSize);
+        int total = 0;
+        while (true) {
+            ChunkResult result = transactionTemplate.execute(status -> {
+                List<Long> ids = selectChunk.apply(chunk);
+                return new ChunkResult(ids.size(), ids.isEmpty() ? 0 : updateChunk.apply(ids));
+            });
+            if (result == null) {
+                return total;
+            }
+            total += result.updated();
+            if (result.selected() < batchSize) {
+                return total;
+            }
+        }
+    }
+
+    private record ChunkResult(int selected, int updated) {
+    }
+}
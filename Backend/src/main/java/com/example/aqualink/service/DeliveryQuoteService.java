@@ -3,36 +3,36 @@ package com.example.aqualink.service;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.example.aqualink.dto.CreateQuoteForFrontendDTO;
 import com.example.aqualink.dto.DeliveryQuoteDTO;
 import com.example.aqualink.dto.DeliveryQuoteRequestDTO;
 import com.example.aqualink.dto.DeliveryQuoteRequestWithOrderDTO;
 import com.example.aqualink.dto.DeliveryQuoteWithOrderDTO;
+import com.example.aqualink.dto.DeliveryRequestFeedRow;
 import com.example.aqualink.dto.DeliveryRequestForFrontendDTO;
-import com.example.aqualink.entity.DeliveryPersonAvailability;
-import com.example.aqualink.entity.DeliveryPersonCoverage;
 import com.example.aqualink.entity.DeliveryQuote;
 import com.example.aqualink.entity.DeliveryQuoteRequest;
 import com.example.aqualink.entity.Order;
 import com.example.aqualink.entity.OrderItem;
 import com.example.aqualink.entity.User;
-import com.example.aqualink.entity.UserProfile;
-import com.example.aqualink.repository.DeliveryPersonAvailabilityRepository;
-import com.example.aqualink.repository.DeliveryPersonCoverageRepository;
+import com.example.aqualink.exception.ConflictException;
+import com.example.aqualink.exception.ForbiddenException;
 import com.example.aqualink.repository.DeliveryQuoteRepository;
 import com.example.aqualink.repository.DeliveryQuoteRequestRepository;
 import com.example.aqualink.repository.OrderRepository;
-import com.example.aqualink.repository.UserProfileRepository;
 import com.example.aqualink.repository.UserRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -57,15 +57,18 @@ import lombok.RequiredArgsConstructor;
 @Transactional  // All methods in this service are transactional
 public class DeliveryQuoteService {
 
+    // Quote requests without an explicit deadline stop accepting quotes after this long
+    static final long DEFAULT_REQUEST_EXPIRY_HOURS = 72;
+
     // ===== DEPENDENCY INJECTION =====
     // Repositories for database operations
     private final DeliveryQuoteRepository deliveryQuoteRepository;  // CRUD for DeliveryQuote entities
     private final DeliveryQuoteRequestRepository deliveryQuoteRequestRepository;  // CRUD for DeliveryQuoteRequest entities
     private final UserRepository userRepository;  // User management and lookups
     private final OrderRepository orderRepository;  // Order management and lookups
-    private final DeliveryPersonCoverageRepository coverageRepository;  // Delivery person coverage areas
-    private final DeliveryPersonAvailabilityRepository deliveryPersonAvailabilityRepository;  // Delivery person availability
-    private final UserProfileRepository userProfileRepository;  // User profile information
+    private final CoverageAreaIndex coverageAreaIndex;  // District:Town -> covering delivery persons
+    private final DeliveryRequestNotifier deliveryRequestNotifier;  // SSE push of new requests
+    private final CheckoutService checkoutService;  // Cart -> order, order items and stock
 
     /**
      * Update existing order with delivery address (called when submit button is clicked)
@@ -136,10 +139,7 @@ public class DeliveryQuoteService {
 
         // Create new order
         Order order = new Order();
-        order.setBuyerUser(customer);
         order.setOrderStatus(Order.OrderStatus.DELIVERY_PENDING);
-        order.setTotalAmount(BigDecimal.valueOf(requestDTO.getSubtotal()));
-        order.setOrderDateTime(LocalDateTime.now());
         
         // Set delivery address
         if (requestDTO.getDeliveryAddress() != null) {
@@ -151,9 +151,14 @@ public class DeliveryQuoteService {
                 + ", " + requestDTO.getDeliveryAddress().getDistrict());
         }
         
-        // Save order to database
-        Order savedOrder = orderRepository.save(order);
-        System.out.println("✓ Order saved to database with ID: " + savedOrder.getId());
+        // Order, order items, stock and cart change together; the total comes from the cart, not the client
+        List<Long> cartItemIds = requestDTO.getItems() == null ? List.of() : requestDTO.getItems().stream()
+                .map(DeliveryQuoteRequestWithOrderDTO.CartItemDTO::getCartItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        Order savedOrder = checkoutService.checkout(customer, cartItemIds, order);
+        System.out.println("✓ Order saved to database with ID: " + savedOrder.getId()
+                + " (" + savedOrder.getOrderItems().size() + " item(s))");
         
         // Create delivery quote request
         DeliveryQuoteRequest quoteRequest = new DeliveryQuoteRequest();
@@ -172,6 +177,8 @@ public class DeliveryQuoteService {
         System.out.println("✓ DeliveryQuoteRequest saved to database with ID: " + savedRequest.getId());
         System.out.println("✓ DeliveryQuoteRequest.orderId: " + savedRequest.getOrderId());
         
+        notifyMatchingDeliveryPersons(savedOrder, savedRequest, customer);
+        
         DeliveryQuoteRequestDTO dto = convertToDeliveryQuoteRequestDTO(savedRequest, customer);
         System.out.println("✓ DTO created - orderId: " + dto.getOrderId() + ", sessionId: " + dto.getSessionId());
         System.out.println("=== createQuoteRequestAndOrder END ===");
@@ -179,6 +186,43 @@ public class DeliveryQuoteService {
         return dto;
     }
 
+    /**
+     * Push a newly created request to the delivery persons covering its District:Town, once the
+     * order and request are committed. Recipients come from the in-memory coverage index.
+     */
+    private void notifyMatchingDeliveryPersons(Order order, DeliveryQuoteRequest request, User customer) {
+        DeliveryRequestFeedRow row = new DeliveryRequestFeedRow(
+                order.getId(), request.getId(), request.getCreateTime(), request.getLastRespondingDateTime(),
+                order.getOrderDateTime(), order.getAddressPlace(), order.getAddressStreet(),
+                order.getAddressDistrict(), order.getAddressTown(),
+                customer.getName(), customer.getPhoneNumber(), order.getTotalAmount(), 0L);
+        DeliveryRequestForFrontendDTO payload = convertFeedRowToDeliveryRequestDTO(row);
+        String district = order.getAddressDistrict();
+        String town = order.getAddressTown();
+
+        AfterCommit.run(() -> {
+            List<Long> deliveryPersonIds = coverageAreaIndex.findAvailableDeliveryPersonIds(district, town);
+            deliveryRequestNotifier.publish(deliveryPersonIds, payload);
+        });
+    }
+
+    /**
+     * Issue a short-lived ticket the delivery person's browser uses to open the request stream
+     */
+    @Transactional(readOnly = true)
+    public String issueRequestStreamTicket(String deliveryPersonEmail) {
+        User deliveryPerson = userRepository.findByEmail(deliveryPersonEmail)
+                .orElseThrow(() -> new RuntimeException("Delivery person not found"));
+        return deliveryRequestNotifier.issueTicket(deliveryPerson.getId());
+    }
+
+    /**
+     * Open a server-sent-events stream of new delivery requests for the holder of a stream ticket
+     */
+    public SseEmitter subscribeToNewRequests(String ticket) {
+        return deliveryRequestNotifier.subscribe(ticket);
+    }
+
     /**
      * Get available quote requests for delivery persons
      */
@@ -191,208 +235,73 @@ public class DeliveryQuoteService {
     }
 
     /**
-     * Get available delivery requests for a specific delivery person (using Orders table)
+     * Get available delivery requests for a specific delivery person, one page at a time, or all of them
+     * when neither page nor size is given (what clients written before paging expect).
+     *
+     * Expiry, District:Town coverage, availability and "already quoted" filtering all happen in a single
+     * query (see OrderRepository.findDeliveryFeedForDeliveryPerson), so the number of statements per call
+     * stays constant however many orders are waiting for delivery.
      */
-    public List<DeliveryRequestForFrontendDTO> getAvailableQuoteRequestsForDeliveryPerson(String deliveryPersonEmail) {
-        System.out.println("Fetching orders for delivery person: " + deliveryPersonEmail);
+    @Transactional(readOnly = true)
+    public Page<DeliveryRequestForFrontendDTO> getAvailableQuoteRequestsForDeliveryPerson(String deliveryPersonEmail,
+                                                                                        Integer page, Integer size) {
+        User deliveryPerson = userRepository.findByEmail(deliveryPersonEmail)
+                .orElseThrow(() -> new RuntimeException("Delivery person not found"));
 
-        // Get all orders with DELIVERY_PENDING status (waiting for delivery quotes)
-        List<Order> pendingOrders = orderRepository.findByOrderStatus(Order.OrderStatus.DELIVERY_PENDING);
-        
-        System.out.println("Found " + pendingOrders.size() + " orders with DELIVERY_PENDING status");
+        Pageable pageable = page == null && size == null
+                ? Pageable.unpaged()
+                : PageRequest.of(page != null ? Math.max(page, 0) : 0,
+                        KeysetCursor.clampSize(size != null ? size : KeysetCursor.DEFAULT_PAGE_SIZE));
 
-        // Convert orders to DeliveryRequestForFrontendDTO
-        return pendingOrders.stream()
-                .map(this::convertOrderToDeliveryRequestDTO)
-                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        Page<DeliveryRequestFeedRow> rows = orderRepository.findDeliveryFeedForDeliveryPerson(
+                deliveryPerson.getId(),
+                now,
+                now.minusHours(DEFAULT_REQUEST_EXPIRY_HOURS),
+                pageable);
+
+        return rows.map(this::convertFeedRowToDeliveryRequestDTO);
     }
-    
+
     /**
-     * Convert Order to DeliveryRequestForFrontendDTO
+     * Convert a delivery feed row to DeliveryRequestForFrontendDTO
      */
-    private DeliveryRequestForFrontendDTO convertOrderToDeliveryRequestDTO(Order order) {
+    private DeliveryRequestForFrontendDTO convertFeedRowToDeliveryRequestDTO(DeliveryRequestFeedRow row) {
         DeliveryRequestForFrontendDTO dto = new DeliveryRequestForFrontendDTO();
-        
-        // Find associated quote request
-        List<DeliveryQuoteRequest> requests = deliveryQuoteRequestRepository.findByOrderId(order.getId());
-        DeliveryQuoteRequest quoteRequest = requests.isEmpty() ? null : requests.get(0);
-        
-        dto.setRequestId(order.getId());
-        dto.setOrderId(order.getId());
-        dto.setCreateTime(order.getOrderDateTime());
-        dto.setSessionId(quoteRequest != null ? "ORDER-" + order.getId() + "-REQ-" + quoteRequest.getId() : "ORDER-" + order.getId());
-        
-        // Set deadline from quote request if exists
-        if (quoteRequest != null) {
-            dto.setDeadline(quoteRequest.getLastRespondingDateTime());
-        }
-        
-        // Set delivery address from order
+
+        // requestId carries the order ID - the frontend sends it back to createQuoteFromFrontend
+        dto.setRequestId(row.getOrderId());
+        dto.setOrderId(row.getOrderId());
+        dto.setCreateTime(row.getOrderDateTime());
+        dto.setSessionId(row.getQuoteRequestId() != null
+                ? "ORDER-" + row.getOrderId() + "-REQ-" + row.getQuoteRequestId()
+                : "ORDER-" + row.getOrderId());
+        dto.setDeadline(row.getLastRespondingDateTime());
+
         String deliveryAddress = String.format("%s, %s, %s, %s",
-                order.getAddressPlace() != null ? order.getAddressPlace() : "",
-                order.getAddressStreet() != null ? order.getAddressStreet() : "",
-                order.getAddressDistrict() != null ? order.getAddressDistrict() : "",
-                order.getAddressTown() != null ? order.getAddressTown() : "")
+                row.getAddressPlace() != null ? row.getAddressPlace() : "",
+                row.getAddressStreet() != null ? row.getAddressStreet() : "",
+                row.getAddressDistrict() != null ? row.getAddressDistrict() : "",
+                row.getAddressTown() != null ? row.getAddressTown() : "")
                 .replaceAll(", ,", ",").replaceAll("^,|,$", "");
-        
+
         dto.setDeliveryAddress(deliveryAddress);
-        dto.setDistrict(order.getAddressDistrict());
-        dto.setTown(order.getAddressTown());
+        dto.setDistrict(row.getAddressDistrict());
+        dto.setTown(row.getAddressTown());
         dto.setPickupAddress("Shop/Seller Location"); // TODO: Get from seller profile
-        
-        // Set customer info
-        User customer = order.getBuyerUser();
-        dto.setCustomerName(customer != null ? customer.getName() : "Unknown Customer");
-        dto.setCustomerPhone(customer != null ? customer.getPhoneNumber() : "N/A");
-        
-        // Set order details
-        double totalAmount = order.getTotalAmount() != null ? order.getTotalAmount().doubleValue() : 0.0;
-        int totalItems = 0;
-        
-        try {
-            if (order.getOrderItems() != null && !order.getOrderItems().isEmpty()) {
-                totalItems = order.getOrderItems().size();
-            }
-        } catch (Exception e) {
-            System.out.println("Warning: Could not load order items: " + e.getMessage());
-        }
-        
-        dto.setTotalAmount(totalAmount);
-        dto.setTotalItems(totalItems);
-        dto.setOrderDetails(String.format("Order #%d - %d items, Total: Rs.%.2f", 
-            order.getId(), totalItems, totalAmount));
-        
-        return dto;
-    }
-    
-    /**
-     * Old method - keeping for reference but using orders directly now
-     */
-    private List<DeliveryRequestForFrontendDTO> getAvailableQuoteRequestsForDeliveryPersonOld(String deliveryPersonEmail) {
-        User deliveryPerson = userRepository.findByEmail(deliveryPersonEmail)
-                .orElseThrow(() -> new RuntimeException("Delivery person not found"));
 
-        // Check if delivery person is currently available
-        Optional<DeliveryPersonAvailability> availabilityOpt = 
-                deliveryPersonAvailabilityRepository.findByDeliveryPersonUser(deliveryPerson);
-        
-        if (availabilityOpt.isPresent() && !availabilityOpt.get().getIsAvailable()) {
-            System.out.println("Delivery person is not available, returning empty list");
-            return new ArrayList<>();
-        }
+        dto.setCustomerName(row.getCustomerName() != null ? row.getCustomerName() : "Unknown Customer");
+        dto.setCustomerPhone(row.getCustomerPhone() != null ? row.getCustomerPhone() : "N/A");
 
-        // Get delivery person's coverage areas
-        List<DeliveryPersonCoverage> coverageAreas = coverageRepository.findByDeliveryPersonUser(deliveryPerson);
-        
-        if (coverageAreas.isEmpty()) {
-            System.out.println("Delivery person has no coverage areas configured, returning empty list");
-            return new ArrayList<>();
-        }
-        
-        // Extract all covered districts and towns from "District:Town" format
-        Set<String> coveredDistrictTownPairs = new HashSet<>();
-        Set<String> coveredDistricts = new HashSet<>();
-        Set<String> coveredTowns = new HashSet<>();
-        
-        for (DeliveryPersonCoverage coverage : coverageAreas) {
-            List<String> towns = coverage.getTowns();
-            for (String districtTown : towns) {
-                coveredDistrictTownPairs.add(districtTown);
-                if (districtTown.contains(":")) {
-                    String[] parts = districtTown.split(":");
-                    if (parts.length == 2) {
-                        coveredDistricts.add(parts[0]);
-                        coveredTowns.add(parts[1]);
-                    }
-                }
-            }
-        }
+        double totalAmount = row.getTotalAmount() != null ? row.getTotalAmount().doubleValue() : 0.0;
+        int totalItems = row.getTotalItems() != null ? row.getTotalItems().intValue() : 0;
 
-        System.out.println("Delivery person coverage - District:Town pairs: " + coveredDistrictTownPairs);
+        dto.setTotalAmount(totalAmount);
+        dto.setTotalItems(totalItems);
+        dto.setOrderDetails(String.format("Order #%d - %d items, Total: Rs.%.2f",
+            row.getOrderId(), totalItems, totalAmount));
 
-        // Get all quote requests
-        List<DeliveryQuoteRequest> allRequests = deliveryQuoteRequestRepository.findAll();
-        LocalDateTime now = LocalDateTime.now();
-        
-        return allRequests.stream()
-                .filter(request -> {
-                    // Filter by expiration time - check if quotes are still accepting
-                    // First check explicit expiry time if set
-                    if (request.getLastRespondingDateTime() != null && 
-                        request.getLastRespondingDateTime().isBefore(now)) {
-                        System.out.println("Request " + request.getId() + " expired at " + request.getLastRespondingDateTime());
-                        return false;
-                    }
-                    
-                    // Also check if request has been created too long ago (default 72 hours if no explicit expiry)
-                    if (request.getLastRespondingDateTime() == null) {
-                        LocalDateTime defaultExpiry = request.getCreateTime().plusHours(72); // Default 72 hours
-                        if (defaultExpiry.isBefore(now)) {
-                            System.out.println("Request " + request.getId() + " expired by default timeout (72 hours)");
-                            return false;
-                        }
-                    }
-                    
-                    // Get the associated order
-                    Order order = orderRepository.findById(request.getOrderId()).orElse(null);
-                    if (order == null) {
-                        System.out.println("Order not found for request " + request.getId());
-                        return false;
-                    }
-                    
-                    // Filter by delivery address coverage (customer delivery location)
-                    String orderDistrict = order.getAddressDistrict();
-                    String orderTown = order.getAddressTown();
-                    
-                    if (orderDistrict == null || orderTown == null || 
-                        orderDistrict.isEmpty() || orderTown.isEmpty()) {
-                        System.out.println("Order " + order.getId() + " missing delivery address information");
-                        return false;
-                    }
-                    
-                    String deliveryDistrictTownPair = orderDistrict + ":" + orderTown;
-                    if (!coveredDistrictTownPairs.contains(deliveryDistrictTownPair)) {
-                        System.out.println("Order " + order.getId() + " delivery address (" + 
-                                         deliveryDistrictTownPair + ") not in coverage area");
-                        return false;
-                    }
-                    
-                    // Filter by seller location coverage (pickup location)
-                    User orderCustomer = order.getBuyerUser();
-                    if (orderCustomer != null) {
-                        // Try to get seller location from customer's profile
-                        Optional<UserProfile> customerProfile = userProfileRepository.findByUserId(orderCustomer.getId());
-                        if (customerProfile.isPresent()) {
-                            UserProfile profile = customerProfile.get();
-                            String sellerDistrict = profile.getAddressDistrict();
-                            String sellerTown = profile.getAddressTown();
-                            
-                            // If seller location is available, check if it's in coverage area
-                            if (sellerDistrict != null && sellerTown != null && 
-                                !sellerDistrict.isEmpty() && !sellerTown.isEmpty()) {
-                                
-                                String sellerDistrictTownPair = sellerDistrict + ":" + sellerTown;
-                                if (!coveredDistrictTownPairs.contains(sellerDistrictTownPair)) {
-                                    System.out.println("Order " + order.getId() + " seller location (" + 
-                                                     sellerDistrictTownPair + ") not in coverage area");
-                                    return false;
-                                }
-                            }
-                        }
-                    }
-                    
-                    return true;
-                })
-                .filter(request -> {
-                    // Filter out requests where this delivery person already submitted a quote
-                    boolean hasQuoted = deliveryQuoteRepository.existsByQuoteRequestAndDeliveryPerson(request, deliveryPerson);
-                    if (hasQuoted) {
-                        System.out.println("Delivery person already quoted for request " + request.getId());
-                    }
-                    return !hasQuoted;
-                })
-                .map(this::convertToDeliveryRequestForFrontendDTO)
-                .collect(Collectors.toList());
+        return dto;
     }
 
     /**
@@ -425,6 +334,10 @@ public class DeliveryQuoteService {
             System.out.println("Using existing delivery quote request with ID: " + request.getId());
         }
 
+        if (request.getStatus() == DeliveryQuoteRequest.RequestStatus.CLOSED) {
+            throw new RuntimeException("This delivery request is no longer accepting quotes");
+        }
+
         // Check if delivery person already submitted a quote for this request
         if (deliveryQuoteRepository.existsByQuoteRequestAndDeliveryPerson(request, deliveryPerson)) {
             throw new RuntimeException("You have already submitted a quote for this request");
@@ -527,43 +440,58 @@ public class DeliveryQuoteService {
     }
 
     /**
-     * Accept a delivery quote and update order
+     * Accept a delivery quote and update order.
+     *
+     * Runs as one transaction with a fixed number of statements: a version-checked update of the order,
+     * a conditional update of the quote (only while PENDING), and one bulk reject of the competing quotes.
+     * When two accepts race for the same order, one wins and the other gets a ConflictException (HTTP 409).
      */
     public DeliveryQuoteDTO acceptQuote(Long quoteId, String customerEmail) {
         DeliveryQuote quote = deliveryQuoteRepository.findById(quoteId)
                 .orElseThrow(() -> new RuntimeException("Quote not found"));
 
         if (quote.getStatus() != DeliveryQuote.QuoteStatus.PENDING) {
-            throw new RuntimeException("Quote is no longer available");
+            throw new ConflictException("Quote is no longer available");
         }
 
-        if (quote.getValidUntil().isBefore(LocalDateTime.now())) {
+        LocalDateTime now = LocalDateTime.now();
+        if (quote.getValidUntil().isBefore(now)) {
             throw new RuntimeException("Quote has expired");
         }
 
-        quote.setStatus(DeliveryQuote.QuoteStatus.ACCEPTED);
-        quote.setAcceptedAt(LocalDateTime.now());
-
-        // Update order with accepted quote information
+        Long quoteRequestId = quote.getQuoteRequest().getId();
         Order order = orderRepository.findById(quote.getQuoteRequest().getOrderId())
                 .orElseThrow(() -> new RuntimeException("Order not found"));
-        
-        order.setAcceptedDeliveryQuoteId(quote.getId());
+
+        if (!order.getBuyerUser().getEmail().equals(customerEmail)) {
+            throw new ForbiddenException("Order does not belong to this customer");
+        }
+        if (order.getAcceptedDeliveryQuoteId() != null
+                || order.getOrderStatus() != Order.OrderStatus.DELIVERY_PENDING) {
+            throw new ConflictException("A delivery quote has already been accepted for this order");
+        }
+
+        // Claim the order first: a concurrent accept for the same order fails its version check here
+        order.setAcceptedDeliveryQuoteId(quoteId);
         order.setOrderStatus(Order.OrderStatus.ORDER_PENDING);
-        orderRepository.save(order);
+        try {
+            orderRepository.saveAndFlush(order);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ConflictException("A delivery quote has already been accepted for this order");
+        }
 
-        // Reject all other quotes for the same request
-        List<DeliveryQuote> otherQuotes = deliveryQuoteRepository.findByQuoteRequestAndStatus(
-                quote.getQuoteRequest(), DeliveryQuote.QuoteStatus.PENDING);
-        
-        for (DeliveryQuote otherQuote : otherQuotes) {
-            if (!otherQuote.getId().equals(quoteId)) {
-                otherQuote.setStatus(DeliveryQuote.QuoteStatus.REJECTED);
-                deliveryQuoteRepository.save(otherQuote);
-            }
+        int accepted = deliveryQuoteRepository.acceptIfPending(quoteId, now,
+                DeliveryQuote.QuoteStatus.PENDING, DeliveryQuote.QuoteStatus.ACCEPTED);
+        if (accepted == 0) {
+            // Expired or withdrawn in the meantime; rolls back the order update as well
+            throw new ConflictException("Quote is no longer available");
         }
 
-        DeliveryQuote savedQuote = deliveryQuoteRepository.save(quote);
+        deliveryQuoteRepository.rejectOtherPendingQuotes(quoteRequestId, quoteId,
+                DeliveryQuote.QuoteStatus.PENDING, DeliveryQuote.QuoteStatus.REJECTED);
+
+        DeliveryQuote savedQuote = deliveryQuoteRepository.findById(quoteId)
+                .orElseThrow(() -> new RuntimeException("Quote not found"));
         return convertToDeliveryQuoteDTO(savedQuote);
     }
 
@@ -649,6 +577,8 @@ public class DeliveryQuoteService {
                                 User seller = firstItem.getProduct().getUser();
                                 dto.setSellerId(seller.getId().toString());
                                 dto.setBusinessName(seller.getName()); // User has 'name' field, not firstName/lastName
+                            } else if (firstItem.getSellerId() != null) {
+                                dto.setSellerId(firstItem.getSellerId().toString());
                             }
                         }
                     } catch (Exception e) {
@@ -669,7 +599,9 @@ public class DeliveryQuoteService {
                                             new DeliveryQuoteRequestWithOrderDTO.CartItemDTO();
                                         itemDto.setQuantity(item.getQuantity());
                                         itemDto.setPrice(item.getPrice() != null ? item.getPrice().doubleValue() : 0.0);
-                                        itemDto.setProductName(item.getProduct() != null ? item.getProduct().getName() : "Unknown Product");
+                                        itemDto.setProductName(item.getProduct() != null ? item.getProduct().getName()
+                                                : item.getProductName() != null ? item.getProductName() : "Unknown Product");
+                                        itemDto.setProductType(item.getProductType());
                                         return itemDto;
                                     })
                                     .collect(Collectors.toList());
@@ -0,0 +1,179 @@
+package com.example.aqualink.service;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.aqualink.dto.DeliveryRequestForFrontendDTO;
+import com.example.aqualink.exception.TooManyRequestsException;
+import com.example.aqualink.exception.UnauthorizedException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Server-sent-events fan-out of new delivery requests to the delivery persons who cover them.
+ * Publishing touches only the emitters of the matching delivery persons.
+ *
+ * Browsers open the stream with EventSource, which cannot send an Authorization header, so a client first
+ * exchanges its JWT for a short-lived, single-use ticket ({@link #issueTicket}) and passes that in the URL.
+ * Events and the periodic keep-alive comments are written on a dedicated dispatch thread, never on the
+ * thread of the request that committed the order.
+ */
+@Component
+public class DeliveryRequestNotifier {
+
+    public static final String NEW_REQUEST_EVENT = "delivery-request";
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Value("${delivery.notifications.sse-timeout-ms:1800000}")
+    private long emitterTimeoutMillis;
+
+    @Value("${delivery.notifications.ticket-ttl-ms:60000}")
+    private long ticketTtlMillis;
+
+    @Value("${delivery.notifications.max-tickets:10000}")
+    private int maxTickets;
+
+    @Value("${delivery.notifications.dispatch-queue-size:1000}")
+    private int dispatchQueueSize;
+
+    private final Map<Long, Set<SseEmitter>> emittersByDeliveryPerson = new ConcurrentHashMap<>();
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor dispatcher;
+
+    @PostConstruct
+    void init() {
+        dispatcher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(dispatchQueueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "sse-dispatch");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+    }
+
+    /**
+     * A single-use ticket that opens one stream for the delivery person within
+     * {@code delivery.notifications.ticket-ttl-ms}.
+     */
+    public String issueTicket(Long deliveryPersonId) {
+        if (tickets.size() >= maxTickets) {
+            sweepExpiredTickets();
+            if (tickets.size() >= maxTickets) {
+                throw new TooManyRequestsException("Too many pending stream requests. Please try again in a moment.");
+            }
+        }
+        byte[] bytes = new byte[24];
+        RANDOM.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        tickets.put(ticket, new Ticket(deliveryPersonId, System.currentTimeMillis() + ticketTtlMillis));
+        return ticket;
+    }
+
+    public SseEmitter subscribe(String ticket) {
+        Ticket redeemed = ticket != null ? tickets.remove(ticket) : null;
+        if (redeemed == null || redeemed.expiresAt() <= System.currentTimeMillis()) {
+            throw new UnauthorizedException("Stream ticket is invalid or has expired");
+        }
+        Long deliveryPersonId = redeemed.deliveryPersonId();
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        emittersByDeliveryPerson.computeIfAbsent(deliveryPersonId, k -> ConcurrentHashMap.newKeySet()).add(emitter);
+
+        emitter.onCompletion(() -> remove(deliveryPersonId, emitter));
+        emitter.onTimeout(() -> remove(deliveryPersonId, emitter));
+        emitter.onError(e -> remove(deliveryPersonId, emitter));
+
+        try {
+            emitter.send(SseEmitter.event().name("connected").data("ok"));
+        } catch (IOException e) {
+            remove(deliveryPersonId, emitter);
+        }
+        return emitter;
+    }
+
+    public void publish(Collection<Long> deliveryPersonIds, DeliveryRequestForFrontendDTO request) {
+        List<Long> recipients = List.copyOf(deliveryPersonIds);
+        dispatch(() -> {
+            for (Long deliveryPersonId : recipients) {
+                Set<SseEmitter> emitters = emittersByDeliveryPerson.get(deliveryPersonId);
+                if (emitters == null) {
+                    continue;
+                }
+                for (SseEmitter emitter : emitters) {
+                    send(deliveryPersonId, emitter, SseEmitter.event().name(NEW_REQUEST_EVENT).data(request));
+                }
+            }
+        });
+    }
+
+    // A comment line keeps idle streams from being cut by proxies and load balancers
+    @Scheduled(fixedDelayString = "${delivery.notifications.heartbeat-ms:20000}")
+    public void sendHeartbeats() {
+        sweepExpiredTickets();
+        if (emittersByDeliveryPerson.isEmpty()) {
+            return;
+        }
+        dispatch(() -> emittersByDeliveryPerson.forEach((deliveryPersonId, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                send(deliveryPersonId, emitter, SseEmitter.event().comment("keep-alive"));
+            }
+        }));
+    }
+
+    private void dispatch(Runnable sends) {
+        try {
+            dispatcher.execute(sends);
+        } catch (RejectedExecutionException e) {
+            // Clients still see the request on their next feed refresh
+            System.err.println("Delivery request notification dropped: dispatch queue is full");
+        }
+    }
+
+    private void send(Long deliveryPersonId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; drop the emitter
+            remove(deliveryPersonId, emitter);
+        }
+    }
+
+    private void sweepExpiredTickets() {
+        long now = System.currentTimeMillis();
+        tickets.values().removeIf(ticket -> ticket.expiresAt() <= now);
+    }
+
+    private void remove(Long deliveryPersonId, SseEmitter emitter) {
+        emittersByDeliveryPerson.computeIfPresent(deliveryPersonId, (k, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private record Ticket(Long deliveryPersonId, long expiresAt) {
+    }
+}
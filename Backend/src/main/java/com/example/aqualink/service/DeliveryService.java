@@ -4,11 +4,11 @@ import com.example.aqualink.dto.*;
 import com.example.aqualink.entity.Order;
 import com.example.aqualink.entity.OrderItem;
 import com.example.aqualink.entity.User;
-import com.example.aqualink.entity.DeliveryPersonCoverage;
+import com.example.aqualink.entity.DeliveryPersonCoverageArea;
 import com.example.aqualink.entity.DeliveryPersonAvailability;
 import com.example.aqualink.repository.OrderRepository;
 import com.example.aqualink.repository.UserRepository;
-import com.example.aqualink.repository.DeliveryPersonCoverageRepository;
+import com.example.aqualink.repository.DeliveryPersonCoverageAreaRepository;
 import com.example.aqualink.repository.DeliveryPersonAvailabilityRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -19,12 +19,14 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -36,8 +38,9 @@ public class DeliveryService {
 
     private final OrderRepository orderRepository;
     private final UserRepository userRepository;
-    private final DeliveryPersonCoverageRepository coverageRepository;
+    private final DeliveryPersonCoverageAreaRepository coverageAreaRepository;
     private final DeliveryPersonAvailabilityRepository availabilityRepository;
+    private final CoverageAreaIndex coverageAreaIndex;
 
     /**
      * Get all orders assigned to a specific delivery person
@@ -242,18 +245,27 @@ public class DeliveryService {
         String sellerPhone = "N/A";
         String productImage = null;
         
+        // Items created at checkout have no product and record their seller by ID instead
+        Optional<User> sellerOpt = Optional.empty();
         if (orderItem.getProduct() != null && orderItem.getProduct().getNicNumber() != null) {
-            Optional<User> sellerOpt = userRepository.findByNicNumber(orderItem.getProduct().getNicNumber());
-            if (sellerOpt.isPresent()) {
-                sellerName = sellerOpt.get().getName();
-                sellerPhone = sellerOpt.get().getPhoneNumber();
-            }
+            sellerOpt = userRepository.findByNicNumber(orderItem.getProduct().getNicNumber());
+        } else if (orderItem.getProduct() == null && orderItem.getSellerId() != null) {
+            sellerOpt = userRepository.findById(orderItem.getSellerId());
+        }
+        if (sellerOpt.isPresent()) {
+            sellerName = sellerOpt.get().getName();
+            sellerPhone = sellerOpt.get().getPhoneNumber();
         }
 
+        String productName = orderItem.getProduct() != null ? orderItem.getProduct().getName()
+                : orderItem.getProductName() != null ? orderItem.getProductName() : "Unknown Product";
+        String productType = orderItem.getProduct() != null ? orderItem.getProduct().getProductType()
+                : orderItem.getProductType() != null ? orderItem.getProductType() : "Unknown";
+
         return new OrderDeliveryDTO.OrderItemDTO(
                 orderItem.getOrderItemId(),
-                orderItem.getProduct() != null ? orderItem.getProduct().getName() : "Unknown Product",
-                orderItem.getProduct() != null ? orderItem.getProduct().getProductType() : "Unknown",
+                productName,
+                productType,
                 orderItem.getQuantity(),
                 orderItem.getPrice(),
                 productImage,
@@ -355,33 +367,14 @@ public class DeliveryService {
         }
         
         User user = userOpt.get();
-        List<DeliveryPersonCoverage> coverages = coverageRepository.findByDeliveryPersonUser(user);
-        
-        // Convert the new structure (towns list) to the old DTO format
-        List<SimpleCoverageAreaDTO> result = new ArrayList<>();
-        for (DeliveryPersonCoverage coverage : coverages) {
-            if (coverage.getTowns() != null) {
-                for (String town : coverage.getTowns()) {
-                    // Parse town format "District:Town" if applicable
-                    String district = "";
-                    String townName = town;
-                    if (town.contains(":")) {
-                        String[] parts = town.split(":", 2);
-                        district = parts[0];
-                        townName = parts[1];
-                    }
-                    
-                    result.add(new SimpleCoverageAreaDTO(
-                            coverage.getId(),
-                            district,
-                            townName,
-                            true // Since we removed the active field, assume true
-                    ));
-                }
-            }
-        }
-        
-        return result;
+        return coverageAreaRepository.findByDeliveryPersonUserIdOrderByDistrictAscTownAsc(user.getId()).stream()
+                .map(area -> new SimpleCoverageAreaDTO(
+                        area.getId(),
+                        area.getDistrict(),
+                        area.getTown(),
+                        true // Since we removed the active field, assume true
+                ))
+                .collect(Collectors.toList());
     }
 
     /**
@@ -396,40 +389,30 @@ public class DeliveryService {
         
         User user = userOpt.get();
         
-        // Delete all existing coverage areas for this delivery person
-        List<DeliveryPersonCoverage> existingCoverages = coverageRepository.findByDeliveryPersonUser(user);
-        coverageRepository.deleteAll(existingCoverages);
-        
-        // Group coverage areas by district and collect towns
-        List<String> allTowns = coverageAreas.stream()
-                .map(dto -> dto.getDistrict() + ":" + dto.getTown())
-                .collect(Collectors.toList());
+        // Replace all existing coverage areas for this delivery person
+        coverageAreaRepository.deleteByDeliveryPersonUserId(user.getId());
         
-        // Create a single coverage record with all towns
-        if (!allTowns.isEmpty()) {
-            DeliveryPersonCoverage coverage = new DeliveryPersonCoverage();
-            coverage.setDeliveryPersonUser(user);
-            coverage.setTowns(allTowns);
-            
-            DeliveryPersonCoverage savedCoverage = coverageRepository.save(coverage);
-            
-            // Convert back to the DTO format expected by the caller
-            return allTowns.stream()
-                    .map(town -> {
-                        String[] parts = town.split(":", 2);
-                        String district = parts.length > 1 ? parts[0] : "";
-                        String townName = parts.length > 1 ? parts[1] : parts[0];
-                        return new SimpleCoverageAreaDTO(
-                                savedCoverage.getId(),
-                                district,
-                                townName,
-                                true
-                        );
-                    })
-                    .collect(Collectors.toList());
+        // A missing district is stored as "", so it is keyed as "" too
+        Set<String> seen = new HashSet<>();
+        List<DeliveryPersonCoverageArea> areas = new ArrayList<>();
+        for (SimpleCoverageAreaDTO dto : coverageAreas) {
+            String district = dto.getDistrict() != null ? dto.getDistrict() : "";
+            if (dto.getTown() != null && seen.add(district + ":" + dto.getTown())) {
+                areas.add(new DeliveryPersonCoverageArea(user, district, dto.getTown()));
+            }
         }
         
-        return new ArrayList<>();
+        List<DeliveryPersonCoverageArea> savedAreas = coverageAreaRepository.saveAll(areas);
+        coverageAreaIndex.replaceCoverage(user.getId(), savedAreas);
+        
+        return savedAreas.stream()
+                .map(area -> new SimpleCoverageAreaDTO(
+                        area.getId(),
+                        area.getDistrict(),
+                        area.getTown(),
+                        true
+                ))
+                .collect(Collectors.toList());
     }
 
     /**
@@ -485,6 +468,7 @@ public class DeliveryService {
         availability.setLastUpdated(LocalDateTime.now());
         
         DeliveryPersonAvailability savedAvailability = availabilityRepository.save(availability);
+        coverageAreaIndex.setAvailable(deliveryPersonUser.getId(), Boolean.TRUE.equals(savedAvailability.getIsAvailable()));
         
         return new SimpleAvailabilityDTO(
                 savedAvailability.getIsAvailable(),
@@ -1,5 +1,6 @@
 package com.example.aqualink.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -8,36 +9,35 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.UUID;
 
 @Service
 public class FileStorageService {
 
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private ContentAddressedStore contentAddressedStore;
+
+    @Autowired
+    private UploadIngestionService uploadIngestionService;
+
     @Value("${app.upload.dir:uploads}")
     private String uploadDir;
 
     @Value("${app.upload.blog-images:blog-images}")
     private String blogImagesSubDir;
 
+    /**
+     * Stores the file in the content-addressed store. The category no longer decides the location (files
+     * are named by their hash so identical uploads share one copy) and is kept for existing callers.
+     */
     public String storeFile(MultipartFile file, String category) throws IOException {
-        // Create directories if they don't exist
-        Path uploadPath = Paths.get(uploadDir, category);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
-
-        // Generate unique filename
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = getFileExtension(originalFilename);
-        String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
-
-        // Store the file
-        Path targetLocation = uploadPath.resolve(uniqueFilename);
-        Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+        ContentAddressedStore.StoredBlob blob = uploadIngestionService.ingest(file, UploadIngestionService.ANY_IMAGE);
+        imageDerivativeService.submit(blob.path());
 
         // Return the relative path for database storage
-        return category + "/" + uniqueFilename;
+        return blob.relativePath();
     }
 
     public String storeBlogImage(MultipartFile file) throws IOException {
@@ -45,11 +45,12 @@ public class FileStorageService {
     }
 
     public void deleteFile(String filePath) throws IOException {
-        if (filePath != null && !filePath.isEmpty()) {
+        if (filePath != null && !filePath.isEmpty() && !contentAddressedStore.release(filePath)) {
             Path fileToDelete = Paths.get(uploadDir, filePath);
             if (Files.exists(fileToDelete)) {
                 Files.delete(fileToDelete);
             }
+            imageDerivativeService.deleteVariants(fileToDelete);
         }
     }
 
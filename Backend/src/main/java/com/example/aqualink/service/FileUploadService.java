@@ -1,5 +1,6 @@
 package com.example.aqualink.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -8,55 +9,33 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 @Service
 public class FileUploadService {
 
-    @Value("${file.upload-dir}")
-    private String uploadDir;
-
-    public String uploadFile(MultipartFile file) throws IOException {
-        if (file.isEmpty()) {
-            throw new IOException("File is empty");
-        }
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
 
-        // Validate file type
-        String contentType = file.getContentType();
-        if (!isValidImageType(contentType)) {
-            throw new IOException("Invalid file type. Only JPEG, JPG, and PNG files are allowed.");
-        }
-
-        // Generate unique filename
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
+    @Autowired
+    private ContentAddressedStore contentAddressedStore;
 
-        // Create upload directory if it doesn't exist
-        Path uploadPath = Paths.get(uploadDir);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
+    @Autowired
+    private UploadIngestionService uploadIngestionService;
 
-        // Save file
-        Path filePath = uploadPath.resolve(uniqueFilename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-        return uniqueFilename;
-    }
+    @Value("${file.upload-dir}")
+    private String uploadDir;
 
-    private boolean isValidImageType(String contentType) {
-        return contentType != null && (
-                contentType.equals("image/jpeg") ||
-                        contentType.equals("image/jpg") ||
-                        contentType.equals("image/png")
-        );
+    public String uploadFile(MultipartFile file) throws IOException {
+        // Stored by content hash; the returned path is relative to the upload directory
+        return uploadIngestionService.ingest(file, UploadIngestionService.JPEG_OR_PNG).relativePath();
     }
 
     public void deleteFile(String filename) {
+        if (contentAddressedStore.release(filename)) {
+            return;
+        }
         try {
             Path filePath = Paths.get(uploadDir).resolve(filename);
             Files.deleteIfExists(filePath);
@@ -76,31 +55,12 @@ public class FileUploadService {
             return savedImagePaths;
         }
 
-        // Create directory structure: uploads/fish_images/{fishId}/
-        Path fishImagesDir = Paths.get(uploadDir1, fishId.toString()).toAbsolutePath();
-
-        // Create directories if they don't exist
-        Files.createDirectories(fishImagesDir);
+        // All images are written in parallel; identical ones share one stored file
+        for (ContentAddressedStore.StoredBlob blob : uploadIngestionService.ingestAll(images, UploadIngestionService.ANY_IMAGE)) {
+            imageDerivativeService.submit(blob.path());
 
-        for (MultipartFile image : images) {
-            if (!image.isEmpty()) {
-                // Generate unique filename
-                String originalFilename = image.getOriginalFilename();
-                String fileExtension = "";
-                if (originalFilename != null && originalFilename.contains(".")) {
-                    fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-                }
-
-                String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
-                Path targetPath = fishImagesDir.resolve(uniqueFilename);
-
-                // Save the file
-                Files.copy(image.getInputStream(), targetPath, StandardCopyOption.REPLACE_EXISTING);
-
-                // Store relative path for database
-                String relativePath = "fish_images/" + fishId + "/" + uniqueFilename;
-                savedImagePaths.add(relativePath);
-            }
+            // Store relative path for database
+            savedImagePaths.add(blob.relativePath());
         }
 
         return savedImagePaths;
@@ -108,9 +68,13 @@ public class FileUploadService {
 
     public void deleteImages(List<String> imagePaths) {
         for (String imagePath : imagePaths) {
+            if (contentAddressedStore.release(imagePath)) {
+                continue;
+            }
             try {
                 Path fullPath = Paths.get(uploadDir1).getParent().resolve(imagePath);
                 Files.deleteIfExists(fullPath);
+                imageDerivativeService.deleteVariants(fullPath);
             } catch (IOException e) {
                 // Log the error but don't throw exception
                 System.err.println("Failed to delete image: " + imagePath + " - " + e.getMessage());
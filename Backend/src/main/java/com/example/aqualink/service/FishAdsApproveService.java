@@ -16,6 +16,12 @@ public class FishAdsApproveService {
     @Autowired
     private FishRepository fishRepository;
 
+    @Autowired
+    private ListingSearchIndex listingSearchIndex;
+
+    @Autowired
+    private ProductSummaryCache productSummaryCache;
+
     public List<Fish> getAllFish() {
         return fishRepository.findAllByOrderByCreateDateAndTimeDesc();
     }
@@ -32,11 +38,15 @@ public class FishAdsApproveService {
         Fish fish = fishRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Fish not found with id: " + id));
         fish.setActiveStatus(status);
-        return fishRepository.save(fish);
+        Fish savedFish = fishRepository.save(fish);
+        listingSearchIndex.indexFish(savedFish);
+        return savedFish;
     }
 
     public void deleteFish(Long id) {
         fishRepository.deleteById(id);
+        listingSearchIndex.remove(ListingSearchIndex.TYPE_FISH, id);
+        productSummaryCache.evict(InventoryReservationLedger.ProductKind.FISH, id);
     }
 }
 
@@ -18,13 +18,16 @@ public class FishAdsCreateService {
     private final FishRepository fishRepository;
     private final FishImgUploadService fishImgUploadService;
     private final UserRepository userRepository; // Changed to UserRepository
+    private final ListingSearchIndex listingSearchIndex;
 
     public FishAdsCreateService(FishRepository fishRepository, 
                                FishImgUploadService fishImgUploadService,
-                               UserRepository userRepository) { // Changed parameter
+                               UserRepository userRepository, // Changed parameter
+                               ListingSearchIndex listingSearchIndex) {
         this.fishRepository = fishRepository;
         this.fishImgUploadService = fishImgUploadService;
         this.userRepository = userRepository; // Changed assignment
+        this.listingSearchIndex = listingSearchIndex;
     }
 
     @Transactional
@@ -57,6 +60,7 @@ public class FishAdsCreateService {
             savedFish = fishRepository.save(savedFish);
         }
 
+        listingSearchIndex.indexFish(savedFish);
         return savedFish;
     }
 }
\ No newline at end of file
@@ -1,19 +1,22 @@
 package com.example.aqualink.service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.aqualink.dto.CursorPage;
 import com.example.aqualink.dto.FishAdsResponseDTO;
 import com.example.aqualink.dto.FishPurchaseDTO;
+import com.example.aqualink.dto.ProductStats;
 import com.example.aqualink.entity.ActiveStatus;
 import com.example.aqualink.entity.Fish;
 import com.example.aqualink.repository.FishRepository;
-import com.example.aqualink.repository.OrderItemRepository;
-import com.example.aqualink.repository.ReviewRepository;
 
 import lombok.RequiredArgsConstructor;
 
@@ -22,35 +25,49 @@ import lombok.RequiredArgsConstructor;
 public class FishAdsViewService {
 
     private final FishRepository fishRepository;
-    private final ReviewRepository reviewRepository;
-    private final OrderItemRepository orderItemRepository;
-
-    public List<FishAdsResponseDTO> getAllAvailableFish() {
-        List<Fish> fishList = fishRepository.findAvailableFishWithProfile();
-        return fishList.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    private final ProductStatsService productStatsService;
+    private final ListingSearchIndex listingSearchIndex;
+    private final ImageDerivativeService imageDerivativeService;
+    private final InventoryReservationLedger inventoryReservationLedger;
+
+    /**
+     * Verified, in-stock fish ads, newest first: one keyset page, or all of them when neither cursor nor size
+     * is given. Filters left null are ignored.
+     */
+    public CursorPage<FishAdsResponseDTO> getAvailableFishPage(String district, Double minPrice, Double maxPrice,
+                                                               String cursor, Integer size) {
+        return KeysetCursor.pageOrAll(cursor, size,
+                (after, limit) -> fishRepository.findAvailableFishPage(district, minPrice, maxPrice,
+                        after.timestamp(), after.id(), limit),
+                fish -> new KeysetCursor(fish.getCreateDateAndTime(), fish.getId()),
+                this::convertToDTOs);
     }
 
     public Optional<FishAdsResponseDTO> getFishById(Long id) {
         return fishRepository.findByIdWithProfile(id)
-                .map(this::convertToDTO);
+                .map(fish -> convertToDTO(fish,
+                        productStatsService.getStats(fish.getId(), ListingSearchIndex.TYPE_FISH)));
     }
 
     public List<FishAdsResponseDTO> searchFish(String query) {
-        List<Fish> fishList = fishRepository.findByNameContainingIgnoreCase(query);
-        return fishList.stream()
-                .filter(fish -> fish.getActiveStatus() == ActiveStatus.VERIFIED && fish.getStock() > 0)
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        // Ranked IDs from the search index, then one query for the rows themselves
+        List<Long> ids = listingSearchIndex.searchIds(ListingSearchIndex.TYPE_FISH, query, ListingSearchIndex.MAX_PAGE_SIZE);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Fish> fishById = fishRepository.findByIdInWithProfile(ids).stream()
+                .collect(Collectors.toMap(Fish::getId, Function.identity()));
+        return convertToDTOs(ids.stream()
+                .map(fishById::get)
+                .filter(fish -> fish != null && fish.getActiveStatus() == ActiveStatus.VERIFIED && fish.getStock() > 0)
+                .collect(Collectors.toList()));
     }
 
     public List<FishAdsResponseDTO> getApprovedFishByUserId(Long userId) {
         List<Fish> fishList = fishRepository.findByUserIdWithProfile(userId);
-        return fishList.stream()
+        return convertToDTOs(fishList.stream()
                 .filter(fish -> fish.getActiveStatus() == ActiveStatus.VERIFIED)
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Transactional
@@ -64,6 +81,8 @@ public class FishAdsViewService {
             if (fish.getUser() != null && fish.getUser().getId().equals(userId)) {
                 fish.setStock(newStock);
                 fishRepository.save(fish);
+                inventoryReservationLedger.invalidate(InventoryReservationLedger.ProductKind.FISH, fishId);
+                listingSearchIndex.indexFish(fish);
                 return true;
             }
         }
@@ -71,24 +90,25 @@ public class FishAdsViewService {
     }
 
     public boolean processPurchase(FishPurchaseDTO purchaseDTO) {
-        Optional<Fish> fishOpt = fishRepository.findById(purchaseDTO.getFishId());
-
-        if (fishOpt.isPresent()) {
-            Fish fish = fishOpt.get();
-
-            if (fish.getStock() >= purchaseDTO.getQuantity() &&
-                    purchaseDTO.getQuantity() >= fish.getMinimumQuantity() &&
-                    fish.getActiveStatus() == ActiveStatus.VERIFIED) {
-
-                fish.setStock(fish.getStock() - purchaseDTO.getQuantity());
-                fishRepository.save(fish);
-                return true;
-            }
+        // Stock, minimum quantity and status are checked by the conditional decrement itself
+        if (purchaseDTO.getQuantity() == null || !inventoryReservationLedger.purchase(
+                InventoryReservationLedger.ProductKind.FISH, purchaseDTO.getFishId(), purchaseDTO.getQuantity())) {
+            return false;
         }
-        return false;
+        fishRepository.findById(purchaseDTO.getFishId()).ifPresent(listingSearchIndex::indexFish);
+        return true;
     }
 
-    private FishAdsResponseDTO convertToDTO(Fish fish) {
+    // Stats for the whole list come from one grouped query per metric
+    private List<FishAdsResponseDTO> convertToDTOs(List<Fish> fishList) {
+        Map<Long, ProductStats> stats = productStatsService.getStats(
+                fishList.stream().map(Fish::getId).collect(Collectors.toList()), ListingSearchIndex.TYPE_FISH);
+        return fishList.stream()
+                .map(fish -> convertToDTO(fish, stats.get(fish.getId())))
+                .collect(Collectors.toList());
+    }
+
+    private FishAdsResponseDTO convertToDTO(Fish fish, ProductStats stats) {
         FishAdsResponseDTO dto = new FishAdsResponseDTO();
         dto.setId(fish.getId());
         dto.setName(fish.getName());
@@ -108,21 +128,14 @@ public class FishAdsViewService {
         // Get images
         if (fish.getImagePaths() != null && !fish.getImagePaths().isEmpty()) {
             dto.setImageUrls(fish.getImagePaths());
+            dto.setImages(imageDerivativeService.variantsOf(fish.getImagePaths(), null));
         } else {
             dto.setImageUrls(List.of("/images/default-fish.jpg"));
         }
 
-        // Calculate rating
-        Double averageRating = reviewRepository.findAverageRatingByProductId(fish.getId());
-        dto.setRating(averageRating != null ? averageRating : 0.0);
-
-        // Calculate total sold
-        Long totalSold = orderItemRepository.findTotalSoldByProductId(fish.getId());
-        dto.setTotalSold(totalSold != null ? totalSold : 0L);
-
-        // Calculate review count
-        Long reviewCount = reviewRepository.countReviewsByProductId(fish.getId());
-        dto.setReviewCount(reviewCount != null ? reviewCount : 0L);
+        dto.setRating(stats.getAverageRating());
+        dto.setTotalSold(stats.getTotalSold() != null ? stats.getTotalSold() : 0L);
+        dto.setReviewCount(stats.getReviewCount());
 
         return dto;
     }
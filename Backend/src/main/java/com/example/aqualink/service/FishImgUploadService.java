@@ -1,6 +1,7 @@
 
 package com.example.aqualink.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -9,14 +10,21 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 @Service
 public class FishImgUploadService {
 
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private ContentAddressedStore contentAddressedStore;
+
+    @Autowired
+    private UploadIngestionService uploadIngestionService;
+
     @Value("${file.upload-dir}")
     private String uploadDir;
 
@@ -24,43 +32,14 @@ public class FishImgUploadService {
     private String fishImagesUploadDir;
 
     public String uploadFile(MultipartFile file) throws IOException {
-        if (file.isEmpty()) {
-            throw new IOException("File is empty");
-        }
-
-        // Validate file type
-        String contentType = file.getContentType();
-        if (!isValidImageType(contentType)) {
-            throw new IOException("Invalid file type. Only JPEG, JPG, and PNG files are allowed.");
-        }
-
-        // Generate unique filename
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
-
-        // Create upload directory if it doesn't exist
-        Path uploadPath = Paths.get(uploadDir);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
-
-        // Save file
-        Path filePath = uploadPath.resolve(uniqueFilename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-        return uniqueFilename;
-    }
-
-    private boolean isValidImageType(String contentType) {
-        return contentType != null && (
-                contentType.equals("image/jpeg") ||
-                        contentType.equals("image/jpg") ||
-                        contentType.equals("image/png")
-        );
+        // Stored by content hash; the returned path is relative to the upload directory
+        return uploadIngestionService.ingest(file, UploadIngestionService.JPEG_OR_PNG).relativePath();
     }
 
     public void deleteFile(String filename) {
+        if (contentAddressedStore.release(filename)) {
+            return;
+        }
         try {
             Path filePath = Paths.get(uploadDir).resolve(filename);
             Files.deleteIfExists(filePath);
@@ -76,38 +55,12 @@ public class FishImgUploadService {
             return savedImagePaths;
         }
 
-        // Validate file types first
-        for (MultipartFile image : images) {
-            if (!image.isEmpty() && !isValidImageType(image.getContentType())) {
-                throw new IOException("Invalid file type. Only JPEG, JPG, and PNG files are allowed.");
-            }
-        }
-
-        // Create directory structure: uploads/fish_images/{fishId}/
-        Path fishImagesDir = Paths.get(fishImagesUploadDir, fishId.toString()).toAbsolutePath();
-
-        // Create directories if they don't exist
-        Files.createDirectories(fishImagesDir);
+        // All images are written in parallel; identical ones share one stored file
+        for (ContentAddressedStore.StoredBlob blob : uploadIngestionService.ingestAll(images, UploadIngestionService.JPEG_OR_PNG)) {
+            imageDerivativeService.submit(blob.path());
 
-        for (MultipartFile image : images) {
-            if (!image.isEmpty()) {
-                // Generate unique filename
-                String originalFilename = image.getOriginalFilename();
-                String fileExtension = "";
-                if (originalFilename != null && originalFilename.contains(".")) {
-                    fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-                }
-
-                String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
-                Path targetPath = fishImagesDir.resolve(uniqueFilename);
-
-                // Save the file
-                Files.copy(image.getInputStream(), targetPath, StandardCopyOption.REPLACE_EXISTING);
-
-                // Store the URL path that matches the frontend expectation
-                String urlPath = "/uploads/fish_images/" + fishId + "/" + uniqueFilename;
-                savedImagePaths.add(urlPath);
-            }
+            // Store the URL path that matches the frontend expectation
+            savedImagePaths.add(blob.url());
         }
 
         return savedImagePaths;
@@ -115,11 +68,15 @@ public class FishImgUploadService {
 
     public void deleteImages(List<String> imagePaths) {
         for (String imagePath : imagePaths) {
+            if (contentAddressedStore.release(imagePath)) {
+                continue;
+            }
             try {
-                // Extract the relative path and construct full path
+                // Images uploaded before the content-addressed store live under fish_images/{fishId}/
                 String relativePath = imagePath.replace("/uploads/fish_images/", "");
                 Path fullPath = Paths.get(fishImagesUploadDir, relativePath);
                 Files.deleteIfExists(fullPath);
+                imageDerivativeService.deleteVariants(fullPath);
             } catch (IOException e) {
                 System.err.println("Failed to delete image: " + imagePath + " - " + e.getMessage());
             }
@@ -0,0 +1,369 @@
+package com.example.aqualink.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.aqualink.dto.ImageVariantsDTO;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Generates downscaled renditions (thumbnail, medium) of uploaded images on a small bounded worker pool.
+ *
+ * Renditions are written next to their original as {@code <name>.<size>.<ext>}. Uploads are stored once
+ * per content (ContentAddressedStore), so the same picture uploaded twice is decoded and resized only
+ * once, and its renditions ({@code blobs/ab/cd/<hash>.thumbnail.jpg}) are deleted together with the blob
+ * when its last reference is released. WebP is written when an ImageIO WebP plugin is on the classpath,
+ * JPEG otherwise. Originals without renditions (older uploads, or work dropped because the queue was
+ * full) are queued again the first time a listing asks for them.
+ */
+@Service
+public class ImageDerivativeService {
+
+    public static final String THUMBNAIL = "thumbnail";
+    public static final String MEDIUM = "medium";
+
+    // Longest edge in pixels per rendition
+    private static final Map<String, Integer> SIZES = Map.of(THUMBNAIL, 320, MEDIUM, 960);
+
+    private static final Set<String> SOURCE_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "bmp", "webp");
+    private static final float JPEG_QUALITY = 0.82f;
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    @Value("${image.derivatives.threads:2}")
+    private int threads;
+
+    @Value("${image.derivatives.queue-size:200}")
+    private int queueSize;
+
+    // Refuse to decode anything larger (decompression bombs)
+    @Value("${image.derivatives.max-pixels:40000000}")
+    private long maxPixels;
+
+    private ThreadPoolExecutor executor;
+    private String format;
+    private String extension;
+
+    private final Set<Path> inFlight = ConcurrentHashMap.newKeySet();
+    // Originals ImageIO cannot decode (or that are too large); never queued again
+    private final Set<Path> undecodable = ConcurrentHashMap.newKeySet();
+    // Originals whose renditions are known to exist, so listings stop checking the disk for them
+    private final Set<Path> withRenditions = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivatives-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        boolean webp = ImageIO.getImageWritersByMIMEType("image/webp").hasNext();
+        format = webp ? "webp" : "jpeg";
+        extension = webp ? "webp" : "jpg";
+        System.out.println("Image derivatives: writing " + format + " renditions on " + threads + " thread(s)");
+        executor.execute(this::removeLegacyStore);
+    }
+
+    // Renditions used to be kept per content hash under derivatives/ and linked (or copied) next to each
+    // original. Every original already has its own link or copy, so the shared store only leaked disk.
+    private void removeLegacyStore() {
+        Path legacyStore = Paths.get(uploadDir, "derivatives").toAbsolutePath();
+        if (!Files.isDirectory(legacyStore)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(legacyStore)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    System.err.println("Failed to delete old image rendition " + path + ": " + e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Failed to remove old image rendition store: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queue rendition generation for a stored original. Never blocks; when the queue is full the work is
+     * dropped and picked up again on the next {@link #variantsOf} call for that image.
+     */
+    public void submit(Path original) {
+        Path file = original.toAbsolutePath().normalize();
+        if (!isSourceImage(file) || undecodable.contains(file) || !inFlight.add(file)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(file);
+                } catch (Exception e) {
+                    System.err.println("Error creating image renditions for " + file + ": " + e.getMessage());
+                } finally {
+                    inFlight.remove(file);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(file);
+        }
+    }
+
+    /**
+     * Per-size URLs for images stored under /uploads/. A size that is not generated yet falls back to the
+     * original URL (and is queued), so callers can always use the thumbnail field.
+     *
+     * Only images not yet known to have renditions touch the filesystem; once both renditions have been
+     * seen or written the answer comes from memory.
+     */
+    public List<ImageVariantsDTO> variantsOf(List<String> imageUrls, String urlPrefix) {
+        List<ImageVariantsDTO> result = new ArrayList<>();
+        if (imageUrls == null) {
+            return result;
+        }
+        for (String url : imageUrls) {
+            String prefix = urlPrefix != null ? urlPrefix : "";
+            Path original = resolveUpload(url);
+            String thumbnail = url;
+            String medium = url;
+            if (original != null && isSourceImage(original)) {
+                if (hasRenditions(original)) {
+                    thumbnail = variantUrl(url, THUMBNAIL);
+                    medium = variantUrl(url, MEDIUM);
+                } else if (!undecodable.contains(original) && Files.exists(original)) {
+                    submit(original);
+                }
+            }
+            result.add(new ImageVariantsDTO(prefix + url, prefix + thumbnail, prefix + medium));
+        }
+        return result;
+    }
+
+    /**
+     * Remove the renditions stored next to an original.
+     */
+    public void deleteVariants(Path original) {
+        withRenditions.remove(original.toAbsolutePath().normalize());
+        for (String size : SIZES.keySet()) {
+            try {
+                Files.deleteIfExists(variantPath(original, size));
+            } catch (IOException e) {
+                System.err.println("Failed to delete image rendition of " + original + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void generate(Path original) throws IOException {
+        if (!Files.isRegularFile(original)) {
+            return;
+        }
+        Map<String, Path> missing = new LinkedHashMap<>();
+        for (String size : SIZES.keySet()) {
+            Path path = variantPath(original, size);
+            if (!Files.exists(path)) {
+                missing.put(size, path);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            BufferedImage source = decode(original);
+            if (source == null) {
+                undecodable.add(original);
+                return;
+            }
+            for (Map.Entry<String, Path> entry : missing.entrySet()) {
+                writeAtomically(scale(source, SIZES.get(entry.getKey())), entry.getValue());
+            }
+            // Released while it was being resized; its renditions go with it
+            if (!Files.exists(original)) {
+                deleteVariants(original);
+                return;
+            }
+        }
+        withRenditions.add(original);
+    }
+
+    private boolean hasRenditions(Path original) {
+        if (withRenditions.contains(original)) {
+            return true;
+        }
+        for (String size : SIZES.keySet()) {
+            if (!Files.exists(variantPath(original, size))) {
+                return false;
+            }
+        }
+        withRenditions.add(original);
+        return true;
+    }
+
+    private BufferedImage decode(Path original) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    System.err.println("Skipping image renditions for " + original + ": " + pixels + " pixels");
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Halves the image until it is within 2x of the target, then does the last step; much sharper than
+    // a single bilinear pass for big reductions
+    private static BufferedImage scale(BufferedImage source, int maxEdge) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double ratio = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+        BufferedImage current = source;
+        do {
+            int nextWidth = Math.max(targetWidth, current.getWidth() / 2);
+            int nextHeight = Math.max(targetHeight, current.getHeight() / 2);
+            if (current.getWidth() / 2 < targetWidth || current.getHeight() / 2 < targetHeight) {
+                nextWidth = targetWidth;
+                nextHeight = targetHeight;
+            }
+            BufferedImage next = new BufferedImage(nextWidth, nextHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                // Transparent areas become white; neither JPEG nor lossy WebP keep alpha here
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, nextWidth, nextHeight);
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, nextWidth, nextHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (current.getWidth() != targetWidth || current.getHeight() != targetHeight);
+        return current;
+    }
+
+    private void writeAtomically(BufferedImage image, Path target) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), "rendition", ".tmp");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(output);
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                if (param.canWriteCompressed()) {
+                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    if (param.getCompressionTypes() != null && param.getCompressionType() == null) {
+                        param.setCompressionType(param.getCompressionTypes()[0]);
+                    }
+                    param.setCompressionQuality(JPEG_QUALITY);
+                }
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            try {
+                // Linking fails if the target exists, so when two workers render the same content the first wins
+                Files.createLink(target, temp);
+            } catch (FileAlreadyExistsException e) {
+                // Already stored by a concurrent worker
+            } catch (UnsupportedOperationException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path variantPath(Path original, String size) {
+        String name = original.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String stem = dot > 0 ? name.substring(0, dot) : name;
+        return original.resolveSibling(stem + "." + size + "." + extension);
+    }
+
+    private String variantUrl(String url, String size) {
+        int slash = url.lastIndexOf('/');
+        int dot = url.lastIndexOf('.');
+        String stem = dot > slash ? url.substring(0, dot) : url;
+        return stem + "." + size + "." + extension;
+    }
+
+    private Path resolveUpload(String url) {
+        if (url == null || !url.startsWith("/uploads/") || url.contains("..")) {
+            return null;
+        }
+        return Paths.get(uploadDir, url.substring("/uploads/".length())).toAbsolutePath().normalize();
+    }
+
+    private static boolean isSourceImage(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        int dot = name.lastIndexOf('.');
+        if (dot < 0 || !SOURCE_EXTENSIONS.contains(name.substring(dot + 1))) {
+            return false;
+        }
+        // Renditions themselves are never used as a source
+        for (String size : SIZES.keySet()) {
+            if (name.contains("." + size + ".")) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.aqualink.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -8,14 +9,21 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 @Service
 public class IndustrialImgUploadService {
 
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private ContentAddressedStore contentAddressedStore;
+
+    @Autowired
+    private UploadIngestionService uploadIngestionService;
+
     @Value("${file.upload-dir}")
     private String uploadDir;
 
@@ -23,43 +31,14 @@ public class IndustrialImgUploadService {
     private String industrialImagesUploadDir;
 
     public String uploadFile(MultipartFile file) throws IOException {
-        if (file.isEmpty()) {
-            throw new IOException("File is empty");
-        }
-
-        // Validate file type
-        String contentType = file.getContentType();
-        if (!isValidImageType(contentType)) {
-            throw new IOException("Invalid file type. Only JPEG, JPG, and PNG files are allowed.");
-        }
-
-        // Generate unique filename
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
-
-        // Create upload directory if it doesn't exist
-        Path uploadPath = Paths.get(uploadDir);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
-
-        // Save file
-        Path filePath = uploadPath.resolve(uniqueFilename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-        return uniqueFilename;
-    }
-
-    private boolean isValidImageType(String contentType) {
-        return contentType != null && (
-                contentType.equals("image/jpeg") ||
-                        contentType.equals("image/jpg") ||
-                        contentType.equals("image/png")
-        );
+        // Stored by content hash; the returned path is relative to the upload directory
+        return uploadIngestionService.ingest(file, UploadIngestionService.JPEG_OR_PNG).relativePath();
     }
 
     public void deleteFile(String filename) {
+        if (contentAddressedStore.release(filename)) {
+            return;
+        }
         try {
             Path filePath = Paths.get(uploadDir).resolve(filename);
             Files.deleteIfExists(filePath);
@@ -74,38 +53,12 @@ public class IndustrialImgUploadService {
             return savedImagePaths;
         }
 
-        // Validate file types first
-        for (MultipartFile image : images) {
-            if (!image.isEmpty() && !isValidImageType(image.getContentType())) {
-                throw new IOException("Invalid file type. Only JPEG, JPG, and PNG files are allowed.");
-            }
-        }
-
-        // Create directory structure: uploads/industrial_images/{industrialId}/
-        Path industrialImagesDir = Paths.get(industrialImagesUploadDir, industrialId.toString()).toAbsolutePath();
-
-        // Create directories if they don't exist
-        Files.createDirectories(industrialImagesDir);
+        // All images are written in parallel; identical ones share one stored file
+        for (ContentAddressedStore.StoredBlob blob : uploadIngestionService.ingestAll(images, UploadIngestionService.JPEG_OR_PNG)) {
+            imageDerivativeService.submit(blob.path());
 
-        for (MultipartFile image : images) {
-            if (!image.isEmpty()) {
-                // Generate unique filename
-                String originalFilename = image.getOriginalFilename();
-                String fileExtension = "";
-                if (originalFilename != null && originalFilename.contains(".")) {
-                    fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-                }
-
-                String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
-                Path targetPath = industrialImagesDir.resolve(uniqueFilename);
-
-                // Save the file
-                Files.copy(image.getInputStream(), targetPath, StandardCopyOption.REPLACE_EXISTING);
-
-                // Store the URL path that matches the frontend expectation
-                String urlPath = "/uploads/industrial_images/" + industrialId + "/" + uniqueFilename;
-                savedImagePaths.add(urlPath);
-            }
+            // Store the URL path that matches the frontend expectation
+            savedImagePaths.add(blob.url());
         }
 
         return savedImagePaths;
@@ -113,11 +66,15 @@ public class IndustrialImgUploadService {
 
     public void deleteImages(List<String> imagePaths) {
         for (String imagePath : imagePaths) {
+            if (contentAddressedStore.release(imagePath)) {
+                continue;
+            }
             try {
-                // Extract the relative path and construct full path
+                // Images uploaded before the content-addressed store live under industrial_images/{industrialId}/
                 String relativePath = imagePath.replace("/uploads/industrial_images/", "");
                 Path fullPath = Paths.get(industrialImagesUploadDir, relativePath);
                 Files.deleteIfExists(fullPath);
+                imageDerivativeService.deleteVariants(fullPath);
             } catch (IOException e) {
                 System.err.println("Failed to delete image: " + imagePath + " - " + e.getMessage());
             }
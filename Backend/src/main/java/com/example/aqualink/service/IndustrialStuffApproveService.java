@@ -15,6 +15,12 @@ public class IndustrialStuffApproveService {
     @Autowired
     private IndustrialStuffRepository industrialStuffRepository;
 
+    @Autowired
+    private ListingSearchIndex listingSearchIndex;
+
+    @Autowired
+    private ProductSummaryCache productSummaryCache;
+
     public List<IndustrialStuff> getAllIndustrial() {
         return industrialStuffRepository.findAllByOrderByCreateDateAndTimeDesc();
     }
@@ -31,10 +37,14 @@ public class IndustrialStuffApproveService {
         IndustrialStuff industrial = industrialStuffRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Industrial item not found with id: " + id));
         industrial.setActiveStatus(status);
-        return industrialStuffRepository.save(industrial);
+        IndustrialStuff savedIndustrial = industrialStuffRepository.save(industrial);
+        listingSearchIndex.indexIndustrial(savedIndustrial);
+        return savedIndustrial;
     }
 
     public void deleteIndustrial(Long id) {
         industrialStuffRepository.deleteById(id);
+        listingSearchIndex.remove(ListingSearchIndex.TYPE_INDUSTRIAL, id);
+        productSummaryCache.evict(InventoryReservationLedger.ProductKind.INDUSTRIAL, id);
     }
 }
@@ -18,13 +18,16 @@ public class IndustrialStuffCreateService {
     private final IndustrialStuffRepository industrialStuffRepository;
     private final IndustrialImgUploadService industrialImgUploadService;
     private final UserRepository userRepository;
+    private final ListingSearchIndex listingSearchIndex;
 
     public IndustrialStuffCreateService(IndustrialStuffRepository industrialStuffRepository,
                                         IndustrialImgUploadService industrialImgUploadService,
-                                        UserRepository userRepository) {
+                                        UserRepository userRepository,
+                                        ListingSearchIndex listingSearchIndex) {
         this.industrialStuffRepository = industrialStuffRepository;
         this.industrialImgUploadService = industrialImgUploadService;
         this.userRepository = userRepository;
+        this.listingSearchIndex = listingSearchIndex;
     }
 
     @Transactional
@@ -58,6 +61,7 @@ public class IndustrialStuffCreateService {
             savedIndustrialStuff = industrialStuffRepository.save(savedIndustrialStuff);
         }
 
+        listingSearchIndex.indexIndustrial(savedIndustrialStuff);
         return savedIndustrialStuff;
     }
 }
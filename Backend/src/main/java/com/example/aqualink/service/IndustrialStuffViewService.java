@@ -1,19 +1,22 @@
 package com.example.aqualink.service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.example.aqualink.dto.CursorPage;
 import com.example.aqualink.dto.IndustrialStuffPurchaseDTO;
 import com.example.aqualink.dto.IndustrialStuffResponseDTO;
+import com.example.aqualink.dto.ProductStats;
 import com.example.aqualink.entity.ActiveStatus;
 import com.example.aqualink.entity.IndustrialStuff;
 import com.example.aqualink.repository.IndustrialStuffRepository;
-import com.example.aqualink.repository.OrderItemRepository;
-import com.example.aqualink.repository.ReviewRepository;
 
 import lombok.RequiredArgsConstructor;
 
@@ -25,55 +28,69 @@ public class IndustrialStuffViewService {
     private String baseUrl;
 
     private final IndustrialStuffRepository industrialStuffRepository;
-    private final ReviewRepository reviewRepository;
-    private final OrderItemRepository orderItemRepository;
-
-    public List<IndustrialStuffResponseDTO> getAllAvailableIndustrial() {
-        List<IndustrialStuff> industrialList = industrialStuffRepository.findAvailableIndustrialWithProfile();
-        return industrialList.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    private final ProductStatsService productStatsService;
+    private final ListingSearchIndex listingSearchIndex;
+    private final ImageDerivativeService imageDerivativeService;
+    private final InventoryReservationLedger inventoryReservationLedger;
+
+    /**
+     * Verified, in-stock industrial items, newest first: one keyset page, or all of them when neither cursor
+     * nor size is given. Filters left null are ignored.
+     */
+    public CursorPage<IndustrialStuffResponseDTO> getAvailableIndustrialPage(String category, String district,
+                                                                             Double minPrice, Double maxPrice,
+                                                                             String cursor, Integer size) {
+        return KeysetCursor.pageOrAll(cursor, size,
+                (after, limit) -> industrialStuffRepository.findAvailableIndustrialPage(category, district,
+                        minPrice, maxPrice, after.timestamp(), after.id(), limit),
+                industrial -> new KeysetCursor(industrial.getCreateDateAndTime(), industrial.getId()),
+                this::convertToDTOs);
     }
 
     public Optional<IndustrialStuffResponseDTO> getIndustrialById(Long id) {
         return industrialStuffRepository.findByIdWithProfile(id)
-                .map(this::convertToDTO);
+                .map(industrial -> convertToDTO(industrial,
+                        productStatsService.getStats(industrial.getId(), ListingSearchIndex.TYPE_INDUSTRIAL)));
     }
 
     public List<IndustrialStuffResponseDTO> searchIndustrial(String query) {
-        List<IndustrialStuff> industrialList = industrialStuffRepository.findByNameContainingIgnoreCase(query);
-        return industrialList.stream()
+        // Ranked IDs from the search index, then one query for the rows themselves
+        List<Long> ids = listingSearchIndex.searchIds(ListingSearchIndex.TYPE_INDUSTRIAL, query, ListingSearchIndex.MAX_PAGE_SIZE);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, IndustrialStuff> industrialById = industrialStuffRepository.findByIdInWithProfile(ids).stream()
+                .collect(Collectors.toMap(IndustrialStuff::getId, Function.identity()));
+        return convertToDTOs(ids.stream()
+                .map(industrialById::get)
+                .filter(industrial -> industrial != null)
                 .filter(industrial -> industrial.getActiveStatus() == ActiveStatus.VERIFIED &&
                         industrial.getStock() > 0 &&
                         industrial.getInStock())
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     public boolean processPurchase(IndustrialStuffPurchaseDTO purchaseDTO) {
-        Optional<IndustrialStuff> industrialOpt = industrialStuffRepository.findById(purchaseDTO.getIndustrialId());
-        if (industrialOpt.isPresent()) {
-            IndustrialStuff industrial = industrialOpt.get();
-            if (industrial.getStock() >= purchaseDTO.getQuantity() &&
-                    industrial.getActiveStatus() == ActiveStatus.VERIFIED &&
-                    industrial.getInStock()) {
-
-                industrial.setStock(industrial.getStock() - purchaseDTO.getQuantity());
-                industrial.setSoldCount(industrial.getSoldCount() + purchaseDTO.getQuantity());
-
-                // Update stock status if needed
-                if (industrial.getStock() <= 0) {
-                    industrial.setInStock(false);
-                }
-
-                industrialStuffRepository.save(industrial);
-                return true;
-            }
+        // Stock, status and the in-stock flag are checked and updated by the conditional decrement itself
+        if (purchaseDTO.getQuantity() == null || !inventoryReservationLedger.purchase(
+                InventoryReservationLedger.ProductKind.INDUSTRIAL, purchaseDTO.getIndustrialId(), purchaseDTO.getQuantity())) {
+            return false;
         }
-        return false;
+        industrialStuffRepository.findById(purchaseDTO.getIndustrialId()).ifPresent(listingSearchIndex::indexIndustrial);
+        return true;
     }
 
-    private IndustrialStuffResponseDTO convertToDTO(IndustrialStuff industrial) {
+    // Stats for the whole list come from one grouped query per metric
+    private List<IndustrialStuffResponseDTO> convertToDTOs(List<IndustrialStuff> industrialList) {
+        Map<Long, ProductStats> stats = productStatsService.getStats(
+                industrialList.stream().map(IndustrialStuff::getId).collect(Collectors.toList()),
+                ListingSearchIndex.TYPE_INDUSTRIAL);
+        return industrialList.stream()
+                .map(industrial -> convertToDTO(industrial, stats.get(industrial.getId())))
+                .collect(Collectors.toList());
+    }
+
+    private IndustrialStuffResponseDTO convertToDTO(IndustrialStuff industrial, ProductStats stats) {
         IndustrialStuffResponseDTO dto = new IndustrialStuffResponseDTO();
         dto.setId(industrial.getId());
         dto.setName(industrial.getName());
@@ -98,21 +115,14 @@ public class IndustrialStuffViewService {
                 .map(path -> baseUrl + path)
                 .collect(Collectors.toList());
             dto.setImageUrls(fullImageUrls);
+            dto.setImages(imageDerivativeService.variantsOf(industrial.getImagePaths(), baseUrl));
         } else {
             dto.setImageUrls(List.of("/images/default-industrial.jpg"));
         }
 
-        // Calculate rating
-        Double averageRating = reviewRepository.findAverageRatingByProductId(industrial.getId());
-        dto.setRating(averageRating != null ? averageRating : 0.0);
-
-        // Calculate total sold
-        Long totalSold = orderItemRepository.findTotalSoldByProductId(industrial.getId());
-        dto.setTotalSold(totalSold != null ? totalSold : Long.valueOf(industrial.getSoldCount()));
-
-        // Calculate review count
-        Long reviewCount = reviewRepository.countReviewsByProductId(industrial.getId());
-        dto.setReviewCount(reviewCount != null ? reviewCount : 0L);
+        dto.setRating(stats.getAverageRating());
+        dto.setTotalSold(stats.getTotalSold() != null ? stats.getTotalSold() : Long.valueOf(industrial.getSoldCount()));
+        dto.setReviewCount(stats.getReviewCount());
 
         return dto;
     }
@@ -0,0 +1,593 @@
+package com.example.aqualink.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.aqualink.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Stock reservations for fish ads and industrial items.
+ *
+ * The database row stays the authority: stock only ever goes down through a conditional
+ * {@code UPDATE ... SET stock = stock - ? WHERE id = ? AND stock >= ?}, so two buyers can never both get the
+ * last unit. In front of it sits a striped in-memory ledger per product holding a recent stock snapshot,
+ * the purchases not yet written and the cart holds. Purchases that cannot succeed (sold out, or the rest is
+ * held by other carts) are turned away in memory without touching the hot row; the others are written by
+ * a single writer thread that drains everything queued meanwhile into one JDBC batch and transaction, so a
+ * burst on one product costs a round trip per batch instead of a row-lock wait per buyer.
+ *
+ * A buyer waits at most {@code inventory.purchase-timeout-ms} for the writer. A batch that fails, or a
+ * purchase still queued at shutdown, is answered with an error rather than a false "sold out".
+ *
+ * Cart holds last {@code inventory.hold-ttl-ms} unless renewed. They are kept per instance and only keep
+ * other buyers on this instance from taking units a cart is about to check out.
+ */
+@Component
+public class InventoryReservationLedger {
+
+    private static final int STRIPES = 64;
+
+    private static final String FISH_DECREMENT_SQL =
+            "UPDATE fish_ads SET stock = stock - ? " +
+            "WHERE id = ? AND stock >= ? AND COALESCE(minimum_quantity, 0) <= ? AND active_status = 'VERIFIED'";
+    // in_stock comes first: MySQL evaluates assignments left to right, so it must see the old stock
+    private static final String INDUSTRIAL_DECREMENT_SQL =
+            "UPDATE industrial_stuff SET in_stock = CASE WHEN stock > ? THEN TRUE ELSE FALSE END, " +
+            "stock = stock - ?, sold_count = COALESCE(sold_count, 0) + ? " +
+            "WHERE id = ? AND stock >= ? AND in_stock = TRUE AND active_status = 'VERIFIED'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter soldCounter;
+    private final Counter rejectedCounter;
+    private final Counter conflictCounter;
+    private final Counter batchesCounter;
+    private final Counter expiredHoldsCounter;
+
+    @Value("${inventory.hold-ttl-ms:900000}")
+    private long holdTtlMs;
+
+    // A snapshot older than this is re-read before it is used to turn a request away
+    @Value("${inventory.snapshot-max-age-ms:1000}")
+    private long snapshotMaxAgeMs;
+
+    @Value("${inventory.write-batch-size:200}")
+    private int writeBatchSize;
+
+    @Value("${inventory.write-queue-size:10000}")
+    private int writeQueueSize;
+
+    @Value("${inventory.purchase-timeout-ms:10000}")
+    private long purchaseTimeoutMs;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private BlockingQueue<PendingPurchase> writeQueue;
+    private Thread writer;
+    private volatile boolean running;
+
+    public InventoryReservationLedger(JdbcTemplate jdbcTemplate,
+                                      PlatformTransactionManager transactionManager,
+                                      MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+
+        this.soldCounter = Counter.builder("inventory.purchases")
+                .description("Purchase requests by outcome")
+                .tag("outcome", "sold")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("inventory.purchases")
+                .description("Purchase requests by outcome")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+        this.conflictCounter = Counter.builder("inventory.purchases")
+                .description("Purchase requests by outcome")
+                .tag("outcome", "conflict")
+                .register(meterRegistry);
+        this.batchesCounter = Counter.builder("inventory.write.batches")
+                .description("Transactions written by the inventory writer")
+                .register(meterRegistry);
+        this.expiredHoldsCounter = Counter.builder("inventory.holds.expired")
+                .description("Cart holds dropped after their TTL ran out")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void init() {
+        writeQueue = new LinkedBlockingQueue<>(writeQueueSize);
+        running = true;
+        startWriter();
+    }
+
+    // A writer that dies anyway is replaced, so queued buyers are not left without one
+    private synchronized void startWriter() {
+        if (!running) {
+            return;
+        }
+        writer = new Thread(this::writeLoop, "inventory-writer");
+        writer.setDaemon(true);
+        writer.setUncaughtExceptionHandler((thread, e) -> {
+            System.err.println("Inventory writer died, restarting: " + e);
+            startWriter();
+        });
+        writer.start();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        Thread current;
+        synchronized (this) {
+            running = false;
+            current = writer;
+        }
+        current.interrupt();
+        current.join(TimeUnit.SECONDS.toMillis(10));
+        // Nothing writes after this point; buyers still queued get an answer instead of waiting out the timeout
+        List<PendingPurchase> remaining = new ArrayList<>();
+        writeQueue.drainTo(remaining);
+        fail(remaining, new ServiceUnavailableException("Server is shutting down, please try again"));
+    }
+
+    /**
+     * Buy {@code quantity} units. Blocks until the decrement is committed; false when the product is sold
+     * out, not purchasable, or the remaining units are held by carts.
+     */
+    public boolean purchase(ProductKind kind, Long productId, int quantity) {
+        return purchase(kind, productId, quantity, null);
+    }
+
+    /**
+     * Buy {@code quantity} units on behalf of a holder, whose own hold on the product counts as available
+     * and is used up by the purchase.
+     */
+    public boolean purchase(ProductKind kind, Long productId, int quantity, String holder) {
+        if (productId == null || quantity <= 0) {
+            return false;
+        }
+        ProductKey key = new ProductKey(kind, productId);
+        refreshIfStale(key);
+
+        PendingPurchase purchase = new PendingPurchase(key, quantity, new CompletableFuture<>());
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(key);
+            long now = System.currentTimeMillis();
+            if (entry == null || entry.available(now, holder) < quantity) {
+                rejectedCounter.increment();
+                return false;
+            }
+            entry.pending += quantity;
+            if (holder != null) {
+                entry.consumeHold(holder, quantity);
+            }
+        }
+
+        if (!running || !writeQueue.offer(purchase)) {
+            synchronized (stripe) {
+                stripe.entries.get(key).pending -= quantity;
+            }
+            throw new ServiceUnavailableException(running
+                    ? "Too many purchases in progress, please try again in a moment"
+                    : "Server is shutting down, please try again");
+        }
+        // Shutdown may have drained the queue just before the offer
+        if (!running && writeQueue.remove(purchase)) {
+            fail(List.of(purchase), new ServiceUnavailableException("Server is shutting down, please try again"));
+        }
+
+        try {
+            return purchase.result().get(purchaseTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // The purchase stays queued and may still go through, so the buyer must not simply retry
+            System.err.println("Purchase of " + key + " not confirmed within " + purchaseTimeoutMs + " ms");
+            throw new ServiceUnavailableException(
+                    "Your purchase could not be confirmed in time. Please check your orders before trying again");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ServiceUnavailableException unavailable) {
+                throw unavailable;
+            }
+            throw new ServiceUnavailableException("Purchase could not be completed, please try again", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Purchase was interrupted, please check your orders");
+        }
+    }
+
+    /**
+     * Take the stock of a whole checkout inside the caller's transaction, as one JDBC batch of conditional
+     * decrements per product kind. Returns the lines that could not be taken; when there are any the caller
+     * must roll back, since the other lines are already decremented. The holder's holds on these products
+     * are dropped once the transaction commits.
+     */
+    public List<StockLine> reserveInTransaction(String holder, List<StockLine> lines) {
+        List<StockLine> failed = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        // Only a fresh snapshot may refuse a line up front; anything else is left to the database
+        for (StockLine line : lines) {
+            Stripe stripe = stripeFor(line.key());
+            synchronized (stripe) {
+                Entry entry = stripe.entries.get(line.key());
+                if (entry != null && now - entry.loadedAt < snapshotMaxAgeMs
+                        && entry.available(now, holder) < line.quantity()) {
+                    failed.add(line);
+                }
+            }
+        }
+        if (!failed.isEmpty()) {
+            rejectedCounter.increment(failed.size());
+            return failed;
+        }
+
+        Map<ProductKind, List<StockLine>> byKind = new LinkedHashMap<>();
+        for (StockLine line : lines) {
+            byKind.computeIfAbsent(line.kind(), k -> new ArrayList<>()).add(line);
+        }
+        for (Map.Entry<ProductKind, List<StockLine>> group : byKind.entrySet()) {
+            List<Object[]> args = new ArrayList<>();
+            for (StockLine line : group.getValue()) {
+                args.add(group.getKey().decrementArgs(line.productId(), line.quantity()));
+            }
+            int[] updated = jdbcTemplate.batchUpdate(group.getKey().decrementSql(), args);
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) {
+                    failed.add(group.getValue().get(i));
+                }
+            }
+        }
+        conflictCounter.increment(failed.size());
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                for (StockLine line : lines) {
+                    if (status == STATUS_COMMITTED) {
+                        soldCounter.increment();
+                        release(holder, line.kind(), line.productId());
+                    }
+                    markStale(line.key());
+                }
+            }
+        });
+        return failed;
+    }
+
+    /**
+     * Hold {@code quantity} units (the holder's total for this product, not an increment) for the hold TTL.
+     * Returns false and leaves any earlier hold unchanged when that many units are not available.
+     */
+    public boolean hold(String holder, ProductKind kind, Long productId, int quantity) {
+        ProductKey key = new ProductKey(kind, productId);
+        if (quantity <= 0) {
+            release(holder, kind, productId);
+            return true;
+        }
+        refreshIfStale(key);
+
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(key);
+            long now = System.currentTimeMillis();
+            if (entry == null || entry.available(now, holder) < quantity) {
+                return false;
+            }
+            entry.holds.put(holder, new Hold(quantity, now + holdTtlMs));
+            return true;
+        }
+    }
+
+    public void release(String holder, ProductKind kind, Long productId) {
+        ProductKey key = new ProductKey(kind, productId);
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(key);
+            if (entry != null) {
+                entry.holds.remove(holder);
+            }
+        }
+    }
+
+    /**
+     * Forget the stock snapshot after the stock was set directly (e.g. edited by the seller). Inside a
+     * transaction the snapshot is dropped again after commit, so a read in between cannot keep the old value.
+     */
+    public void invalidate(ProductKind kind, Long productId) {
+        ProductKey key = new ProductKey(kind, productId);
+        markStale(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markStale(key);
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.sweep-interval-ms:30000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (Entry entry : stripe.entries.values()) {
+                    int before = entry.holds.size();
+                    entry.holds.values().removeIf(hold -> hold.expiresAt() <= now);
+                    expiredHoldsCounter.increment(before - entry.holds.size());
+                }
+                // Idle products carry nothing but a snapshot, which is cheap to read again
+                stripe.entries.values().removeIf(entry -> entry.holds.isEmpty() && entry.pending == 0 && entry.writing == 0);
+            }
+        }
+    }
+
+    private void refreshIfStale(ProductKey key) {
+        Stripe stripe = stripeFor(key);
+        long readAt = System.currentTimeMillis();
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(key);
+            if (entry != null && readAt - entry.loadedAt < snapshotMaxAgeMs) {
+                return;
+            }
+        }
+
+        // Read outside the lock; a write-back in progress will install a newer snapshot itself
+        Integer stock = jdbcTemplate.queryForList("SELECT stock FROM " + key.kind().table + " WHERE id = ?",
+                Integer.class, key.id()).stream().findFirst().orElse(null);
+
+        synchronized (stripe) {
+            Entry entry = stripe.entries.computeIfAbsent(key, k -> new Entry());
+            if (entry.writing == 0 && entry.loadedAt < readAt) {
+                entry.stock = stock != null ? stock : 0;
+                entry.loadedAt = readAt;
+            }
+        }
+    }
+
+    private void markStale(ProductKey key) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(key);
+            if (entry != null) {
+                entry.loadedAt = 0;
+            }
+        }
+    }
+
+    private void writeLoop() {
+        while (running) {
+            List<PendingPurchase> batch = new ArrayList<>();
+            try {
+                PendingPurchase first = writeQueue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                writeQueue.drainTo(batch, writeBatchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable e) {
+                // Whatever went wrong, this batch's buyers get an answer and the writer keeps going
+                System.err.println("Inventory writer error: " + e);
+                fail(batch, e);
+            }
+        }
+    }
+
+    private void write(List<PendingPurchase> batch) {
+        for (PendingPurchase purchase : batch) {
+            Stripe stripe = stripeFor(purchase.key());
+            synchronized (stripe) {
+                stripe.entries.computeIfAbsent(purchase.key(), k -> new Entry()).writing++;
+            }
+        }
+
+        WriteResult result = null;
+        Throwable failure = null;
+        try {
+            result = transactionTemplate.execute(status -> writeInTransaction(batch));
+            batchesCounter.increment();
+        } catch (Throwable e) {
+            System.err.println("Error writing " + batch.size() + " purchase(s): " + e);
+            failure = e;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            PendingPurchase purchase = batch.get(i);
+            Stripe stripe = stripeFor(purchase.key());
+            synchronized (stripe) {
+                Entry entry = stripe.entries.get(purchase.key());
+                entry.pending -= purchase.quantity();
+                entry.writing--;
+                Integer stock = result != null ? result.stocks().get(purchase.key()) : null;
+                if (stock != null) {
+                    entry.stock = stock;
+                    entry.loadedAt = result.readAt();
+                } else {
+                    entry.loadedAt = 0;
+                }
+            }
+            if (failure != null) {
+                purchase.result().completeExceptionally(failure);
+            } else if (result.sold()[i]) {
+                soldCounter.increment();
+                purchase.result().complete(true);
+            } else {
+                conflictCounter.increment();
+                purchase.result().complete(false);
+            }
+        }
+    }
+
+    // Completes purchases that will never be written; ones already answered are left as they are
+    private void fail(List<PendingPurchase> purchases, Throwable cause) {
+        for (PendingPurchase purchase : purchases) {
+            if (purchase.result().completeExceptionally(cause)) {
+                Stripe stripe = stripeFor(purchase.key());
+                synchronized (stripe) {
+                    Entry entry = stripe.entries.get(purchase.key());
+                    if (entry != null) {
+                        entry.pending -= purchase.quantity();
+                        entry.loadedAt = 0;
+                    }
+                }
+            }
+        }
+    }
+
+    private WriteResult writeInTransaction(List<PendingPurchase> batch) {
+        Map<ProductKind, List<Integer>> positions = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            positions.computeIfAbsent(batch.get(i).key().kind(), k -> new ArrayList<>()).add(i);
+        }
+
+        boolean[] sold = new boolean[batch.size()];
+        Map<ProductKey, Integer> stocks = new HashMap<>();
+        for (Map.Entry<ProductKind, List<Integer>> group : positions.entrySet()) {
+            ProductKind kind = group.getKey();
+            List<Object[]> args = new ArrayList<>();
+            List<Long> ids = new ArrayList<>();
+            for (int position : group.getValue()) {
+                PendingPurchase purchase = batch.get(position);
+                args.add(kind.decrementArgs(purchase.key().id(), purchase.quantity()));
+                ids.add(purchase.key().id());
+            }
+
+            // Statements of one batch run in order, so later buyers of a product see the earlier decrements
+            int[] updated = jdbcTemplate.batchUpdate(kind.decrementSql(), args);
+            for (int i = 0; i < updated.length; i++) {
+                sold[group.getValue().get(i)] = updated[i] > 0;
+            }
+
+            List<Long> distinctIds = ids.stream().distinct().toList();
+            String placeholders = String.join(", ", Collections.nCopies(distinctIds.size(), "?"));
+            jdbcTemplate.query("SELECT id, stock FROM " + kind.table + " WHERE id IN (" + placeholders + ")",
+                    rs -> {
+                        stocks.put(new ProductKey(kind, rs.getLong("id")), rs.getInt("stock"));
+                    },
+                    distinctIds.toArray());
+        }
+        return new WriteResult(sold, stocks, System.currentTimeMillis());
+    }
+
+    private Stripe stripeFor(ProductKey key) {
+        return stripes[Math.floorMod(key.hashCode(), STRIPES)];
+    }
+
+    /**
+     * The kinds of product with stock; {@link #of} maps the cart's productType strings.
+     */
+    public enum ProductKind {
+        FISH("fish_ads"),
+        INDUSTRIAL("industrial_stuff");
+
+        private final String table;
+
+        ProductKind(String table) {
+            this.table = table;
+        }
+
+        public static ProductKind of(String productType) {
+            if ("fish".equalsIgnoreCase(productType)) {
+                return FISH;
+            }
+            if ("industrial".equalsIgnoreCase(productType)) {
+                return INDUSTRIAL;
+            }
+            throw new RuntimeException("Unknown product type: " + productType);
+        }
+
+        private String decrementSql() {
+            return this == FISH ? FISH_DECREMENT_SQL : INDUSTRIAL_DECREMENT_SQL;
+        }
+
+        private Object[] decrementArgs(Long id, int quantity) {
+            return this == FISH
+                    ? new Object[]{quantity, id, quantity, quantity}
+                    : new Object[]{quantity, quantity, quantity, id, quantity};
+        }
+    }
+
+    public record ProductKey(ProductKind kind, Long id) {
+    }
+
+    public record StockLine(ProductKind kind, Long productId, int quantity) {
+
+        ProductKey key() {
+            return new ProductKey(kind, productId);
+        }
+    }
+
+    private record Hold(int quantity, long expiresAt) {
+    }
+
+    private record PendingPurchase(ProductKey key, int quantity, CompletableFuture<Boolean> result) {
+    }
+
+    private record WriteResult(boolean[] sold, Map<ProductKey, Integer> stocks, long readAt) {
+    }
+
+    private static final class Entry {
+        // Stock as last read from the database, and when
+        private int stock;
+        private long loadedAt;
+        // Units accepted but not yet written, and how many of those are being written right now
+        private int pending;
+        private int writing;
+        private final Map<String, Hold> holds = new HashMap<>();
+
+        int available(long now, String holder) {
+            int held = 0;
+            for (Map.Entry<String, Hold> hold : holds.entrySet()) {
+                if (hold.getValue().expiresAt() > now && !hold.getKey().equals(holder)) {
+                    held += hold.getValue().quantity();
+                }
+            }
+            return stock - pending - held;
+        }
+
+        void consumeHold(String holder, int quantity) {
+            Hold hold = holds.get(holder);
+            if (hold == null) {
+                return;
+            }
+            if (hold.quantity() <= quantity) {
+                holds.remove(holder);
+            } else {
+                holds.put(holder, new Hold(hold.quantity() - quantity, hold.expiresAt()));
+            }
+        }
+    }
+
+    private static final class Stripe {
+        private final Map<ProductKey, Entry> entries = new HashMap<>();
+    }
+}
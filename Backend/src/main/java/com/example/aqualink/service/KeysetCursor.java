@@ -0,0 +1,78 @@
+package com.example.aqualink.service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.example.aqualink.dto.CursorPage;
+
+/**
+ * Position in a listing ordered by (timestamp DESC, id DESC), encoded as "timestamp_id".
+ * An empty cursor (both parts null) means the first page.
+ */
+record KeysetCursor(LocalDateTime timestamp, Long id) {
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
+    static KeysetCursor parse(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return new KeysetCursor(null, null);
+        }
+        int separator = cursor.lastIndexOf('_');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        try {
+            return new KeysetCursor(LocalDateTime.parse(cursor.substring(0, separator)),
+                    Long.parseLong(cursor.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Reads a listing through {@code query}, which gets the position to continue after and how many rows
+     * to fetch. With a cursor or a size the result is one page (DEFAULT_PAGE_SIZE rows unless sized); with
+     * neither it is the whole listing without a next cursor, which is what clients written before paging
+     * expect.
+     */
+    static <E, T> CursorPage<T> pageOrAll(String cursor, Integer size,
+                                          BiFunction<KeysetCursor, Pageable, List<E>> query,
+                                          Function<E, KeysetCursor> positionOf,
+                                          Function<List<E>, List<T>> convert) {
+        if (cursor == null && size == null) {
+            return new CursorPage<>(CursorPage.collectAll(
+                    next -> page(next, MAX_PAGE_SIZE, query, positionOf, convert)), null);
+        }
+        return page(cursor, size != null ? size : DEFAULT_PAGE_SIZE, query, positionOf, convert);
+    }
+
+    private static <E, T> CursorPage<T> page(String cursor, int size,
+                                             BiFunction<KeysetCursor, Pageable, List<E>> query,
+                                             Function<E, KeysetCursor> positionOf,
+                                             Function<List<E>, List<T>> convert) {
+        int pageSize = clampSize(size);
+        // One extra row is fetched only to know whether another page exists
+        List<E> rows = query.apply(parse(cursor), PageRequest.of(0, pageSize + 1));
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(convert.apply(rows), null);
+        }
+        List<E> pageRows = rows.subList(0, pageSize);
+        String nextCursor = positionOf.apply(pageRows.get(pageSize - 1)).format();
+        return new CursorPage<>(convert.apply(pageRows), nextCursor);
+    }
+
+    String format() {
+        return timestamp + "_" + id;
+    }
+}
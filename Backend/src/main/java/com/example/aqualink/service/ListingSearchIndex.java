@@ -0,0 +1,415 @@
+package com.example.aqualink.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.facet.FacetResult;
+import org.apache.lucene.facet.Facets;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.facet.FacetsCollectorManager;
+import org.apache.lucene.facet.FacetsConfig;
+import org.apache.lucene.facet.LabelAndValue;
+import org.apache.lucene.facet.sortedset.DefaultSortedSetDocValuesReaderState;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetCounts;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetField;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesReaderState;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.aqualink.dto.ListingSearchResultDTO;
+import com.example.aqualink.entity.ActiveStatus;
+import com.example.aqualink.entity.Fish;
+import com.example.aqualink.entity.IndustrialStuff;
+import com.example.aqualink.entity.User;
+import com.example.aqualink.entity.UserProfile;
+import com.example.aqualink.repository.FishRepository;
+import com.example.aqualink.repository.IndustrialStuffRepository;
+import com.example.aqualink.repository.ServiceRepository;
+import com.example.aqualink.repository.UserProfileRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * In-memory Lucene index of the listings the public marketplace shows: verified in-stock fish and
+ * industrial ads, and approved available services.
+ *
+ * Rebuilt from the database at startup and then kept up to date by the create/approve/stock paths.
+ * Like CoverageAreaIndex, changes made inside a transaction reach the index only after it commits.
+ * Matching is per word on name, category and description (exact, prefix and fuzzy, in that order of
+ * weight), and every search also returns facet counts for type, category and district.
+ */
+@Component
+@RequiredArgsConstructor
+public class ListingSearchIndex {
+
+    public static final String TYPE_FISH = "fish";
+    public static final String TYPE_INDUSTRIAL = "industrial";
+    public static final String TYPE_SERVICE = "service";
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String FIELD_KEY = "key";
+    private static final String FIELD_TYPE = "type";
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_NAME = "name";
+    private static final String FIELD_DESCRIPTION = "description";
+    private static final String FIELD_CATEGORY = "category";
+    private static final String FIELD_CATEGORY_EXACT = "category_exact";
+    private static final String FIELD_DISTRICT = "district";
+    private static final String FIELD_DISTRICT_EXACT = "district_exact";
+    private static final String FIELD_PRICE = "price";
+
+    private static final String[] FACET_DIMS = {FIELD_TYPE, FIELD_CATEGORY, FIELD_DISTRICT};
+    private static final int MAX_FACET_VALUES = 20;
+
+    // Name matches outrank category matches, which outrank description matches
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(
+            FIELD_NAME, 3.0f,
+            FIELD_CATEGORY, 2.0f,
+            FIELD_DESCRIPTION, 1.0f);
+
+    private final FishRepository fishRepository;
+    private final IndustrialStuffRepository industrialStuffRepository;
+    private final ServiceRepository serviceRepository;
+    private final UserProfileRepository userProfileRepository;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final FacetsConfig facetsConfig = new FacetsConfig();
+
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private volatile SortedSetDocValuesReaderState facetState;
+
+    @PostConstruct
+    void open() throws IOException {
+        writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+    }
+
+    // Runs after DatabaseSeeder (a CommandLineRunner), so seeded listings are included
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(20)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        try {
+            writer.deleteAll();
+            int count = 0;
+
+            for (Fish fish : fishRepository.findAvailableFishPage(null, null, null, null, null, Pageable.unpaged())) {
+                writer.updateDocument(keyTerm(TYPE_FISH, fish.getId()), toDocument(fishListing(fish)));
+                count++;
+            }
+            for (IndustrialStuff industrial : industrialStuffRepository.findAvailableIndustrialPage(
+                    null, null, null, null, null, null, Pageable.unpaged())) {
+                writer.updateDocument(keyTerm(TYPE_INDUSTRIAL, industrial.getId()), toDocument(industrialListing(industrial)));
+                count++;
+            }
+
+            List<com.example.aqualink.entity.Service> services = serviceRepository.findByApprovalStatusAndAvailable(
+                    com.example.aqualink.entity.Service.ApprovalStatus.APPROVED, true, Pageable.unpaged()).getContent();
+            Map<Long, String> districts = providerDistricts(services.stream()
+                    .map(com.example.aqualink.entity.Service::getServiceProviderId).distinct().toList());
+            for (com.example.aqualink.entity.Service service : services) {
+                Listing listing = serviceListing(service, districts.get(service.getServiceProviderId()));
+                writer.updateDocument(keyTerm(TYPE_SERVICE, service.getId()), toDocument(listing));
+                count++;
+            }
+
+            searcherManager.maybeRefresh();
+            System.out.println("Listing search index built: " + count + " listing(s)");
+        } catch (IOException e) {
+            System.err.println("Error building listing search index: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Add, refresh or drop a fish ad depending on whether it is currently publicly visible.
+     */
+    public void indexFish(Fish fish) {
+        boolean visible = fish.getActiveStatus() == ActiveStatus.VERIFIED
+                && fish.getStock() != null && fish.getStock() > 0;
+        apply(TYPE_FISH, fish.getId(), visible ? fishListing(fish) : null);
+    }
+
+    public void indexIndustrial(IndustrialStuff industrial) {
+        boolean visible = industrial.getActiveStatus() == ActiveStatus.VERIFIED
+                && industrial.getStock() != null && industrial.getStock() > 0
+                && !Boolean.FALSE.equals(industrial.getInStock());
+        apply(TYPE_INDUSTRIAL, industrial.getId(), visible ? industrialListing(industrial) : null);
+    }
+
+    public void indexService(com.example.aqualink.entity.Service service) {
+        boolean visible = service.getApprovalStatus() == com.example.aqualink.entity.Service.ApprovalStatus.APPROVED
+                && Boolean.TRUE.equals(service.getAvailable());
+        Listing listing = null;
+        if (visible) {
+            String district = providerDistricts(List.of(service.getServiceProviderId())).get(service.getServiceProviderId());
+            listing = serviceListing(service, district);
+        }
+        apply(TYPE_SERVICE, service.getId(), listing);
+    }
+
+    public void remove(String type, Long id) {
+        apply(type, id, null);
+    }
+
+    /**
+     * Ranked search over visible listings. Null or blank filters are ignored; a blank text matches
+     * everything, which turns the call into a faceted browse.
+     */
+    public ListingSearchResultDTO search(String text, String type, String category, String district,
+                                         Double minPrice, Double maxPrice, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = LuceneQueries.clampPage(page, pageSize);
+        Query query = buildQuery(text, type, category, district, minPrice, maxPrice);
+
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            int wanted = (pageNumber + 1) * pageSize;
+            FacetsCollectorManager.FacetsResult result =
+                    FacetsCollectorManager.search(searcher, query, wanted, new FacetsCollectorManager());
+
+            ScoreDoc[] scoreDocs = result.topDocs().scoreDocs;
+            StoredFields storedFields = searcher.storedFields();
+            List<ListingSearchResultDTO.Hit> hits = new ArrayList<>();
+            for (int i = pageNumber * pageSize; i < scoreDocs.length; i++) {
+                Document doc = storedFields.document(scoreDocs[i].doc);
+                Number price = doc.getField(FIELD_PRICE) != null ? doc.getField(FIELD_PRICE).numericValue() : null;
+                hits.add(new ListingSearchResultDTO.Hit(
+                        doc.get(FIELD_TYPE),
+                        doc.getField(FIELD_ID).numericValue().longValue(),
+                        doc.get(FIELD_NAME),
+                        doc.get(FIELD_CATEGORY),
+                        doc.get(FIELD_DISTRICT),
+                        price != null ? price.doubleValue() : null,
+                        scoreDocs[i].score));
+            }
+
+            return new ListingSearchResultDTO(hits, result.topDocs().totalHits.value, pageNumber, pageSize,
+                    facetCounts(searcher.getIndexReader(), result.facetsCollector()));
+        } catch (IOException e) {
+            throw new RuntimeException("Search failed: " + e.getMessage(), e);
+        } finally {
+            if (searcher != null) {
+                try {
+                    searcherManager.release(searcher);
+                } catch (IOException e) {
+                    // Nothing useful to do; the searcher is closed on the next refresh
+                }
+            }
+        }
+    }
+
+    /**
+     * IDs of the best matching listings of one type, best first.
+     */
+    public List<Long> searchIds(String type, String text, int limit) {
+        return search(text, type, null, null, null, null, 0, limit).getHits().stream()
+                .map(ListingSearchResultDTO.Hit::getId)
+                .toList();
+    }
+
+    private Query buildQuery(String text, String type, String category, String district,
+                             Double minPrice, Double maxPrice) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+
+        List<String> tokens = LuceneQueries.analyze(analyzer, FIELD_NAME, text);
+        if (tokens.isEmpty()) {
+            builder.add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+        }
+        // Every word has to match somewhere; how well it matches decides the ranking
+        for (String token : tokens) {
+            builder.add(LuceneQueries.wordQuery(token, FIELD_BOOSTS), BooleanClause.Occur.MUST);
+        }
+
+        if (hasText(type)) {
+            builder.add(new TermQuery(new Term(FIELD_TYPE, type.trim().toLowerCase(Locale.ROOT))), BooleanClause.Occur.FILTER);
+        }
+        if (hasText(category)) {
+            builder.add(new TermQuery(new Term(FIELD_CATEGORY_EXACT, normalize(category))), BooleanClause.Occur.FILTER);
+        }
+        if (hasText(district)) {
+            builder.add(new TermQuery(new Term(FIELD_DISTRICT_EXACT, normalize(district))), BooleanClause.Occur.FILTER);
+        }
+        if (minPrice != null || maxPrice != null) {
+            builder.add(DoublePoint.newRangeQuery(FIELD_PRICE,
+                    minPrice != null ? minPrice : Double.NEGATIVE_INFINITY,
+                    maxPrice != null ? maxPrice : Double.POSITIVE_INFINITY), BooleanClause.Occur.FILTER);
+        }
+        return builder.build();
+    }
+
+    private Map<String, Map<String, Integer>> facetCounts(IndexReader reader, FacetsCollector collector) throws IOException {
+        Map<String, Map<String, Integer>> result = new LinkedHashMap<>();
+        for (String dim : FACET_DIMS) {
+            result.put(dim, new LinkedHashMap<>());
+        }
+        if (reader.numDocs() == 0) {
+            return result;
+        }
+
+        Facets facets = new SortedSetDocValuesFacetCounts(facetState(reader), collector);
+        for (String dim : FACET_DIMS) {
+            FacetResult facet;
+            try {
+                facet = facets.getTopChildren(MAX_FACET_VALUES, dim);
+            } catch (IllegalArgumentException e) {
+                // No listing carries this dimension yet
+                continue;
+            }
+            if (facet != null) {
+                for (LabelAndValue labelAndValue : facet.labelValues) {
+                    result.get(dim).put(labelAndValue.label, labelAndValue.value.intValue());
+                }
+            }
+        }
+        return result;
+    }
+
+    // The ordinal map is per reader, so it is rebuilt only after the index actually changed
+    private SortedSetDocValuesReaderState facetState(IndexReader reader) throws IOException {
+        SortedSetDocValuesReaderState state = facetState;
+        if (state == null || state.getReader() != reader) {
+            state = new DefaultSortedSetDocValuesReaderState(reader, facetsConfig);
+            facetState = state;
+        }
+        return state;
+    }
+
+    private void apply(String type, Long id, Listing listing) {
+        AfterCommit.run(() -> {
+            try {
+                if (listing != null) {
+                    writer.updateDocument(keyTerm(type, id), toDocument(listing));
+                } else {
+                    writer.deleteDocuments(keyTerm(type, id));
+                }
+                searcherManager.maybeRefresh();
+            } catch (IOException e) {
+                System.err.println("Error updating search index for " + type + " " + id + ": " + e.getMessage());
+            }
+        });
+    }
+
+    private Document toDocument(Listing listing) throws IOException {
+        Document doc = new Document();
+        doc.add(new StringField(FIELD_KEY, listing.type() + ":" + listing.id(), Field.Store.NO));
+        doc.add(new StringField(FIELD_TYPE, listing.type(), Field.Store.YES));
+        doc.add(new StoredField(FIELD_ID, listing.id()));
+        doc.add(new SortedSetDocValuesFacetField(FIELD_TYPE, listing.type()));
+
+        if (hasText(listing.name())) {
+            doc.add(new TextField(FIELD_NAME, listing.name(), Field.Store.YES));
+        }
+        if (hasText(listing.description())) {
+            doc.add(new TextField(FIELD_DESCRIPTION, listing.description(), Field.Store.NO));
+        }
+        if (hasText(listing.category())) {
+            doc.add(new TextField(FIELD_CATEGORY, listing.category(), Field.Store.YES));
+            doc.add(new StringField(FIELD_CATEGORY_EXACT, normalize(listing.category()), Field.Store.NO));
+            doc.add(new SortedSetDocValuesFacetField(FIELD_CATEGORY, listing.category().trim()));
+        }
+        if (hasText(listing.district())) {
+            doc.add(new StringField(FIELD_DISTRICT, listing.district(), Field.Store.YES));
+            doc.add(new StringField(FIELD_DISTRICT_EXACT, normalize(listing.district()), Field.Store.NO));
+            doc.add(new SortedSetDocValuesFacetField(FIELD_DISTRICT, listing.district().trim()));
+        }
+        if (listing.price() != null) {
+            doc.add(new DoublePoint(FIELD_PRICE, listing.price()));
+            doc.add(new StoredField(FIELD_PRICE, listing.price()));
+        }
+        return facetsConfig.build(doc);
+    }
+
+    private Listing fishListing(Fish fish) {
+        return new Listing(TYPE_FISH, fish.getId(), fish.getName(), fish.getDescription(), null,
+                districtOf(fish.getUser()), fish.getPrice());
+    }
+
+    private Listing industrialListing(IndustrialStuff industrial) {
+        return new Listing(TYPE_INDUSTRIAL, industrial.getId(), industrial.getName(), industrial.getDescription(),
+                industrial.getCategory(), districtOf(industrial.getUser()), industrial.getPrice());
+    }
+
+    private Listing serviceListing(com.example.aqualink.entity.Service service, String district) {
+        return new Listing(TYPE_SERVICE, service.getId(), service.getName(), service.getDescription(),
+                service.getCategory(), district, service.getPrice() != null ? service.getPrice().doubleValue() : null);
+    }
+
+    private Map<Long, String> providerDistricts(List<Long> providerIds) {
+        Map<Long, String> districts = new HashMap<>();
+        if (providerIds.isEmpty()) {
+            return districts;
+        }
+        for (UserProfile profile : userProfileRepository.findByUserIds(providerIds)) {
+            districts.put(profile.getUser().getId(), profile.getAddressDistrict());
+        }
+        return districts;
+    }
+
+    private static String districtOf(User user) {
+        try {
+            return user != null && user.getUserProfile() != null ? user.getUserProfile().getAddressDistrict() : null;
+        } catch (RuntimeException e) {
+            // Profile not loadable outside a session; index without a district
+            return null;
+        }
+    }
+
+    private static Term keyTerm(String type, Long id) {
+        return new Term(FIELD_KEY, type + ":" + id);
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private record Listing(String type, Long id, String name, String description, String category,
+                           String district, Double price) {
+    }
+}
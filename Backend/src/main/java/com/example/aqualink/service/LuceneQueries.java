@@ -0,0 +1,75 @@
+package com.example.aqualink.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+
+/**
+ * Search-text handling shared by the Lucene indexes (ListingSearchIndex, BlogSearchIndex).
+ */
+final class LuceneQueries {
+
+    private LuceneQueries() {
+    }
+
+    /**
+     * The words of a search text as the analyzer indexes them in {@code field}; empty for blank text.
+     */
+    static List<String> analyze(Analyzer analyzer, String field, String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        try (TokenStream stream = analyzer.tokenStream(field, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                tokens.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new RuntimeException("Could not analyze search text", e);
+        }
+        return tokens;
+    }
+
+    /**
+     * One search word against each field: exact, prefix and fuzzy matches, in that order of weight,
+     * scaled by the field's boost. Words shorter than 3 letters are not matched fuzzily.
+     */
+    static Query wordQuery(String token, Map<String, Float> fieldBoosts) {
+        BooleanQuery.Builder word = new BooleanQuery.Builder();
+        int maxEdits = token.length() >= 6 ? 2 : token.length() >= 3 ? 1 : 0;
+        for (Map.Entry<String, Float> field : fieldBoosts.entrySet()) {
+            Term term = new Term(field.getKey(), token);
+            float boost = field.getValue();
+            word.add(new BoostQuery(new TermQuery(term), boost * 2), BooleanClause.Occur.SHOULD);
+            word.add(new BoostQuery(new PrefixQuery(term), boost), BooleanClause.Occur.SHOULD);
+            if (maxEdits > 0) {
+                word.add(new BoostQuery(new FuzzyQuery(term, maxEdits, 1), boost / 2), BooleanClause.Occur.SHOULD);
+            }
+        }
+        return word.build();
+    }
+
+    /**
+     * A page number from the request, kept where (page + 1) * pageSize, the number of hits to collect,
+     * still fits in an int.
+     */
+    static int clampPage(int page, int pageSize) {
+        return Math.max(0, Math.min(page, Integer.MAX_VALUE / pageSize - 1));
+    }
+}
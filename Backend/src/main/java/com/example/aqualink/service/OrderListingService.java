@@ -0,0 +1,131 @@
+package com.example.aqualink.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.aqualink.dto.CursorPage;
+import com.example.aqualink.dto.OrderItemRow;
+import com.example.aqualink.dto.OrderSummaryDTO;
+import com.example.aqualink.entity.Order;
+import com.example.aqualink.entity.User;
+import com.example.aqualink.repository.OrderItemRepository;
+import com.example.aqualink.repository.OrderRepository;
+import com.example.aqualink.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Keyset-paginated order listings for buyers and sellers.
+ *
+ * Each page costs two statements (orders with their buyer, then the items of just those orders),
+ * independent of how many orders exist in total. The cursor is "orderDateTime_id" of the last row
+ * of the previous page. A request with neither cursor nor size gets every order.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class OrderListingService {
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final UserRepository userRepository;
+
+    public CursorPage<OrderSummaryDTO> getBuyerOrders(String buyerEmail, Order.OrderStatus status,
+                                                      String cursor, Integer size) {
+        User buyer = userRepository.findByEmail(buyerEmail)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return listOrders(cursor, size, (after, limit) -> orderRepository.findBuyerOrderPage(buyer.getId(), status,
+                after.timestamp(), after.id(), limit));
+    }
+
+    public CursorPage<OrderSummaryDTO> getSellerOrders(String sellerEmail, Order.OrderStatus status,
+                                                       String cursor, Integer size) {
+        User seller = userRepository.findByEmail(sellerEmail)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return listOrders(cursor, size, (after, limit) -> mergeNewestFirst(
+                orderRepository.findSellerOrderPage(seller.getId(), status, after.timestamp(), after.id(), limit),
+                orderRepository.findLegacySellerOrderPage(seller.getId(), status, after.timestamp(), after.id(), limit),
+                limit.getPageSize()));
+    }
+
+    /**
+     * The orders of two newest-first lists as one, each order once, cut to {@code limit}. Both keyset
+     * queries fetch a full page after the same cursor, so their merge is the right page of the union.
+     */
+    static List<Order> mergeNewestFirst(List<Order> first, List<Order> second, int limit) {
+        if (second.isEmpty() && first.size() <= limit) {
+            return first;
+        }
+        Map<Long, Order> byId = new LinkedHashMap<>();
+        for (Order order : first) {
+            byId.put(order.getId(), order);
+        }
+        for (Order order : second) {
+            byId.putIfAbsent(order.getId(), order);
+        }
+        return byId.values().stream()
+                .sorted(Comparator.comparing(Order::getOrderDateTime, Comparator.nullsLast(Comparator.reverseOrder()))
+                        .thenComparing(Order::getId, Comparator.reverseOrder()))
+                .limit(limit)
+                .toList();
+    }
+
+    private CursorPage<OrderSummaryDTO> listOrders(String cursor, Integer size,
+                                                   BiFunction<KeysetCursor, Pageable, List<Order>> query) {
+        return KeysetCursor.pageOrAll(cursor, size, query,
+                order -> new KeysetCursor(order.getOrderDateTime(), order.getId()),
+                this::toSummaries);
+    }
+
+    private List<OrderSummaryDTO> toSummaries(List<Order> orders) {
+        Map<Long, List<OrderSummaryDTO.ItemSummary>> itemsByOrder = new HashMap<>();
+        if (!orders.isEmpty()) {
+            List<Long> orderIds = orders.stream().map(Order::getId).toList();
+            for (OrderItemRow row : orderItemRepository.findRowsByOrderIds(orderIds)) {
+                itemsByOrder.computeIfAbsent(row.getOrderId(), id -> new ArrayList<>()).add(toItemSummary(row));
+            }
+        }
+
+        List<OrderSummaryDTO> summaries = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            summaries.add(toSummary(order, itemsByOrder.getOrDefault(order.getId(), new ArrayList<>())));
+        }
+        return summaries;
+    }
+
+    private OrderSummaryDTO toSummary(Order order, List<OrderSummaryDTO.ItemSummary> items) {
+        User buyer = order.getBuyerUser();
+        OrderSummaryDTO dto = new OrderSummaryDTO();
+        dto.setId(order.getId());
+        dto.setOrderDateTime(order.getOrderDateTime());
+        dto.setAddressPlace(order.getAddressPlace());
+        dto.setAddressStreet(order.getAddressStreet());
+        dto.setAddressDistrict(order.getAddressDistrict());
+        dto.setAddressTown(order.getAddressTown());
+        dto.setOrderStatus(order.getOrderStatus() != null ? order.getOrderStatus().name() : null);
+        dto.setTotalAmount(order.getTotalAmount());
+        dto.setAcceptedDeliveryQuoteId(order.getAcceptedDeliveryQuoteId());
+        dto.setBuyerUser(new OrderSummaryDTO.BuyerSummary(
+                buyer.getId(), buyer.getName(), buyer.getEmail(), buyer.getPhoneNumber()));
+        dto.setOrderItems(items);
+        return dto;
+    }
+
+    private OrderSummaryDTO.ItemSummary toItemSummary(OrderItemRow row) {
+        OrderSummaryDTO.ProductSummary product = null;
+        if (row.getProductId() != null) {
+            product = new OrderSummaryDTO.ProductSummary(row.getProductId(), row.getProductName(),
+                    row.getProductType(), new OrderSummaryDTO.SellerRef(row.getSellerId()));
+        }
+        return new OrderSummaryDTO.ItemSummary(row.getOrderItemId(), row.getQuantity(), row.getPrice(), product);
+    }
+}
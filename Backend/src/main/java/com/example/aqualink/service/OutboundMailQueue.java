@@ -0,0 +1,204 @@
+package com.example.aqualink.service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessagePreparator;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Outbound mail queue: messages are built and sent on a small pool of mail threads, so callers (e.g. the
+ * OTP request) never wait for an SMTP handshake.
+ *
+ * Each mail thread keeps its SMTP connection open and reuses it for the next message instead of
+ * connecting per send; connections idle longer than {@code mail.queue.idle-timeout-ms} are closed before
+ * reuse. A failed send is retried with exponential backoff (plus jitter) up to
+ * {@code mail.queue.max-attempts} times, except for rejected addresses, which cannot succeed later.
+ */
+@Service
+public class OutboundMailQueue {
+
+    private final JavaMailSender mailSender;
+
+    @Value("${mail.queue.threads:2}")
+    private int threads;
+
+    @Value("${mail.queue.capacity:500}")
+    private int capacity;
+
+    @Value("${mail.queue.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${mail.queue.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${mail.queue.idle-timeout-ms:60000}")
+    private long idleTimeoutMs;
+
+    private ScheduledThreadPoolExecutor executor;
+    // Queued plus retry-scheduled messages; the executor's own queue is unbounded
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final ThreadLocal<PooledTransport> transports = new ThreadLocal<>();
+    private final Set<PooledTransport> openTransports = ConcurrentHashMap.newKeySet();
+
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+
+    public OutboundMailQueue(JavaMailSender mailSender, MeterRegistry meterRegistry) {
+        this.mailSender = mailSender;
+        this.sentCounter = Counter.builder("mail.queue.sent")
+                .description("Messages handed to the SMTP server")
+                .register(meterRegistry);
+        this.retriedCounter = Counter.builder("mail.queue.retried")
+                .description("Send attempts that failed and were scheduled again")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("mail.queue.failed")
+                .description("Messages dropped after their last attempt failed")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, "mail-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Give messages already queued a moment to go out, then close the pooled connections
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        executor.shutdownNow();
+        for (PooledTransport transport : openTransports) {
+            transport.close();
+        }
+    }
+
+    /**
+     * Queue a message for sending. Returns immediately; throws when the queue is full so the caller can
+     * report the failure instead of silently losing the message.
+     */
+    public void enqueue(String description, MimeMessagePreparator preparator) {
+        if (pending.incrementAndGet() > capacity) {
+            pending.decrementAndGet();
+            throw new RuntimeException("Mail queue is full, could not queue " + description);
+        }
+        executor.execute(() -> attempt(description, preparator, 1));
+    }
+
+    private void attempt(String description, MimeMessagePreparator preparator, int attempt) {
+        try {
+            MimeMessage message = mailSender.createMimeMessage();
+            preparator.prepare(message);
+            send(message);
+            sentCounter.increment();
+            pending.decrementAndGet();
+        } catch (Exception e) {
+            if (attempt >= maxAttempts || !isRetryable(e) || executor.isShutdown()) {
+                pending.decrementAndGet();
+                failedCounter.increment();
+                System.err.println("Giving up on " + description + " after " + attempt + " attempt(s): " + e.getMessage());
+                return;
+            }
+            long backoff = initialBackoffMs << (attempt - 1);
+            long delay = backoff + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+            retriedCounter.increment();
+            System.err.println("Error sending " + description + " (attempt " + attempt + "), retrying in "
+                    + delay + " ms: " + e.getMessage());
+            executor.schedule(() -> attempt(description, preparator, attempt + 1), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void send(MimeMessage message) throws MessagingException {
+        if (!(mailSender instanceof JavaMailSenderImpl sender)) {
+            mailSender.send(message);
+            return;
+        }
+
+        PooledTransport pooled = transports.get();
+        if (pooled != null && pooled.isStale(idleTimeoutMs)) {
+            pooled.close();
+            openTransports.remove(pooled);
+            pooled = null;
+        }
+        if (pooled == null) {
+            pooled = PooledTransport.connect(sender);
+            transports.set(pooled);
+            openTransports.add(pooled);
+        }
+
+        message.saveChanges();
+        try {
+            pooled.transport.sendMessage(message, message.getAllRecipients());
+            pooled.lastUsed = System.currentTimeMillis();
+        } catch (MessagingException e) {
+            // The connection may be broken; the next attempt starts with a fresh one
+            pooled.close();
+            transports.remove();
+            openTransports.remove(pooled);
+            throw e;
+        }
+    }
+
+    private static boolean isRetryable(Exception e) {
+        if (e instanceof AddressException) {
+            return false;
+        }
+        if (e instanceof SendFailedException sendFailed) {
+            return sendFailed.getInvalidAddresses() == null || sendFailed.getInvalidAddresses().length == 0;
+        }
+        return true;
+    }
+
+    private static final class PooledTransport {
+        private final Transport transport;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        static PooledTransport connect(JavaMailSenderImpl sender) throws MessagingException {
+            Transport transport = sender.getSession().getTransport(
+                    sender.getProtocol() != null ? sender.getProtocol() : "smtp");
+            transport.connect(sender.getHost(), sender.getPort(), sender.getUsername(), sender.getPassword());
+            return new PooledTransport(transport);
+        }
+
+        boolean isStale(long idleTimeoutMs) {
+            return !transport.isConnected() || System.currentTimeMillis() - lastUsed > idleTimeoutMs;
+        }
+
+        void close() {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                // Already broken; nothing left to release
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.aqualink.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.aqualink.dto.ProductStats;
+import com.example.aqualink.repository.OrderItemRepository;
+import com.example.aqualink.repository.ReviewRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Rating, review count and units sold for a whole listing at once: two grouped queries per
+ * chunk of product IDs instead of three aggregate queries per product.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ProductStatsService {
+
+    // Keeps the IN list well below driver/database parameter limits
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    private final ReviewRepository reviewRepository;
+    private final OrderItemRepository orderItemRepository;
+
+    /**
+     * Stats keyed by product ID for products of one type ("fish" or "industrial", as stored on order
+     * items). Every requested ID is present; products without reviews get rating 0 and count 0, products
+     * never ordered get a null totalSold.
+     */
+    public Map<Long, ProductStats> getStats(Collection<Long> productIds, String productType) {
+        Map<Long, ProductStats> stats = new HashMap<>();
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(productIds));
+        for (Long id : ids) {
+            stats.put(id, new ProductStats(id));
+        }
+
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            List<Long> chunk = ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size()));
+
+            for (ProductStats row : reviewRepository.findReviewStatsByProductIds(chunk)) {
+                ProductStats target = stats.get(row.getProductId());
+                target.setAverageRating(row.getAverageRating() != null ? row.getAverageRating() : 0.0);
+                target.setReviewCount(row.getReviewCount());
+            }
+            for (ProductStats row : orderItemRepository.findTotalSoldByProductIds(chunk, productType)) {
+                stats.get(row.getProductId()).setTotalSold(row.getTotalSold());
+            }
+        }
+        return stats;
+    }
+
+    public ProductStats getStats(Long productId, String productType) {
+        return getStats(List.of(productId), productType).get(productId);
+    }
+}
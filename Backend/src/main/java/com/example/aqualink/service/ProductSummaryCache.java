@@ -0,0 +1,110 @@
+package com.example.aqualink.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.aqualink.dto.ProductSummary;
+import com.example.aqualink.repository.FishRepository;
+import com.example.aqualink.repository.IndustrialStuffRepository;
+import com.example.aqualink.service.InventoryReservationLedger.ProductKey;
+import com.example.aqualink.service.InventoryReservationLedger.ProductKind;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * In-process cache of the product fields cart lines copy (price, name, seller and business name), keyed by
+ * product kind and ID. Misses are loaded with one projection query per batch of IDs instead of a Fish or
+ * IndustrialStuff entity graph per line, so showing a cart costs at most one statement per product kind.
+ *
+ * Entries are evicted when a product is deleted and otherwise reloaded after
+ * {@code product.summary-cache.ttl-ms}, which also bounds how long a renamed business keeps its old name in
+ * carts. Products that do not exist are not cached.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductSummaryCache {
+
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    private final FishRepository fishRepository;
+    private final IndustrialStuffRepository industrialStuffRepository;
+
+    private final Map<ProductKey, Entry> summaries = new ConcurrentHashMap<>();
+
+    @Value("${product.summary-cache.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${product.summary-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    public Optional<ProductSummary> find(ProductKind kind, Long productId) {
+        return Optional.ofNullable(getAll(kind, List.of(productId)).get(productId));
+    }
+
+    /**
+     * Summaries of the given products by ID; IDs of products that no longer exist are left out.
+     */
+    public Map<Long, ProductSummary> getAll(ProductKind kind, Collection<Long> productIds) {
+        long now = System.currentTimeMillis();
+        Map<Long, ProductSummary> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(productIds)) {
+            Entry entry = summaries.get(new ProductKey(kind, id));
+            if (entry == null || entry.isExpired(now, ttlMs)) {
+                missing.add(id);
+            } else {
+                found.put(id, entry.summary());
+            }
+        }
+
+        for (int from = 0; from < missing.size(); from += MAX_IDS_PER_QUERY) {
+            List<Long> chunk = missing.subList(from, Math.min(from + MAX_IDS_PER_QUERY, missing.size()));
+            for (ProductSummary summary : load(kind, chunk)) {
+                found.put(summary.getProductId(), summary);
+                put(kind, summary, now);
+            }
+        }
+        return found;
+    }
+
+    public void evict(ProductKind kind, Long productId) {
+        summaries.remove(new ProductKey(kind, productId));
+    }
+
+    @Scheduled(fixedDelayString = "${product.summary-cache.sweep-interval-ms:60000}")
+    public void sweepExpired() {
+        long now = System.currentTimeMillis();
+        summaries.values().removeIf(entry -> entry.isExpired(now, ttlMs));
+    }
+
+    private List<ProductSummary> load(ProductKind kind, List<Long> ids) {
+        return kind == ProductKind.FISH
+                ? fishRepository.findSummariesByIds(ids)
+                : industrialStuffRepository.findSummariesByIds(ids);
+    }
+
+    private void put(ProductKind kind, ProductSummary summary, long loadedAt) {
+        ProductKey key = new ProductKey(kind, summary.getProductId());
+        // When full, lookups keep going to the database until the sweep makes room
+        if (summaries.size() < maxEntries || summaries.containsKey(key)) {
+            summaries.put(key, new Entry(summary, loadedAt));
+        }
+    }
+
+    private record Entry(ProductSummary summary, long loadedAt) {
+
+        boolean isExpired(long now, long ttlMs) {
+            return now - loadedAt >= ttlMs;
+        }
+    }
+}
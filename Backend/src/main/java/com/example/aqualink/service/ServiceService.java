@@ -6,12 +6,14 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.example.aqualink.dto.BookingUpdateRequestDTO;
+import com.example.aqualink.dto.ListingSearchResultDTO;
 import com.example.aqualink.dto.ServiceBookingRequestDTO;
 import com.example.aqualink.dto.ServiceRequestDTO;
 import com.example.aqualink.dto.ServiceReviewRequestDTO;
@@ -34,6 +36,7 @@ public class ServiceService {
     private final ServiceReviewRepository reviewRepository;
     private final FileUploadService fileUploadService;
     private final UserProfileRepository userProfileRepository;
+    private final ListingSearchIndex listingSearchIndex;
 
     // Public Methods (for customers)
     public Page<com.example.aqualink.entity.Service> getAllApprovedServices(Pageable pageable) {
@@ -44,9 +47,20 @@ public class ServiceService {
     }
 
     public Page<com.example.aqualink.entity.Service> searchApprovedServices(String search, Pageable pageable) {
-        Page<com.example.aqualink.entity.Service> services = serviceRepository.searchApprovedServices(search, pageable);
-        populateDistricts(services.getContent());
-        return services;
+        // Ranked page of IDs from the search index, then one query for the rows themselves
+        ListingSearchResultDTO result = listingSearchIndex.search(search, ListingSearchIndex.TYPE_SERVICE,
+                null, null, null, null, pageable.getPageNumber(), pageable.getPageSize());
+        List<Long> ids = result.getHits().stream().map(ListingSearchResultDTO.Hit::getId).toList();
+
+        Map<Long, com.example.aqualink.entity.Service> servicesById = serviceRepository.findAllById(ids).stream()
+                .collect(java.util.stream.Collectors.toMap(com.example.aqualink.entity.Service::getId, s -> s));
+        List<com.example.aqualink.entity.Service> services = ids.stream()
+                .map(servicesById::get)
+                .filter(s -> s != null)
+                .toList();
+
+        populateDistricts(services);
+        return new PageImpl<>(services, pageable, result.getTotalHits());
     }
 
     public com.example.aqualink.entity.Service getApprovedServiceById(Long id) {
@@ -92,7 +106,9 @@ public class ServiceService {
             }
         }
 
-        return serviceRepository.save(service);
+        com.example.aqualink.entity.Service savedService = serviceRepository.save(service);
+        listingSearchIndex.indexService(savedService);
+        return savedService;
     }
 
     public com.example.aqualink.entity.Service updateService(Long id, ServiceRequestDTO request, Long serviceProviderId) {
@@ -118,7 +134,9 @@ public class ServiceService {
             service.setApprovedBy(null);
         }
 
-        return serviceRepository.save(service);
+        com.example.aqualink.entity.Service savedService = serviceRepository.save(service);
+        listingSearchIndex.indexService(savedService);
+        return savedService;
     }
 
     public Page<com.example.aqualink.entity.Service> getServiceProviderServices(Long serviceProviderId, Pageable pageable) {
@@ -230,7 +248,9 @@ public class ServiceService {
         service.setApprovedBy(adminId);
         service.setRejectionReason(null);
 
-        return serviceRepository.save(service);
+        com.example.aqualink.entity.Service savedService = serviceRepository.save(service);
+        listingSearchIndex.indexService(savedService);
+        return savedService;
     }
 
     public com.example.aqualink.entity.Service rejectService(Long id, String reason, Long adminId) {
@@ -241,7 +261,9 @@ public class ServiceService {
         service.setRejectionReason(reason);
         service.setApprovedBy(adminId);
 
-        return serviceRepository.save(service);
+        com.example.aqualink.entity.Service savedService = serviceRepository.save(service);
+        listingSearchIndex.indexService(savedService);
+        return savedService;
     }
 
     private void populateDistricts(List<com.example.aqualink.entity.Service> services) {
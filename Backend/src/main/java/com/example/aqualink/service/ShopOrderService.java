@@ -12,6 +12,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -28,9 +30,13 @@ public class ShopOrderService {
      * Get all orders containing products from a specific shop owner
      */
     public List<ShopOrderDTO> getOrdersForShopOwner(String shopOwnerNic) {
-        List<Order> orders = orderRepository.findOrdersBySellerNic(shopOwnerNic);
+        Long sellerId = findSellerId(shopOwnerNic);
+        List<Order> orders = OrderListingService.mergeNewestFirst(
+                sellerId != null ? orderRepository.findOrdersBySellerId(sellerId) : List.of(),
+                orderRepository.findLegacyOrdersBySellerNic(shopOwnerNic),
+                Integer.MAX_VALUE);
         return orders.stream()
-                .map(order -> convertToShopOrderDTO(order, shopOwnerNic))
+                .map(order -> convertToShopOrderDTO(order, shopOwnerNic, sellerId))
                 .collect(Collectors.toList());
     }
 
@@ -38,9 +44,13 @@ public class ShopOrderService {
      * Get orders for shop owner filtered by status
      */
     public List<ShopOrderDTO> getOrdersByShopOwnerAndStatus(String shopOwnerNic, List<Order.OrderStatus> statuses) {
-        List<Order> orders = orderRepository.findOrdersBySellerNicAndOrderStatuses(shopOwnerNic, statuses);
+        Long sellerId = findSellerId(shopOwnerNic);
+        List<Order> orders = OrderListingService.mergeNewestFirst(
+                sellerId != null ? orderRepository.findOrdersBySellerIdAndOrderStatuses(sellerId, statuses) : List.of(),
+                orderRepository.findLegacyOrdersBySellerNicAndOrderStatuses(shopOwnerNic, statuses),
+                Integer.MAX_VALUE);
         return orders.stream()
-                .map(order -> convertToShopOrderDTO(order, shopOwnerNic))
+                .map(order -> convertToShopOrderDTO(order, shopOwnerNic, sellerId))
                 .collect(Collectors.toList());
     }
 
@@ -80,9 +90,9 @@ public class ShopOrderService {
         Order order = orderOpt.get();
         
         // Verify the shop owner has products in this order
+        Long sellerId = findSellerId(shopOwnerNic);
         boolean hasProducts = order.getOrderItems().stream()
-                .anyMatch(item -> item.getProduct() != null && 
-                         shopOwnerNic.equals(item.getProduct().getNicNumber()));
+                .anyMatch(item -> isSellerItem(item, shopOwnerNic, sellerId));
         
         if (!hasProducts) {
             throw new RuntimeException("Unauthorized: This order does not contain your products");
@@ -100,7 +110,7 @@ public class ShopOrderService {
             }
             
             Order savedOrder = orderRepository.save(order);
-            return convertToShopOrderDTO(savedOrder, shopOwnerNic);
+            return convertToShopOrderDTO(savedOrder, shopOwnerNic, sellerId);
         } else {
             throw new RuntimeException("Invalid status transition from " + order.getOrderStatus() + " to " + newStatus);
         }
@@ -118,9 +128,9 @@ public class ShopOrderService {
         Order order = orderOpt.get();
         
         // Verify the shop owner has products in this order
+        Long sellerId = findSellerId(shopOwnerNic);
         boolean hasProducts = order.getOrderItems().stream()
-                .anyMatch(item -> item.getProduct() != null && 
-                         shopOwnerNic.equals(item.getProduct().getNicNumber()));
+                .anyMatch(item -> isSellerItem(item, shopOwnerNic, sellerId));
         
         if (!hasProducts) {
             throw new RuntimeException("Unauthorized: This order does not contain your products");
@@ -130,37 +140,43 @@ public class ShopOrderService {
         order.setOrderStatus(Order.OrderStatus.SHIPPED);
         
         Order savedOrder = orderRepository.save(order);
-        return convertToShopOrderDTO(savedOrder, shopOwnerNic);
+        return convertToShopOrderDTO(savedOrder, shopOwnerNic, sellerId);
     }
 
     /**
      * Get order statistics for shop owner
      */
     public ShopOrderStatsDTO getShopOrderStats(String shopOwnerNic) {
-        List<Order> allOrders = orderRepository.findOrdersBySellerNic(shopOwnerNic);
-        
-        long totalOrders = allOrders.size();
-        long pendingOrders = allOrders.stream()
-                .filter(o -> List.of(Order.OrderStatus.DELIVERY_PENDING, Order.OrderStatus.ORDER_PENDING).contains(o.getOrderStatus()))
-                .count();
-        long shippedOrders = allOrders.stream()
-                .filter(o -> Order.OrderStatus.SHIPPED.equals(o.getOrderStatus()))
-                .count();
-        long completedOrders = allOrders.stream()
-                .filter(o -> Order.OrderStatus.DELIVERED.equals(o.getOrderStatus()))
-                .count();
-        long cancelledOrders = allOrders.stream()
-                .filter(o -> Order.OrderStatus.CANCELED.equals(o.getOrderStatus()))
-                .count();
+        long totalOrders = 0;
+        long pendingOrders = 0;
+        long shippedOrders = 0;
+        long completedOrders = 0;
+        long cancelledOrders = 0;
+        double totalRevenue = 0;
 
-        // Calculate total revenue from completed orders
-        double totalRevenue = allOrders.stream()
-                .filter(o -> Order.OrderStatus.DELIVERED.equals(o.getOrderStatus()))
-                .flatMap(o -> o.getOrderItems().stream())
-                .filter(item -> item.getProduct() != null && 
-                               shopOwnerNic.equals(item.getProduct().getNicNumber()))
-                .mapToDouble(item -> item.getPrice().doubleValue() * item.getQuantity())
-                .sum();
+        // Grouped rows per status (checkout items, then legacy ones) instead of every order and item of the seller
+        Long sellerId = findSellerId(shopOwnerNic);
+        List<SellerOrderStatusTotals> rows = new ArrayList<>(orderRepository.sumLegacySellerOrdersByStatus(shopOwnerNic));
+        if (sellerId != null) {
+            rows.addAll(orderRepository.sumSellerOrdersByStatus(sellerId));
+        }
+        for (SellerOrderStatusTotals totals : rows) {
+            long count = totals.getOrderCount();
+            totalOrders += count;
+            if (totals.getOrderStatus() == null) {
+                continue;
+            }
+            switch (totals.getOrderStatus()) {
+                case DELIVERY_PENDING, ORDER_PENDING -> pendingOrders += count;
+                case SHIPPED -> shippedOrders += count;
+                case DELIVERED -> {
+                    completedOrders += count;
+                    // Revenue counts only the seller's own items in completed orders
+                    totalRevenue += totals.getItemsAmount() != null ? totals.getItemsAmount().doubleValue() : 0;
+                }
+                case CANCELED -> cancelledOrders += count;
+            }
+        }
 
         return new ShopOrderStatsDTO(
                 totalOrders,
@@ -176,14 +192,16 @@ public class ShopOrderService {
      * Get orders by date range for shop owner
      */
     public List<ShopOrderDTO> getOrdersByDateRange(String shopOwnerNic, LocalDate startDate, LocalDate endDate) {
-        List<Order> allOrders = orderRepository.findOrdersBySellerNic(shopOwnerNic);
-        
-        return allOrders.stream()
-                .filter(order -> {
-                    LocalDate orderDate = order.getOrderDateTime().toLocalDate();
-                    return !orderDate.isBefore(startDate) && !orderDate.isAfter(endDate);
-                })
-                .map(order -> convertToShopOrderDTO(order, shopOwnerNic))
+        // Both dates are inclusive
+        LocalDateTime from = startDate.atStartOfDay();
+        LocalDateTime to = endDate.plusDays(1).atStartOfDay();
+        Long sellerId = findSellerId(shopOwnerNic);
+        List<Order> orders = OrderListingService.mergeNewestFirst(
+                sellerId != null ? orderRepository.findSellerOrdersPlacedBetween(sellerId, from, to) : List.of(),
+                orderRepository.findLegacySellerOrdersPlacedBetween(shopOwnerNic, from, to),
+                Integer.MAX_VALUE);
+        return orders.stream()
+                .map(order -> convertToShopOrderDTO(order, shopOwnerNic, sellerId))
                 .collect(Collectors.toList());
     }
 
@@ -212,7 +230,19 @@ public class ShopOrderService {
         };
     }
 
-    private ShopOrderDTO convertToShopOrderDTO(Order order, String shopOwnerNic) {
+    private Long findSellerId(String shopOwnerNic) {
+        return userRepository.findIdByNicNumber(shopOwnerNic).orElse(null);
+    }
+
+    // Items created at checkout have no product row and record their seller by ID instead
+    private static boolean isSellerItem(OrderItem item, String shopOwnerNic, Long sellerId) {
+        if (item.getProduct() != null) {
+            return shopOwnerNic.equals(item.getProduct().getNicNumber());
+        }
+        return sellerId != null && sellerId.equals(item.getSellerId());
+    }
+
+    private ShopOrderDTO convertToShopOrderDTO(Order order, String shopOwnerNic, Long sellerId) {
         // Get customer information from buyer user
         User customer = order.getBuyerUser();
         String customerName = customer.getName();
@@ -225,7 +255,7 @@ public class ShopOrderService {
 
         // Convert order items, marking which ones belong to this shop owner
         List<ShopOrderDTO.ShopOrderItemDTO> orderItemDTOs = order.getOrderItems().stream()
-                .map(item -> convertToShopOrderItemDTO(item, shopOwnerNic))
+                .map(item -> convertToShopOrderItemDTO(item, shopOwnerNic, sellerId))
                 .collect(Collectors.toList());
 
         return new ShopOrderDTO(
@@ -259,14 +289,20 @@ public class ShopOrderService {
         return result.endsWith(", ") ? result.substring(0, result.length() - 2) : result;
     }
 
-    private ShopOrderDTO.ShopOrderItemDTO convertToShopOrderItemDTO(OrderItem orderItem, String shopOwnerNic) {
-        boolean isMyProduct = orderItem.getProduct() != null && 
-                             shopOwnerNic.equals(orderItem.getProduct().getNicNumber());
+    private ShopOrderDTO.ShopOrderItemDTO convertToShopOrderItemDTO(OrderItem orderItem, String shopOwnerNic,
+                                                                    Long sellerId) {
+        boolean isMyProduct = isSellerItem(orderItem, shopOwnerNic, sellerId);
+
+        // Fall back to the details copied onto the item at checkout
+        String productName = orderItem.getProduct() != null ? orderItem.getProduct().getName()
+                : orderItem.getProductName() != null ? orderItem.getProductName() : "Unknown Product";
+        String productType = orderItem.getProduct() != null ? orderItem.getProduct().getProductType()
+                : orderItem.getProductType() != null ? orderItem.getProductType() : "Unknown";
 
         return new ShopOrderDTO.ShopOrderItemDTO(
                 orderItem.getOrderItemId(),
-                orderItem.getProduct() != null ? orderItem.getProduct().getName() : "Unknown Product",
-                orderItem.getProduct() != null ? orderItem.getProduct().getProductType() : "Unknown",
+                productName,
+                productType,
                 orderItem.getQuantity(),
                 orderItem.getPrice(),
                 null, // Product image will be handled separately
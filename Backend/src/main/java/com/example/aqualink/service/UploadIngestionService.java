@@ -0,0 +1,198 @@
+package com.example.aqualink.service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Single entry point for storing uploaded files.
+ *
+ * The type of an upload is decided by its leading magic bytes, never by the client supplied
+ * Content-Type or file name, and the stored file gets the extension of the detected type. The images of a
+ * multi-image upload are streamed to the {@link ContentAddressedStore} in parallel on a dedicated pool, so
+ * an ad with ten pictures takes about as long as its largest one. If any image is rejected or fails to
+ * write, the ones already stored are released again and the whole upload fails.
+ */
+@Service
+public class UploadIngestionService {
+
+    public static final Set<ImageType> JPEG_OR_PNG = Set.of(ImageType.JPEG, ImageType.PNG);
+    public static final Set<ImageType> ANY_IMAGE = Set.of(ImageType.values());
+
+    private static final int HEADER_BYTES = 12;
+
+    private final ContentAddressedStore contentAddressedStore;
+
+    @Value("${upload.ingest.threads:4}")
+    private int threads;
+
+    @Value("${upload.ingest.queue-size:64}")
+    private int queueSize;
+
+    private ThreadPoolExecutor executor;
+
+    public UploadIngestionService(ContentAddressedStore contentAddressedStore) {
+        this.contentAddressedStore = contentAddressedStore;
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "upload-ingest-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // A saturated pool slows uploads down to the request thread's pace instead of failing them
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Validate and store one upload on the calling thread.
+     */
+    public ContentAddressedStore.StoredBlob ingest(MultipartFile file, Set<ImageType> allowed) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new IOException("File is empty");
+        }
+        try (InputStream in = new BufferedInputStream(file.getInputStream())) {
+            in.mark(HEADER_BYTES);
+            byte[] header = in.readNBytes(HEADER_BYTES);
+            in.reset();
+
+            ImageType type = ImageType.detect(header);
+            if (type == null || !allowed.contains(type)) {
+                throw new IOException("Invalid file type. Only " + describe(allowed) + " files are allowed.");
+            }
+            return contentAddressedStore.store(in, type.extension());
+        }
+    }
+
+    /**
+     * Validate and store all non-empty uploads in parallel. Results are in the order of the input; on any
+     * failure nothing stays stored and the first error is thrown.
+     */
+    public List<ContentAddressedStore.StoredBlob> ingestAll(MultipartFile[] files, Set<ImageType> allowed) throws IOException {
+        List<ContentAddressedStore.StoredBlob> stored = new ArrayList<>();
+        if (files == null || files.length == 0) {
+            return stored;
+        }
+
+        List<Future<ContentAddressedStore.StoredBlob>> futures = new ArrayList<>();
+        for (MultipartFile file : files) {
+            if (!file.isEmpty()) {
+                futures.add(executor.submit(() -> ingest(file, allowed)));
+            }
+        }
+
+        // Every write is waited for, even after a failure, so none can finish after the cleanup below
+        Exception failure = null;
+        for (Future<ContentAddressedStore.StoredBlob> future : futures) {
+            try {
+                stored.add(future.get());
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof Exception cause ? cause : e;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+
+        if (failure != null) {
+            for (ContentAddressedStore.StoredBlob blob : stored) {
+                contentAddressedStore.release(blob.url());
+            }
+            if (failure instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Failed to store uploaded files: " + failure.getMessage(), failure);
+        }
+        return stored;
+    }
+
+    private static String describe(Set<ImageType> allowed) {
+        List<String> names = Arrays.stream(ImageType.values())
+                .filter(allowed::contains)
+                .map(Enum::name)
+                .toList();
+        if (names.size() < 2) {
+            return String.join("", names);
+        }
+        return String.join(", ", names.subList(0, names.size() - 1)) + " and " + names.get(names.size() - 1);
+    }
+
+    /**
+     * Image formats accepted for upload, recognised by their file signature.
+     */
+    public enum ImageType {
+        JPEG(".jpg"),
+        PNG(".png"),
+        GIF(".gif"),
+        WEBP(".webp");
+
+        private final String extension;
+
+        ImageType(String extension) {
+            this.extension = extension;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        static ImageType detect(byte[] header) {
+            if (startsWith(header, 0, 0xFF, 0xD8, 0xFF)) {
+                return JPEG;
+            }
+            if (startsWith(header, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+                return PNG;
+            }
+            if (startsWith(header, 0, 'G', 'I', 'F', '8')) {
+                return GIF;
+            }
+            if (startsWith(header, 0, 'R', 'I', 'F', 'F') && startsWith(header, 8, 'W', 'E', 'B', 'P')) {
+                return WEBP;
+            }
+            return null;
+        }
+
+        private static boolean startsWith(byte[] header, int offset, int... signature) {
+            if (header.length < offset + signature.length) {
+                return false;
+            }
+            for (int i = 0; i < signature.length; i++) {
+                if ((header[offset + i] & 0xFF) != signature[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
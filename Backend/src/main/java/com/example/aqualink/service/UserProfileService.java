@@ -10,12 +10,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.Optional;
-import java.util.UUID;
 
 @Service
 public class UserProfileService {
@@ -26,6 +23,15 @@ public class UserProfileService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private ContentAddressedStore contentAddressedStore;
+
+    @Autowired
+    private UploadIngestionService uploadIngestionService;
+
     @Value("${app.upload.dir:uploads}")
     private String uploadDir;
 
@@ -53,8 +59,13 @@ public class UserProfileService {
 
             // Handle logo file upload
             if (logoFile != null && !logoFile.isEmpty()) {
+                String previousLogoPath = existingProfile.getLogoPath();
                 String logoPath = saveLogoFile(logoFile);
                 existingProfile.setLogoPath(logoPath);
+                if (previousLogoPath != null) {
+                    // Also right when the same image was uploaded again: that added a second reference
+                    contentAddressedStore.release(previousLogoPath);
+                }
                 existingProfile.setLogoName(logoFile.getOriginalFilename());
                 existingProfile.setLogoType(logoFile.getContentType());
             }
@@ -72,18 +83,9 @@ public class UserProfileService {
     }
 
     private String saveLogoFile(MultipartFile file) throws IOException {
-        Path uploadPath = Paths.get(uploadDir, "logos");
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
-
-        String originalFileName = file.getOriginalFilename();
-        String fileExtension = originalFileName.substring(originalFileName.lastIndexOf("."));
-        String uniqueFileName = UUID.randomUUID().toString() + fileExtension;
-
-        Path filePath = uploadPath.resolve(uniqueFileName);
-        Files.copy(file.getInputStream(), filePath);
+        ContentAddressedStore.StoredBlob blob = uploadIngestionService.ingest(file, UploadIngestionService.ANY_IMAGE);
+        imageDerivativeService.submit(blob.path());
 
-        return filePath.toString();
+        return Paths.get(uploadDir).resolve(blob.relativePath()).toString();
     }
 }
\ No newline at end of file
@@ -0,0 +1,155 @@
+package com.example.aqualink.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import com.example.aqualink.dto.FishPurchaseDTO;
+import com.example.aqualink.dto.IndustrialStuffPurchaseDTO;
+import com.example.aqualink.entity.ActiveStatus;
+import com.example.aqualink.entity.Fish;
+import com.example.aqualink.entity.IndustrialStuff;
+import com.example.aqualink.entity.User;
+import com.example.aqualink.repository.FishRepository;
+import com.example.aqualink.repository.IndustrialStuffRepository;
+import com.example.aqualink.repository.UserRepository;
+
+/**
+ * Flash sale against an in-memory H2 database: 64 threads race 20,000 single-unit purchases for a fish ad
+ * with 100 in stock and an industrial item with 50. Exactly the stock may be sold, never more.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:inventory-stress;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.show-sql=false"
+})
+class InventoryStressTest {
+
+	private static final int THREADS = 64;
+	private static final int PURCHASES = 20_000;
+	private static final int FISH_STOCK = 100;
+	private static final int INDUSTRIAL_STOCK = 50;
+
+	@Autowired
+	private FishAdsViewService fishAdsViewService;
+
+	@Autowired
+	private IndustrialStuffViewService industrialStuffViewService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private FishRepository fishRepository;
+
+	@Autowired
+	private IndustrialStuffRepository industrialStuffRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void concurrentPurchasesNeverOversell() throws Exception {
+		User seller = new User();
+		seller.setNicNumber("987654321V");
+		seller.setName("Stress Seller");
+		seller.setEmail("stress.seller@example.com");
+		seller.setPhoneNumber("+94770000001");
+		seller.setPassword("password");
+		seller = userRepository.save(seller);
+
+		Fish fish = new Fish();
+		fish.setUser(seller);
+		fish.setName("Flash sale koi");
+		fish.setNicNumber(seller.getNicNumber());
+		fish.setStock(FISH_STOCK);
+		fish.setPrice(1500.0);
+		fish.setMinimumQuantity(1);
+		fish.setActiveStatus(ActiveStatus.VERIFIED);
+		Long fishId = fishRepository.save(fish).getId();
+
+		IndustrialStuff industrial = new IndustrialStuff();
+		industrial.setUser(seller);
+		industrial.setName("Flash sale aerator");
+		industrial.setCategory("Equipment");
+		industrial.setNicNumber(seller.getNicNumber());
+		industrial.setStock(INDUSTRIAL_STOCK);
+		industrial.setPrice(4500.0);
+		industrial.setActiveStatus(ActiveStatus.VERIFIED);
+		Long industrialId = industrialStuffRepository.save(industrial).getId();
+
+		AtomicInteger fishSold = new AtomicInteger();
+		AtomicInteger industrialSold = new AtomicInteger();
+		AtomicInteger next = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+
+		ExecutorService buyers = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				futures.add(buyers.submit(() -> {
+					start.await();
+					for (int i = next.getAndIncrement(); i < PURCHASES; i = next.getAndIncrement()) {
+						if (i % 2 == 0) {
+							FishPurchaseDTO purchase = new FishPurchaseDTO();
+							purchase.setFishId(fishId);
+							purchase.setQuantity(1);
+							if (fishAdsViewService.processPurchase(purchase)) {
+								fishSold.incrementAndGet();
+							}
+						} else {
+							IndustrialStuffPurchaseDTO purchase = new IndustrialStuffPurchaseDTO();
+							purchase.setIndustrialId(industrialId);
+							purchase.setQuantity(1);
+							if (industrialStuffViewService.processPurchase(purchase)) {
+								industrialSold.incrementAndGet();
+							}
+						}
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(5, TimeUnit.MINUTES);
+			}
+		} finally {
+			buyers.shutdownNow();
+		}
+
+		assertEquals(FISH_STOCK, fishSold.get());
+		assertEquals(INDUSTRIAL_STOCK, industrialSold.get());
+
+		// Read the rows themselves, not entities or the ledger's snapshot
+		Integer fishStock = jdbcTemplate.queryForObject("SELECT stock FROM fish_ads WHERE id = ?", Integer.class, fishId);
+		assertEquals(0, fishStock);
+
+		Map<String, Object> row = jdbcTemplate.queryForMap(
+				"SELECT stock, sold_count, in_stock FROM industrial_stuff WHERE id = ?", industrialId);
+		assertEquals(0, ((Number) row.get("STOCK")).intValue());
+		assertEquals(INDUSTRIAL_STOCK, ((Number) row.get("SOLD_COUNT")).intValue());
+		assertFalse((Boolean) row.get("IN_STOCK"));
+		assertTrue(next.get() >= PURCHASES);
+	}
+}
@@ -0,0 +1,221 @@
+package com.example.aqualink.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.mail.javamail.MimeMessagePreparator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OutboundMailQueueTest {
+
+	private FakeSmtpServer server;
+	private SimpleMeterRegistry meterRegistry;
+	private OutboundMailQueue queue;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = new FakeSmtpServer();
+
+		JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+		mailSender.setHost("127.0.0.1");
+		mailSender.setPort(server.port());
+
+		meterRegistry = new SimpleMeterRegistry();
+		queue = new OutboundMailQueue(mailSender, meterRegistry);
+		ReflectionTestUtils.setField(queue, "threads", 1);
+		ReflectionTestUtils.setField(queue, "capacity", 100);
+		ReflectionTestUtils.setField(queue, "maxAttempts", 4);
+		ReflectionTestUtils.setField(queue, "initialBackoffMs", 10L);
+		ReflectionTestUtils.setField(queue, "idleTimeoutMs", 60000L);
+		queue.init();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		queue.shutdown();
+		server.close();
+	}
+
+	@Test
+	void reusesOneConnectionForConsecutiveMessages() {
+		for (int i = 0; i < 5; i++) {
+			queue.enqueue("message " + i, message("buyer" + i + "@example.com"));
+		}
+
+		awaitCount("mail.queue.sent", 5);
+		assertEquals(5, server.acceptedMessages.get());
+		assertEquals(1, server.connections.get());
+	}
+
+	@Test
+	void retriesTemporaryFailure() {
+		server.dataReplies.add("451 4.3.0 Temporary local problem, try again");
+
+		queue.enqueue("otp", message("buyer@example.com"));
+
+		awaitCount("mail.queue.sent", 1);
+		assertEquals(1, count("mail.queue.retried"));
+		assertEquals(0, count("mail.queue.failed"));
+		assertEquals(1, server.acceptedMessages.get());
+	}
+
+	@Test
+	void doesNotRetryRejectedAddress() {
+		queue.enqueue("otp", message(FakeSmtpServer.REJECTED_ADDRESS));
+
+		awaitCount("mail.queue.failed", 1);
+		assertEquals(0, count("mail.queue.retried"));
+		assertEquals(1, server.rejectedRecipients.get());
+		assertEquals(0, server.acceptedMessages.get());
+	}
+
+	private static MimeMessagePreparator message(String to) {
+		return mimeMessage -> {
+			MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "UTF-8");
+			helper.setFrom("noreply@aqualink.test");
+			helper.setTo(to);
+			helper.setSubject("Your OTP");
+			helper.setText("123456");
+		};
+	}
+
+	private double count(String counter) {
+		return meterRegistry.counter(counter).count();
+	}
+
+	private void awaitCount(String counter, double expected) {
+		await(() -> count(counter) >= expected);
+		assertEquals(expected, count(counter));
+	}
+
+	private static void await(BooleanSupplier condition) {
+		long deadline = System.currentTimeMillis() + 10000;
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for the mail queue");
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Minimal SMTP responder on a local port: accepts everything except {@link #REJECTED_ADDRESS}, and
+	 * answers DATA with the queued {@link #dataReplies} first, then 250.
+	 */
+	private static final class FakeSmtpServer implements AutoCloseable {
+
+		static final String REJECTED_ADDRESS = "nobody@example.com";
+
+		final AtomicInteger connections = new AtomicInteger();
+		final AtomicInteger acceptedMessages = new AtomicInteger();
+		final AtomicInteger rejectedRecipients = new AtomicInteger();
+		final Queue<String> dataReplies = new ConcurrentLinkedQueue<>();
+
+		private final ServerSocket serverSocket;
+		private final Queue<Socket> clients = new ConcurrentLinkedQueue<>();
+
+		FakeSmtpServer() throws IOException {
+			serverSocket = new ServerSocket(0);
+			Thread acceptor = new Thread(this::acceptLoop, "fake-smtp");
+			acceptor.setDaemon(true);
+			acceptor.start();
+		}
+
+		int port() {
+			return serverSocket.getLocalPort();
+		}
+
+		private void acceptLoop() {
+			while (!serverSocket.isClosed()) {
+				try {
+					Socket client = serverSocket.accept();
+					connections.incrementAndGet();
+					clients.add(client);
+					Thread session = new Thread(() -> serve(client), "fake-smtp-session");
+					session.setDaemon(true);
+					session.start();
+				} catch (IOException e) {
+					return;
+				}
+			}
+		}
+
+		private void serve(Socket client) {
+			try (client;
+					BufferedReader in = new BufferedReader(
+							new InputStreamReader(client.getInputStream(), StandardCharsets.US_ASCII));
+					PrintWriter out = new PrintWriter(client.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+				reply(out, "220 localhost ESMTP");
+				String line;
+				while ((line = in.readLine()) != null) {
+					String command = line.toUpperCase();
+					if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+						reply(out, "250 localhost");
+					} else if (command.startsWith("RCPT TO:")) {
+						if (line.contains(REJECTED_ADDRESS)) {
+							rejectedRecipients.incrementAndGet();
+							reply(out, "550 5.1.1 No such user");
+						} else {
+							reply(out, "250 OK");
+						}
+					} else if (command.equals("DATA")) {
+						reply(out, "354 End data with <CR><LF>.<CR><LF>");
+						while ((line = in.readLine()) != null && !line.equals(".")) {
+							// Message body is not inspected
+						}
+						String dataReply = dataReplies.poll();
+						if (dataReply == null) {
+							acceptedMessages.incrementAndGet();
+							dataReply = "250 OK queued";
+						}
+						reply(out, dataReply);
+					} else if (command.equals("QUIT")) {
+						reply(out, "221 Bye");
+						return;
+					} else {
+						// MAIL FROM, RSET, NOOP
+						reply(out, "250 OK");
+					}
+				}
+			} catch (IOException e) {
+				// Client went away
+			}
+		}
+
+		private static void reply(PrintWriter out, String line) {
+			out.print(line + "\r\n");
+			out.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			serverSocket.close();
+			for (Socket client : List.copyOf(clients)) {
+				client.close();
+			}
+		}
+	}
+}
@@ -42,6 +42,43 @@ const DeliveryRequests = () => {
     fetchRequests();
   }, [user]);
 
+  // Live updates: new requests in my coverage area are pushed over server-sent events
+  useEffect(() => {
+    if (!user) return;
+
+    let source = null;
+    let retryTimer = null;
+    let closed = false;
+
+    const connect = async () => {
+      try {
+        const { ticket } = await deliveryService.getRequestStreamTicket();
+        if (closed) return;
+
+        source = new EventSource(deliveryService.getRequestStreamUrl(ticket));
+        source.addEventListener('delivery-request', (event) => {
+          const request = JSON.parse(event.data);
+          setRequests(prev => prev.some(r => r.orderId === request.orderId) ? prev : [request, ...prev]);
+        });
+        source.onerror = () => {
+          // Tickets are single-use, so reconnect with a fresh one instead of letting EventSource retry
+          source.close();
+          if (!closed) retryTimer = setTimeout(connect, 5000);
+        };
+      } catch (err) {
+        console.error('Error opening delivery request stream:', err);
+        if (!closed) retryTimer = setTimeout(connect, 30000);
+      }
+    };
+
+    connect();
+    return () => {
+      closed = true;
+      clearTimeout(retryTimer);
+      if (source) source.close();
+    };
+  }, [user]);
+
   const formatPrice = (price) => {
     return `Rs.${parseFloat(price || 0).toLocaleString('en-US', { 
       minimumFractionDigits: 2, 
@@ -55,7 +55,7 @@ const FishCard = ({ fish, onPurchaseSuccess }) => {
             </div>
           )}
           <img
-            src={getImageUrl(fish.imageUrls?.[0])}
+            src={getImageUrl(fish.images?.[0]?.thumbnail ?? fish.imageUrls?.[0])}
             alt={fish.name}
             className={`w-full h-full object-cover transition-opacity duration-300 ${
               imageLoading ? 'opacity-0' : 'opacity-100'
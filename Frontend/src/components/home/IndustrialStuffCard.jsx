@@ -33,7 +33,7 @@ const IndustrialStuffCard = ({ industrial, onPurchaseSuccess }) => {
         <div className="relative h-48 overflow-hidden">
           {industrial.imageUrls && industrial.imageUrls.length > 0 ? (
             <img
-              src={getImageUrl(industrial.imageUrls[0])}
+              src={getImageUrl(industrial.images?.[0]?.thumbnail ?? industrial.imageUrls[0])}
               alt={industrial.name}
               className="w-full h-full object-cover"
               onError={(e) => {
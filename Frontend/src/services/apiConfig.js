@@ -48,6 +48,8 @@ export const API_ENDPOINTS = {
     CREATE_INITIAL_ORDER: '/delivery-quotes/create-initial-order',
     REQUEST: '/delivery-quotes/request',
     AVAILABLE: '/delivery-quotes/available',
+    STREAM_TICKET: '/delivery-quotes/stream-ticket',
+    STREAM: '/delivery-quotes/stream',
     CREATE: '/delivery-quotes/create',
     QUOTES_FOR_REQUEST: (sessionId) => `/delivery-quotes/request/${sessionId}/quotes`,
     QUOTES_FOR_ORDER: (orderId) => `/delivery-quotes/order/${orderId}/quotes`,
@@ -1,5 +1,5 @@
 import apiService from './apiService';
-import { API_ENDPOINTS } from './apiConfig';
+import { API_BASE_URL, API_ENDPOINTS } from './apiConfig';
 
 class DeliveryService {
   // Get all assigned orders
@@ -72,6 +72,16 @@ class DeliveryService {
     }
   }
 
+  // Single-use ticket for the live request stream (EventSource cannot send the Authorization header)
+  async getRequestStreamTicket() {
+    return apiService.post(API_ENDPOINTS.DELIVERY_QUOTES.STREAM_TICKET);
+  }
+
+  // Server-sent events URL for new requests in the delivery person's coverage area
+  getRequestStreamUrl(ticket) {
+    return `${API_BASE_URL}${API_ENDPOINTS.DELIVERY_QUOTES.STREAM}?ticket=${encodeURIComponent(ticket)}`;
+  }
+
   // Create a delivery quote
   async createQuote(quoteData) {
     try {